@@ -0,0 +1,16 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+//POST /v1/swift-codes/bulk (application.yml -> swift.bulk-create)
+@Data
+@ConfigurationProperties(prefix = "swift.bulk-create")
+public class BulkCreateProperties {
+
+    //records saved in one transaction, the next ones are read from the request only after it's committed
+    private int batchSize = 500;
+
+    //rejected records listed in the response, counts are always complete
+    private int maxReportedErrors = 1000;
+}
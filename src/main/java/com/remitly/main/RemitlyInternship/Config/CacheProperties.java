@@ -0,0 +1,19 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//settings of the cache of GET /v1/swift-codes/{swift-code} responses (application.yml -> swift.cache)
+@Data
+@ConfigurationProperties(prefix = "swift.cache")
+public class CacheProperties {
+
+    //max number of cached SWIFT codes, least recently used ones are evicted first, 0 -> cache disabled
+    private int maximumSize = 10_000;
+
+    //entries older than this are loaded from the database again, also the upper bound of staleness
+    //after writes which don't go through SwiftCodeService (imports clear the whole cache)
+    private Duration ttl = Duration.ofMinutes(10);
+}
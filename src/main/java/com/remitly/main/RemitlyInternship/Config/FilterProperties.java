@@ -0,0 +1,21 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//settings of the filter of existing SWIFT codes (application.yml -> swift.filter), see SwiftCodeFilter
+@Data
+@ConfigurationProperties(prefix = "swift.filter")
+public class FilterProperties {
+
+    //false -> every unknown code is looked up
+    private boolean enabled = true;
+
+    //share of unknown codes which still get looked up, smaller -> bigger filter
+    private double falsePositiveRate = 0.01;
+
+    //rebuild from the database waits this long after the last bulk write (import batch)
+    private Duration rebuildDelay = Duration.ofMillis(500);
+}
@@ -0,0 +1,48 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+//settings of the SWIFT codes import (application.yml -> swift.import)
+@Data
+@ConfigurationProperties(prefix = "swift.import")
+public class ImportProperties {
+
+    public enum Mode {
+        APPEND, //only codes which are not in the database yet are inserted
+        DELTA,  //file is the whole directory, changed rows are updated and missing ones deleted
+        RELOAD  //file is the whole directory, table is replaced with COPY (SwiftCodeBulkLoadService), ids change
+    }
+
+    //import of the bundled Excel file in the background when the application starts
+    private boolean startupEnabled = true;
+
+    //classpath location of the bundled Excel file
+    private String startupFile = "data/Interns_2025_SWIFT_CODES.xlsx";
+
+    //skip the startup import if the same file (same fingerprint) was already imported with the same mode,
+    //uploads through /v1/imports are not affected (they have their own skipUnchanged parameter)
+    private boolean skipUnchanged = true;
+
+    //how the startup file is applied to the data which is already in the database
+    private Mode mode = Mode.APPEND;
+
+    //binary snapshot of the directory on disk (SwiftCodeSnapshot), empty -> not used,
+    //it's written after the startup import and the next instance restores it instead of parsing the file
+    private String snapshotFile;
+
+    private Pipeline pipeline = new Pipeline();
+
+    //import pipeline (read -> validate -> link -> write), see ImportPipeline
+    @Data
+    public static class Pipeline {
+        //validation threads, 0 -> half of the available processors
+        private int workers = 0;
+        //rows in one chunk passed between read, validate and link stages
+        private int chunkSize = 500;
+        //rows in one batch written by the writer (and checked against the database with one IN query)
+        private int batchSize = 1000;
+        //chunks/batches waiting between two stages, when it's full the stage before has to wait
+        private int queueCapacity = 8;
+    }
+}
@@ -0,0 +1,19 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//settings of the in-memory read model of the directory (application.yml -> swift.index), see SwiftCodeIndex
+@Data
+@ConfigurationProperties(prefix = "swift.index")
+public class IndexProperties {
+
+    //false -> every read goes to the database
+    private boolean enabled = true;
+
+    //rebuild from the database waits this long after the last bulk write (import batch), so a running import
+    //doesn't cause a full rebuild after every batch
+    private Duration rebuildDelay = Duration.ofMillis(500);
+}
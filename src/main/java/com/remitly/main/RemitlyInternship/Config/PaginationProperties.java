@@ -0,0 +1,16 @@
+package com.remitly.main.RemitlyInternship.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+//page sizes of GET /v1/swift-codes/country/{countryISO2}?limit=&cursor= (application.yml -> swift.pagination)
+@Data
+@ConfigurationProperties(prefix = "swift.pagination")
+public class PaginationProperties {
+
+    //used when only the cursor is given
+    private int defaultPageSize = 100;
+
+    //bigger limits are cut down to this
+    private int maxPageSize = 1000;
+}
@@ -0,0 +1,54 @@
+package com.remitly.main.RemitlyInternship.Controller;
+
+import com.remitly.main.RemitlyInternship.DTO.ImportJobDTO;
+import com.remitly.main.RemitlyInternship.Service.ExcelParserService;
+import com.remitly.main.RemitlyInternship.Service.ImportJob;
+import com.remitly.main.RemitlyInternship.Service.ImportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ Loading a new SWIFT codes directory without rebuilding the image.
+ * POST returns 202 with the job right away, the import runs in the background
+ * GET /{id} shows the progress (rows read/accepted/rejected, throughput of the import and of its stages)
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/imports")
+public class ImportController {
+
+    private final ExcelParserService excelParserService;
+    private final ImportJobService importJobService;
+
+    //mode: append (only new codes), delta or reload (file is the whole directory), default from swift.import.mode
+    //format: xlsx, csv or ndjson, default by the file name extension
+    //skipUnchanged: true -> skipped if the last import of this file name was the same file with the same mode
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> createImport(@RequestPart("file") MultipartFile file,
+                                                     @RequestParam(value = "mode", required = false) String mode,
+                                                     @RequestParam(value = "format", required = false) String format,
+                                                     @RequestParam(value = "skipUnchanged", defaultValue = "false")
+                                                     boolean skipUnchanged)
+            throws IOException {
+        log.info("POST request received for import of: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        ImportJob job = excelParserService.submitUpload(file, mode, format, skipUnchanged);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/v1/imports/" + job.getId()))
+                .body(importJobService.getJobStatus(job.getId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getImport(@PathVariable("id") String id) {
+        log.info("GET request received for import job: {}", id);
+        return ResponseEntity.ok(importJobService.getJobStatus(id));
+    }
+}
@@ -0,0 +1,52 @@
+package com.remitly.main.RemitlyInternship.Controller;
+
+import com.remitly.main.RemitlyInternship.DTO.ImportJobDTO;
+import com.remitly.main.RemitlyInternship.Service.ImportJob;
+import com.remitly.main.RemitlyInternship.Service.ImportJobService;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ Binary snapshot of the whole directory (SwiftCodeSnapshot).
+ * GET downloads the current data as a snapshot
+ * POST restores an uploaded snapshot in the background (202 with the import job), it replaces the whole directory
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/snapshots")
+public class SnapshotController {
+
+    private final SwiftCodeSnapshotService swiftCodeSnapshotService;
+    private final ImportJobService importJobService;
+
+    @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        log.info("GET request received for snapshot export");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"swift-codes.snapshot\"")
+                .body(outputStream -> swiftCodeSnapshotService.exportSnapshot(outputStream, null));
+    }
+
+    //restore runs in the background on the import executor (never next to an import), returns 202 with the job,
+    //progress is at /v1/imports/{id}
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> restoreSnapshot(@RequestPart("file") MultipartFile file) throws IOException {
+        log.info("POST request received for snapshot restore: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        ImportJob job = swiftCodeSnapshotService.submitRestore(file);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/v1/imports/" + job.getId()))
+                .body(importJobService.getJobStatus(job.getId()));
+    }
+}
@@ -1,17 +1,30 @@
 package com.remitly.main.RemitlyInternship.Controller;
 
 import com.remitly.main.RemitlyInternship.DTO.CountrySwiftCodesResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkCreateResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkDeleteRequestDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkDeleteResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.MessageResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeLookupRequestDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeLookupResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeSearchResponseDTO;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeBulkCreateService;
 import com.remitly.main.RemitlyInternship.Service.SwiftCodeService;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeStreamingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @Slf4j
 @RequiredArgsConstructor
 @RestController
@@ -19,6 +32,8 @@ import org.springframework.web.bind.annotation.*;
 public class SwiftCodeController {
 
     private final SwiftCodeService swiftCodeService;
+    private final SwiftCodeStreamingService swiftCodeStreamingService;
+    private final SwiftCodeBulkCreateService swiftCodeBulkCreateService;
 
     //Endpoint 1: Retrieve details of a single SWIFT code whether for a headquarters or branches.
     @GetMapping("/{swiftCode}")
@@ -28,13 +43,53 @@ public class SwiftCodeController {
         return ResponseEntity.ok(swiftCodeDTO);
     }
 
+    //existence check without a body, 200 or 404 (unknown codes are mostly answered by the filter of stored codes)
+    @RequestMapping(value = "/{swiftCode}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> swiftCodeExists(@PathVariable("swiftCode") String swiftCode) {
+        log.info("HEAD request received for SWIFT CODE: {}", swiftCode);
+        return swiftCodeService.swiftCodeExists(swiftCode)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    //without limit and cursor the whole country, with any of them one page (nextCursor -> the following page)
     @GetMapping("/country/{countryISO2code}")
-    public ResponseEntity<CountrySwiftCodesResponseDTO> getSwiftCodesByContry(@PathVariable String countryISO2code){
+    public ResponseEntity<CountrySwiftCodesResponseDTO> getSwiftCodesByContry(@PathVariable String countryISO2code,
+                                                                              @RequestParam(required = false) Integer limit,
+                                                                              @RequestParam(required = false) String cursor){
         log.info("Get request received for SWIFT CODE COUNTRY: {}", countryISO2code);
-        CountrySwiftCodesResponseDTO countrySwiftCodesResponseDTO = swiftCodeService.getCountrySwiftCodes(countryISO2code);
+        CountrySwiftCodesResponseDTO countrySwiftCodesResponseDTO = limit == null && cursor == null
+                ? swiftCodeService.getCountrySwiftCodes(countryISO2code)
+                : swiftCodeService.getCountrySwiftCodesPage(countryISO2code, limit, cursor);
         return ResponseEntity.ok(countrySwiftCodesResponseDTO);
     }
 
+    //same response written row by row from a database cursor, for countries with a lot of codes
+    @GetMapping(value = "/country/{countryISO2code}", params = "stream=true")
+    public void streamSwiftCodesByCountry(@PathVariable String countryISO2code, HttpServletResponse response)
+            throws IOException {
+        log.info("Get request received for SWIFT CODE COUNTRY (streaming): {}", countryISO2code);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        swiftCodeStreamingService.writeCountrySwiftCodes(countryISO2code, response.getOutputStream());
+    }
+
+    //type-ahead: codes starting with q, then codes whose bank name (or a word of it) starts with q
+    @GetMapping("/search")
+    public ResponseEntity<SwiftCodeSearchResponseDTO> searchSwiftCodes(@RequestParam String q,
+                                                                       @RequestParam(required = false) Integer limit) {
+        log.info("GET request received for SWIFT CODE SEARCH: {}", q);
+        SwiftCodeSearchResponseDTO swiftCodeSearchResponseDTO = swiftCodeService.searchSwiftCodes(q, limit);
+        return ResponseEntity.ok(swiftCodeSearchResponseDTO);
+    }
+
+    //many codes at once, found ones + list of codes which don't exist (200 even if none is found)
+    @PostMapping("/lookup")
+    public ResponseEntity<SwiftCodeLookupResponseDTO> lookupSwiftCodes(@Valid @RequestBody SwiftCodeLookupRequestDTO requestDTO) {
+        log.info("POST request received for SWIFT CODE LOOKUP: {} codes", requestDTO.getSwiftCodes().size());
+        SwiftCodeLookupResponseDTO swiftCodeLookupResponseDTO = swiftCodeService.lookupSwiftCodes(requestDTO.getSwiftCodes());
+        return ResponseEntity.ok(swiftCodeLookupResponseDTO);
+    }
+
     @PostMapping
     public ResponseEntity<MessageResponseDTO> createSwiftCode(@Valid @RequestBody SwiftCodeRequestDTO requestDTO) {
         log.info("POST request received for SWIFT CODE: {}", requestDTO.getSwiftCode());
@@ -42,6 +97,16 @@ public class SwiftCodeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(messageResponseDTO);
     }
 
+    //many new codes at once, NDJSON or a JSON array read from the body record by record and saved batch by batch,
+    //200 with created/rejected counts and the reasons of rejected records (valid ones are saved anyway)
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<SwiftCodeBulkCreateResponseDTO> createSwiftCodes(HttpServletRequest request) throws IOException {
+        log.info("POST request received for SWIFT CODE BULK CREATE ({} bytes)", request.getContentLengthLong());
+        SwiftCodeBulkCreateResponseDTO swiftCodeBulkCreateResponseDTO =
+                swiftCodeBulkCreateService.createSwiftCodes(request.getInputStream());
+        return ResponseEntity.ok(swiftCodeBulkCreateResponseDTO);
+    }
+
     @DeleteMapping("/{swiftCode}")
     public ResponseEntity<MessageResponseDTO> deleteSwiftCode(@PathVariable("swiftCode") String swiftCode) {
         log.info("DELETE request received for SWIFT CODE: {}", swiftCode);
@@ -49,5 +114,14 @@ public class SwiftCodeController {
         return ResponseEntity.ok(messageResponseDTO);
     }
 
+    //many codes at once: {"swiftCodes": [...]}, {"bankCode": "ABCDPLPW"} or {"countryISO2": "PL"},
+    //branches of deleted headquarters are deleted too, 200 with the number of deleted codes (0 if nothing matched)
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<SwiftCodeBulkDeleteResponseDTO> deleteSwiftCodes(@Valid @RequestBody SwiftCodeBulkDeleteRequestDTO requestDTO) {
+        log.info("POST request received for SWIFT CODE BULK DELETE");
+        SwiftCodeBulkDeleteResponseDTO swiftCodeBulkDeleteResponseDTO = swiftCodeService.deleteSwiftCodes(requestDTO);
+        return ResponseEntity.ok(swiftCodeBulkDeleteResponseDTO);
+    }
+
 
 }
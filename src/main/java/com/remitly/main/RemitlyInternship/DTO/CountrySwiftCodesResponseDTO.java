@@ -1,5 +1,6 @@
 package com.remitly.main.RemitlyInternship.DTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +16,8 @@ public class CountrySwiftCodesResponseDTO {
     private String countryISO2;
     private String countryName;
     private List<SwiftCodeDTO> swiftCodes;
+
+    //only in paged responses (?limit=&cursor=), cursor of the next page, null on the last page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
@@ -0,0 +1,34 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+   State of an import job returned by /v1/imports, rowsPerSecond is the throughput of the whole import
+   and stages show the throughput of every pipeline stage
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private String id;
+    private String source;
+    private String status;
+    private String message;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsRead;
+    private long rowsAccepted;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private List<ImportStageDTO> stages = new ArrayList<>();
+}
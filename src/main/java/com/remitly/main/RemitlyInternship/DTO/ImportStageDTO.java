@@ -0,0 +1,19 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportStageDTO {
+    private String name;
+    private int threads;
+    private long rows;
+    private double rowsPerSecond;
+    private long busyMillis;
+    private long waitingMillis;
+}
@@ -0,0 +1,34 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//summary of POST /v1/swift-codes/bulk, records are numbered from 1 in the order of the request body
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftCodeBulkCreateResponseDTO {
+    private long received;
+    private long created;
+    private long rejected;
+    //false -> body wasn't valid JSON from some record on, records after it weren't read (ones before are saved)
+    private boolean complete;
+    //only the first swift.bulk-create.max-reported-errors rejected records
+    @Builder.Default
+    private List<RecordError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordError {
+        private long record;
+        private String swiftCode; //null if the record doesn't have one
+        private String message;
+    }
+}
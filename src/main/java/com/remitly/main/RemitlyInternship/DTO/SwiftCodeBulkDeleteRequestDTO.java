@@ -0,0 +1,39 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+//body of POST /v1/swift-codes/bulk-delete, exactly one of: list of codes, bank code (first 8 characters) or country
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftCodeBulkDeleteRequestDTO {
+
+    public static final int MAX_SWIFT_CODES = 1000;
+
+    @Size(min = 1, max = MAX_SWIFT_CODES, message = "Between 1 and " + MAX_SWIFT_CODES + " swiftCodes in one request")
+    private List<@NotBlank(message = "swiftCode can't be blank") String> swiftCodes;
+
+    @Pattern(regexp = "^[A-Za-z]{6}[A-Za-z0-9]{2}$", message = "bankCode must be the first 8 characters of a SWIFT code")
+    private String bankCode;
+
+    @Size(min = 2, max = 2, message = "countryISO2 must contain exactly 2 characters")
+    private String countryISO2;
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of swiftCodes, bankCode and countryISO2 is required")
+    public boolean isSingleCriterion() {
+        return Stream.of(swiftCodes, bankCode, countryISO2).filter(criterion -> criterion != null).count() == 1;
+    }
+}
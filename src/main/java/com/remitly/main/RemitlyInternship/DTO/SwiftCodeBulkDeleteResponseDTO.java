@@ -0,0 +1,21 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//result of POST /v1/swift-codes/bulk-delete, deleted counts the branches of deleted headquarters too
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SwiftCodeBulkDeleteResponseDTO {
+    private long deleted;
+    //only for a list of codes: requested codes which didn't exist
+    private List<String> missingSwiftCodes;
+}
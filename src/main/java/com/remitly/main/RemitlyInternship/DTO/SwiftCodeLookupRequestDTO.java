@@ -0,0 +1,25 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//body of POST /v1/swift-codes/lookup
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftCodeLookupRequestDTO {
+
+    public static final int MAX_SWIFT_CODES = 1000;
+
+    @NotEmpty(message = "swiftCodes are required")
+    @Size(max = MAX_SWIFT_CODES, message = "At most " + MAX_SWIFT_CODES + " swiftCodes in one request")
+    private List<@NotBlank(message = "swiftCode can't be blank") String> swiftCodes;
+}
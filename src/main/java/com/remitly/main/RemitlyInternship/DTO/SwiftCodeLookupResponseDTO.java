@@ -0,0 +1,18 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//found codes (same as GET /v1/swift-codes/{swift-code}) and codes which don't exist, both in the order of the request
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftCodeLookupResponseDTO {
+    private List<SwiftCodeDTO> swiftCodes;
+    private List<String> missingSwiftCodes;
+}
@@ -0,0 +1,18 @@
+package com.remitly.main.RemitlyInternship.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//top matches of GET /v1/swift-codes/search, codes matching by SWIFT code first, then by bank name (without branches)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftCodeSearchResponseDTO {
+    private String query;
+    private List<SwiftCodeDTO> swiftCodes;
+}
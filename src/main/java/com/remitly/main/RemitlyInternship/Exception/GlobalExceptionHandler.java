@@ -10,6 +10,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -74,6 +75,47 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponseDTO("Error parsing Excel file: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<MessageResponseDTO> handleImportJobNotFoundException(ImportJobNotFoundException ex) {
+        log.warn("Import job not found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponseDTO(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidImportRequestException.class)
+    public ResponseEntity<MessageResponseDTO> handleInvalidImportRequestException(InvalidImportRequestException ex) {
+        log.warn("Invalid import request: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponseDTO(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SnapshotFormatException.class)
+    public ResponseEntity<MessageResponseDTO> handleSnapshotFormatException(SnapshotFormatException ex) {
+        log.warn("Invalid snapshot: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponseDTO(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<MessageResponseDTO> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        log.warn("Invalid page request: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponseDTO(ex.getMessage()));
+    }
+
+    //uploaded file is bigger than spring.servlet.multipart.max-file-size
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<MessageResponseDTO> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        log.warn("Uploaded file is too big: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new MessageResponseDTO("Uploaded file is too big"));
+    }
+
     @ExceptionHandler(InvalidSwiftCodeException.class)
     public ResponseEntity<MessageResponseDTO> handleInvalidSwiftCodeException(InvalidSwiftCodeException ex) {
         log.warn("Invalid SWIFT code: {}", ex.getMessage());
@@ -0,0 +1,7 @@
+package com.remitly.main.RemitlyInternship.Exception;
+
+public class ImportJobNotFoundException extends RuntimeException {
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.remitly.main.RemitlyInternship.Exception;
+
+public class InvalidImportRequestException extends RuntimeException {
+    public InvalidImportRequestException(String message) {
+        super(message);
+    }
+}
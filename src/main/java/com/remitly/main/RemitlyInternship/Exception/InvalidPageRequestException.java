@@ -0,0 +1,8 @@
+package com.remitly.main.RemitlyInternship.Exception;
+
+//wrong limit or cursor of a paged request
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
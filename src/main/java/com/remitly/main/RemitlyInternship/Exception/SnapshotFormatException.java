@@ -0,0 +1,11 @@
+package com.remitly.main.RemitlyInternship.Exception;
+
+public class SnapshotFormatException extends RuntimeException {
+    public SnapshotFormatException(String message) {
+        super(message);
+    }
+
+    public SnapshotFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package com.remitly.main.RemitlyInternship.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+//progress of an import which is not finished yet, it's updated in the same transaction as every committed chunk
+//and removed when the import finishes, so it exists only for interrupted imports
+@Table(name = "import_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportCheckpoint {
+    @Id
+    @Column(length = 64)
+    private String fingerprint; //SHA-256 of the file content, same file -> same rows
+
+    private String source;
+
+    private int lastCommittedRow; //file row number, rows up to this one are already in the database
+
+    private long rowsCommitted;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
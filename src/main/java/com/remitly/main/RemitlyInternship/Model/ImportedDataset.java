@@ -0,0 +1,38 @@
+package com.remitly.main.RemitlyInternship.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+//one row per successful import of a file, used to skip files which were already imported
+@Table(name = "imported_datasets", indexes = {
+    @Index(name = "idx_imported_dataset_source", columnList = "source, importedAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedDataset {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String source; //file name or classpath location
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; //SHA-256 of the file content (hex)
+
+    @Column(length = 16)
+    private String mode; //import mode (APPEND, DELTA, RELOAD), null for imports recorded before it was stored
+
+    private long rowCount; //rows accepted by the import
+
+    @Column(nullable = false)
+    private Instant importedAt;
+}
@@ -3,28 +3,49 @@ package com.remitly.main.RemitlyInternship.Model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
 //indexes are created on the 'swiftCode' and 'countryISO2'
 //columns to optimize search queries and improve query performance for filtering by these fields.
+//swiftCode is the second column of idx_country_iso2_swift_code, pages of a country (ordered by code) are read straight
+//from it. It has a new name because ddl-auto only creates missing indexes and never changes existing ones,
+//the old single column idx_country_iso2 stays on existing databases until it's dropped by hand (DROP INDEX idx_country_iso2)
+//PostgreSQL doesn't index foreign keys by itself, idx_headquarters_id is for finding branches when deleting a headquarter
 @Table(name = "swift_codes", indexes = {
     @Index(name="idx_swift_code", columnList = "swiftCode", unique = true),
-    @Index(name="idx_country_iso2", columnList = "countryISO2")
+    @Index(name="idx_country_iso2_swift_code", columnList = "countryISO2, swiftCode"),
+    @Index(name="idx_bank_code", columnList = "bankCode"),
+    @Index(name="idx_headquarters_id", columnList = "headquarters_id")
 })
-@Data
+//no @Data: its equals/hashCode/toString went through headquarters and branches (whole bank, and back again),
+//equality is the natural key (swiftCode, unique and never changed), so it's the same before and after saving
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SwiftCode {
+    //sequence (not IDENTITY) so Hibernate knows ids before INSERT and can send inserts in JDBC batches,
+    //allocationSize = 50 -> pooled optimizer, one nextval() call gives us ids for 50 rows
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "swift_codes_seq")
+    @SequenceGenerator(name = "swift_codes_seq", sequenceName = "swift_codes_seq", allocationSize = 50)
     private Long id;
 
+    @EqualsAndHashCode.Include
     @Column(unique = true, nullable = false)
     private String swiftCode;
 
@@ -34,12 +55,65 @@ public class SwiftCode {
     private String countryName;
     private boolean isHeadquarter; //flag to represent if the record is headquarter
 
+    //hash of the business fields, the delta import compares it instead of comparing every column,
+    //it's kept up to date by updateDerivedColumns() (null only for rows saved before the column existed)
+    private Long rowHash;
+
+    //first 8 characters of the code (bank, country, location), branches are linked to the headquarter with the same
+    //bank code with one UPDATE over idx_bank_code, set by updateDerivedColumns() and by the bulk loaders
+    @Column(length = 8)
+    private String bankCode;
+
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "headquarters_id")
     private SwiftCode headquarters;
 
     //mappedBy = "headquarters" --> means that one headquarters can have multiple related branches.
     //cascade = CascadeType.ALL --> if we delete headquarter we delete all branches
+    //(SwiftCodeService deletes with SwiftCodeRepository.deleteWithBranches, the cascade is only for entity deletes)
+    //Set (hash of the code) -> contains/remove don't scan the branches, @OrderBy keeps them in id order
+    //(Hibernate uses a LinkedHashSet then, the order of JOIN FETCH ... ORDER BY b.id stays)
+    @ToString.Exclude
+    @OrderBy("id")
     @OneToMany(mappedBy = "headquarters", cascade = CascadeType.ALL)
-    private List<SwiftCode> branches = new ArrayList<>();
+    @Builder.Default
+    private Set<SwiftCode> branches = new LinkedHashSet<>();
+
+    //computeRowHash runs for every imported row, getInstance looks up the provider every time, so one digest per thread
+    private static final ThreadLocal<MessageDigest> ROW_HASH_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    @PrePersist
+    @PreUpdate
+    void updateDerivedColumns() {
+        rowHash = computeRowHash();
+        bankCode = bankCodeOf(swiftCode);
+    }
+
+    public static String bankCodeOf(String swiftCode) {
+        return swiftCode == null ? null : swiftCode.substring(0, Math.min(8, swiftCode.length()));
+    }
+
+    //first 8 bytes of SHA-256 of the business fields (swift code is the key and isHeadquarter comes from it)
+    public long computeRowHash() {
+        MessageDigest digest = ROW_HASH_DIGEST.get();
+        digest.reset();
+        for (String field : new String[]{bankName, address, countryISO2, countryName}) {
+            //null and "" have to give different hashes, \0 separates fields so "AB"+"C" != "A"+"BC"
+            digest.update(field == null ? new byte[]{1} : field.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        byte[] hash = digest.digest();
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = (result << 8) | (hash[i] & 0xFF);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,108 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ Base of the text readers (CSV, NDJSON), one instance reads one file.
+ * The stream is read into a single byte buffer which is reused for the whole file, records are parsed
+   straight from the bytes (no String per line, no char[] copy of the input), only cell values become Strings.
+ * Record which doesn't fit into the rest of the buffer is moved to the beginning and parsed again after the refill,
+   the buffer grows only if a single record is bigger than the whole buffer.
+ * Input is UTF-8, BOM at the beginning is skipped.
+ */
+abstract class BufferedTextReader {
+
+    //returned by findRecordEnd
+    static final int NEED_MORE = -1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream inputStream;
+    protected final RowReader.RowHandler rowHandler;
+
+    protected byte[] buffer = new byte[BUFFER_SIZE];
+    protected int limit;
+    protected boolean eof;
+    private String[] cells = new String[0];
+
+    protected BufferedTextReader(InputStream inputStream, RowReader.RowHandler rowHandler) {
+        this.inputStream = inputStream;
+        this.rowHandler = rowHandler;
+    }
+
+    /**
+     Returns the end of the record which starts at start (position after its line break),
+     or NEED_MORE if the record is not complete and the end of the file wasn't reached yet.
+     start is always lower than limit.
+     */
+    protected abstract int findRecordEnd(int start, int recordNum);
+
+    //called for every complete record, buffer[start, end) is valid only during this call
+    protected abstract void handleRecord(int start, int end, int recordNum);
+
+    void read() throws IOException {
+        int pos = 0;
+        int recordNum = 0;
+        fill();
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+            pos = 3;
+        }
+
+        while (true) {
+            if (pos == limit) {
+                if (eof) {
+                    return;
+                }
+                pos = refill(pos);
+                continue;
+            }
+
+            int end = findRecordEnd(pos, recordNum);
+            if (end == NEED_MORE) {
+                pos = refill(pos);
+                continue;
+            }
+            handleRecord(pos, end, recordNum++);
+            pos = end;
+        }
+    }
+
+    //cells array is shared by all rows, the rest after count is cleared
+    protected String[] cells(int count) {
+        if (cells.length < count) {
+            cells = new String[count];
+        } else {
+            Arrays.fill(cells, count, cells.length, null);
+        }
+        return cells;
+    }
+
+    //empty value is the same as a missing cell in XLSX
+    protected String decode(int offset, int length) {
+        return length == 0 ? null : new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+
+    //moves the unfinished record to the beginning (or grows the buffer) and reads more bytes after it
+    private int refill(int pos) throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        fill();
+        return 0;
+    }
+
+    private void fill() throws IOException {
+        int read = inputStream.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ Streaming reader of CSV files (RFC 4180), first line is the header row.
+ * Values are separated by commas, a value can be quoted ("...") and then it can contain commas,
+   line breaks and quotes (written as "").
+ * Lines end with \n or \r\n, empty lines are skipped (but counted as rows).
+ * Empty values are passed as null, same as empty cells of XLSX.
+ Record is found in the shared byte buffer first (only positions of the values are remembered),
+ Strings are created after that, so a record split by the end of the buffer isn't decoded twice.
+ */
+public class CsvStreamingReader {
+
+    public static void read(InputStream inputStream, RowReader.RowHandler rowHandler) throws IOException {
+        new Parser(inputStream, rowHandler).read();
+    }
+
+    private static class Parser extends BufferedTextReader {
+        private int[] valueStarts = new int[16];
+        private int[] valueLengths = new int[16];
+        private boolean[] valueEscaped = new boolean[16];
+        private int valueCount;
+        private byte[] unescapeBuffer = new byte[256];
+
+        private Parser(InputStream inputStream, RowReader.RowHandler rowHandler) {
+            super(inputStream, rowHandler);
+        }
+
+        @Override
+        protected int findRecordEnd(int start, int recordNum) {
+            valueCount = 0;
+            int pos = start;
+            while (true) {
+                if (pos < limit && buffer[pos] == '"') {
+                    int valueStart = ++pos;
+                    boolean escaped = false;
+                    while (true) {
+                        if (pos >= limit) {
+                            if (!eof) {
+                                return NEED_MORE;
+                            }
+                            throw new ExcelParseException("Unterminated quoted value in CSV file at row " + recordNum);
+                        }
+                        if (buffer[pos] == '"') {
+                            if (pos + 1 >= limit && !eof) {
+                                return NEED_MORE;
+                            }
+                            if (pos + 1 < limit && buffer[pos + 1] == '"') {
+                                escaped = true;
+                                pos += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        pos++;
+                    }
+                    addValue(valueStart, pos - valueStart, escaped);
+                    pos++;
+                } else {
+                    int valueStart = pos;
+                    while (pos < limit && buffer[pos] != ',' && buffer[pos] != '\n' && buffer[pos] != '\r') {
+                        pos++;
+                    }
+                    addValue(valueStart, pos - valueStart, false);
+                }
+
+                if (pos >= limit) {
+                    return eof ? pos : NEED_MORE;
+                }
+                byte next = buffer[pos];
+                if (next == ',') {
+                    pos++;
+                } else if (next == '\n') {
+                    return pos + 1;
+                } else if (next == '\r') {
+                    if (pos + 1 >= limit && !eof) {
+                        return NEED_MORE;
+                    }
+                    return pos + 1 < limit && buffer[pos + 1] == '\n' ? pos + 2 : pos + 1;
+                } else {
+                    throw new ExcelParseException("Unexpected character after quoted value in CSV file at row " + recordNum);
+                }
+            }
+        }
+
+        @Override
+        protected void handleRecord(int start, int end, int recordNum) {
+            if (valueCount == 1 && valueLengths[0] == 0) {
+                return;
+            }
+
+            String[] cells = cells(valueCount);
+            for (int i = 0; i < valueCount; i++) {
+                cells[i] = valueEscaped[i]
+                        ? unescape(valueStarts[i], valueLengths[i])
+                        : decode(valueStarts[i], valueLengths[i]);
+            }
+            rowHandler.handleRow(recordNum, cells);
+        }
+
+        private void addValue(int start, int length, boolean escaped) {
+            if (valueCount == valueStarts.length) {
+                valueStarts = Arrays.copyOf(valueStarts, valueCount * 2);
+                valueLengths = Arrays.copyOf(valueLengths, valueCount * 2);
+                valueEscaped = Arrays.copyOf(valueEscaped, valueCount * 2);
+            }
+            valueStarts[valueCount] = start;
+            valueLengths[valueCount] = length;
+            valueEscaped[valueCount] = escaped;
+            valueCount++;
+        }
+
+        //"" -> ", only values which really contain quotes get here
+        private String unescape(int start, int length) {
+            if (unescapeBuffer.length < length) {
+                unescapeBuffer = new byte[length];
+            }
+            int size = 0;
+            for (int i = start; i < start + length; i++) {
+                unescapeBuffer[size++] = buffer[i];
+                if (buffer[i] == '"') {
+                    i++;
+                }
+            }
+            return new String(unescapeBuffer, 0, size, StandardCharsets.UTF_8);
+        }
+    }
+}
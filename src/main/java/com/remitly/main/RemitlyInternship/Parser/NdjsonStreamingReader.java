@@ -0,0 +1,314 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ Streaming reader of NDJSON files: one flat JSON object per line, keys are the column names.
+ {"COUNTRY ISO2 CODE":"PL","SWIFT CODE":"BREXPLPWXXX","NAME":"MBANK S.A.","ADDRESS":"...","COUNTRY NAME":"POLAND"}
+
+ * Keys of the first object become the header row (row 0), objects are rows 1, 2, ... (line number).
+ * Keys which are not in the first object are ignored, missing keys and null are passed as null.
+ * Numbers and booleans are passed as their text, nested objects and arrays are not supported.
+ * Keys are matched against the header directly in the byte buffer, so only values become Strings.
+ */
+public class NdjsonStreamingReader {
+
+    public static void read(InputStream inputStream, RowReader.RowHandler rowHandler) throws IOException {
+        new Parser(inputStream, rowHandler).read();
+    }
+
+    private static class Parser extends BufferedTextReader {
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+        private final List<String> keys = new ArrayList<>();
+        private byte[][] keyBytes;
+        private final StringBuilder unescapeBuilder = new StringBuilder();
+
+        //position in the line which is being parsed
+        private int pos;
+        private int lineEnd;
+        private int rowNum;
+
+        private Parser(InputStream inputStream, RowReader.RowHandler rowHandler) {
+            super(inputStream, rowHandler);
+        }
+
+        //JSON strings can't contain raw line breaks, so the object ends with the line
+        @Override
+        protected int findRecordEnd(int start, int recordNum) {
+            for (int i = start; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return eof ? limit : NEED_MORE;
+        }
+
+        @Override
+        protected void handleRecord(int start, int end, int recordNum) {
+            pos = start;
+            lineEnd = end;
+            rowNum = recordNum + 1;
+            skipWhitespace();
+            if (pos == lineEnd) {
+                return;
+            }
+
+            if (keyBytes == null) {
+                readFirstObject();
+            } else {
+                readObject();
+            }
+        }
+
+        //keys of the first object are the header, it's emitted before the object itself
+        private void readFirstObject() {
+            List<String> values = new ArrayList<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() != '}') {
+                while (true) {
+                    String key = readKey();
+                    String value = readValue();
+                    int column = keys.indexOf(key);
+                    if (column < 0) {
+                        keys.add(key);
+                        values.add(value);
+                    } else {
+                        values.set(column, value);
+                    }
+                    if (!nextMember()) {
+                        break;
+                    }
+                }
+            }
+            pos++;
+            expectLineEnd();
+
+            keyBytes = new byte[keys.size()][];
+            for (int i = 0; i < keys.size(); i++) {
+                keyBytes[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+            rowHandler.handleRow(0, keys.toArray(new String[0]));
+
+            String[] cells = cells(keys.size());
+            for (int i = 0; i < values.size(); i++) {
+                cells[i] = values.get(i);
+            }
+            rowHandler.handleRow(rowNum, cells);
+        }
+
+        private void readObject() {
+            String[] cells = cells(keyBytes.length);
+            Arrays.fill(cells, 0, keyBytes.length, null);
+            expect('{');
+            skipWhitespace();
+            if (peek() != '}') {
+                int member = 0;
+                while (true) {
+                    int column = findColumn(member++);
+                    String value = readValue();
+                    if (column >= 0) {
+                        cells[column] = value;
+                    }
+                    if (!nextMember()) {
+                        break;
+                    }
+                }
+            }
+            pos++;
+            expectLineEnd();
+            rowHandler.handleRow(rowNum, cells);
+        }
+
+        //usually keys are in the same order as in the first object, so the expected column is checked first
+        private int findColumn(int expectedColumn) {
+            expect('"');
+            int start = pos;
+            boolean escaped = skipString();
+            int end = pos - 1;
+            skipWhitespace();
+            expect(':');
+
+            if (escaped) {
+                return keys.indexOf(unescape(start, end));
+            }
+            if (expectedColumn < keyBytes.length && matches(start, end, keyBytes[expectedColumn])) {
+                return expectedColumn;
+            }
+            for (int i = 0; i < keyBytes.length; i++) {
+                if (matches(start, end, keyBytes[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matches(int start, int end, byte[] key) {
+            return Arrays.equals(buffer, start, end, key, 0, key.length);
+        }
+
+        private String readKey() {
+            expect('"');
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            return key;
+        }
+
+        private String readValue() {
+            skipWhitespace();
+            byte first = peek();
+            if (first == '"') {
+                pos++;
+                return readString();
+            }
+            if (first == '{' || first == '[') {
+                throw invalid("nested objects and arrays are not supported");
+            }
+
+            //number, true, false or null
+            int start = pos;
+            while (pos < lineEnd && buffer[pos] != ',' && buffer[pos] != '}' && !isWhitespace(buffer[pos])) {
+                pos++;
+            }
+            if (pos == start) {
+                throw invalid("missing value");
+            }
+            if (pos - start == 4 && matches(start, pos, NULL)) {
+                return null;
+            }
+            return decode(start, pos - start);
+        }
+
+        //after a value: true if another member follows, false at the end of the object (pos stays on '}')
+        private boolean nextMember() {
+            skipWhitespace();
+            byte next = peek();
+            if (next == ',') {
+                pos++;
+                skipWhitespace();
+                return true;
+            }
+            if (next == '}') {
+                return false;
+            }
+            throw invalid("expected ',' or '}'");
+        }
+
+        //pos is after the opening quote, at the end it's after the closing quote
+        private String readString() {
+            int start = pos;
+            boolean escaped = skipString();
+            int end = pos - 1;
+            return escaped ? emptyToNull(unescape(start, end)) : decode(start, end - start);
+        }
+
+        //returns true if the string contains escape sequences
+        private boolean skipString() {
+            boolean escaped = false;
+            while (true) {
+                if (pos >= lineEnd) {
+                    throw invalid("unterminated string");
+                }
+                byte b = buffer[pos];
+                if (b == '"') {
+                    pos++;
+                    return escaped;
+                }
+                if (b == '\\') {
+                    escaped = true;
+                    pos += 2;
+                } else {
+                    pos++;
+                }
+            }
+        }
+
+        //only strings which really contain escapes get here
+        private String unescape(int start, int end) {
+            unescapeBuilder.setLength(0);
+            int segmentStart = start;
+            int i = start;
+            while (i < end) {
+                if (buffer[i] != '\\') {
+                    i++;
+                    continue;
+                }
+                unescapeBuilder.append(new String(buffer, segmentStart, i - segmentStart, StandardCharsets.UTF_8));
+                byte escape = buffer[i + 1];
+                switch (escape) {
+                    case '"', '\\', '/' -> unescapeBuilder.append((char) escape);
+                    case 'b' -> unescapeBuilder.append('\b');
+                    case 'f' -> unescapeBuilder.append('\f');
+                    case 'n' -> unescapeBuilder.append('\n');
+                    case 'r' -> unescapeBuilder.append('\r');
+                    case 't' -> unescapeBuilder.append('\t');
+                    case 'u' -> {
+                        if (i + 6 > end) {
+                            throw invalid("invalid unicode escape");
+                        }
+                        try {
+                            unescapeBuilder.append((char) Integer.parseInt(
+                                    new String(buffer, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                        } catch (NumberFormatException e) {
+                            throw invalid("invalid unicode escape");
+                        }
+                        i += 4;
+                    }
+                    default -> throw invalid("invalid escape sequence");
+                }
+                i += 2;
+                segmentStart = i;
+            }
+            unescapeBuilder.append(new String(buffer, segmentStart, end - segmentStart, StandardCharsets.UTF_8));
+            return unescapeBuilder.toString();
+        }
+
+        private String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+
+        private void expectLineEnd() {
+            skipWhitespace();
+            if (pos != lineEnd) {
+                throw invalid("unexpected content after the object");
+            }
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw invalid("expected '" + expected + "'");
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            if (pos >= lineEnd) {
+                throw invalid("unexpected end of line");
+            }
+            return buffer[pos];
+        }
+
+        private void skipWhitespace() {
+            while (pos < lineEnd && isWhitespace(buffer[pos])) {
+                pos++;
+            }
+        }
+
+        private boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+
+        private ExcelParseException invalid(String reason) {
+            return new ExcelParseException("Invalid JSON in NDJSON file at row " + rowNum + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ Reader of one source format (see SourceFormat), it streams raw rows of the file one at a time.
+ * First emitted row (rowNum 0) is the header row with column names, SwiftCodeRowMapper finds the columns by it,
+   so every format feeds the same mapping, validation and linking.
+ * rowNum is the row of the file (empty rows are not emitted but they are counted), it's used by import checkpoints.
+ */
+@FunctionalInterface
+public interface RowReader {
+
+    //callback for every non-empty row, cells array is reused between rows so don't keep it!
+    interface RowHandler {
+        void handleRow(int rowNum, String[] cells);
+    }
+
+    void read(InputStream inputStream, RowHandler rowHandler) throws IOException;
+}
@@ -0,0 +1,53 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ Formats of the SWIFT codes file which can be imported. All of them go through the same import:
+ SwiftCodeRowMapper (columns by header, validation), ImportPipeline and linking of branches to headquarters.
+
+ * XLSX   - first sheet of the Excel workbook, first row is the header row
+ * CSV    - comma separated values, first line is the header row (CsvStreamingReader)
+ * NDJSON - one JSON object per line, keys are the column names (NdjsonStreamingReader)
+
+ XLSX has to be unzipped and its XML parsed, CSV and NDJSON are parsed straight from the bytes, so they are a lot faster.
+ */
+public enum SourceFormat {
+    XLSX("Excel", XlsxStreamingReader::read, ".xlsx"),
+    CSV("CSV", CsvStreamingReader::read, ".csv"),
+    NDJSON("NDJSON", NdjsonStreamingReader::read, ".ndjson", ".jsonl");
+
+    private final String displayName;
+    private final RowReader reader;
+    private final List<String> extensions;
+
+    SourceFormat(String displayName, RowReader reader, String... extensions) {
+        this.displayName = displayName;
+        this.reader = reader;
+        this.extensions = List.of(extensions);
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void read(InputStream inputStream, RowReader.RowHandler rowHandler) throws IOException {
+        reader.read(inputStream, rowHandler);
+    }
+
+    //format by the extension of the file name, XLSX if the extension is unknown (it was the only format before)
+    public static SourceFormat fromFileName(String fileName) {
+        if (fileName != null) {
+            String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+            for (SourceFormat format : values()) {
+                if (format.extensions.stream().anyMatch(lowerCaseName::endsWith)) {
+                    return format;
+                }
+            }
+        }
+        return XLSX;
+    }
+}
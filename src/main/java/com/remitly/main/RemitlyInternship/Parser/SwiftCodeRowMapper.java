@@ -0,0 +1,243 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ Maps rows of the SWIFT codes file to SwiftCode objects, shared by every import path and every SourceFormat.
+
+ Important info about formatting: Country codes and names must always be stored and returned as uppercase strings.
+ * Columns can appear in any order, they are found by the header row.
+ * Rows which can't be used are logged and skipped (mapper returns null).
+ */
+@Slf4j
+public class SwiftCodeRowMapper {
+
+    private static final String COUNTRY_ISO2_HEADER = "COUNTRY ISO2 CODE";
+    private static final String SWIFT_CODE_HEADER = "SWIFT CODE";
+    private static final String BANK_NAME_HEADER = "NAME";
+    private static final String ADDRESS_HEADER = "ADDRESS";
+    private static final String COUNTRY_NAME_HEADER = "COUNTRY NAME";
+
+    //called for every row which passed the validation
+    public interface SwiftCodeConsumer {
+        void accept(int rowNum, SwiftCode swiftCode);
+
+        //called for rows which were skipped by the validation
+        default void reject(int rowNum) {
+        }
+    }
+
+    //called for every row after the header row, with the mapper made from the header row,
+    //cells array is reused between rows so copy it if it's used later (for example by another thread)
+    public interface RowConsumer {
+        void accept(SwiftCodeRowMapper mapper, int rowNum, String[] cells);
+    }
+
+    private final Map<String, Integer> columnIndexMap;
+
+    private SwiftCodeRowMapper(Map<String, Integer> columnIndexMap) {
+        this.columnIndexMap = columnIndexMap;
+    }
+
+    //verification of all necessary columns
+    public static SwiftCodeRowMapper fromHeaderRow(String[] headerCells) {
+        Map<String, Integer> columnIndexMap = mapColumnIndices(headerCells);
+        verifyRequiredColumns(columnIndexMap);
+        return new SwiftCodeRowMapper(columnIndexMap);
+    }
+
+    //streams the first sheet of the Excel file, first row has to be the header row
+    public static void readExcelFile(InputStream inputStream, SwiftCodeConsumer consumer) throws IOException {
+        readFile(inputStream, SourceFormat.XLSX, consumer);
+    }
+
+    //same as readExcelFile for any SourceFormat
+    public static void readFile(InputStream inputStream, SourceFormat format, SwiftCodeConsumer consumer) throws IOException {
+        readRows(inputStream, format, (mapper, rowNum, cells) -> {
+            SwiftCode swiftCode = mapper.map(rowNum, cells);
+            if (swiftCode != null) {
+                consumer.accept(rowNum, swiftCode);
+            } else {
+                consumer.reject(rowNum);
+            }
+        });
+    }
+
+    //same as readExcelFile but rows are not mapped, so mapping can be done somewhere else (import pipeline)
+    public static void readRows(InputStream inputStream, RowConsumer consumer) throws IOException {
+        readRows(inputStream, SourceFormat.XLSX, consumer);
+    }
+
+    //first row of every format is the header row
+    public static void readRows(InputStream inputStream, SourceFormat format, RowConsumer consumer) throws IOException {
+        HeaderRowHandler rowHandler = new HeaderRowHandler(consumer);
+        format.read(inputStream, rowHandler);
+
+        if (rowHandler.mapper == null) {
+            throw new ExcelParseException(format.getDisplayName() + " file is empty");
+        }
+    }
+
+    public SwiftCode map(int rowNum, String[] cells) {
+        try {
+            String countryISO2 = getCellValueSafely(cells, columnIndexMap.get(COUNTRY_ISO2_HEADER));
+            if (countryISO2 != null) {
+                countryISO2 = countryISO2.toUpperCase();
+            } else {
+                log.warn("Missing country ISO2 at row: {}, skipping", rowNum);
+                return null;
+            }
+
+            String swiftCode = getCellValueSafely(cells, columnIndexMap.get(SWIFT_CODE_HEADER));
+            if (swiftCode == null) {
+                log.warn("Missing SWIFT code at row: {}, skipping", rowNum);
+                return null;
+            }
+
+            boolean isHeadquarter = swiftCode.endsWith("XXX");
+
+            String bankName = getCellValueSafely(cells, columnIndexMap.get(BANK_NAME_HEADER));
+            if (bankName != null) {
+                bankName = bankName.toUpperCase();
+            } else {
+                log.warn("Missing bank name at row: {}, skipping", rowNum);
+                return null;
+            }
+
+            String address = getCellValueSafely(cells, columnIndexMap.get(ADDRESS_HEADER), "");
+
+            String countryName = getCellValueSafely(cells, columnIndexMap.get(COUNTRY_NAME_HEADER));
+            if (countryName != null) {
+                countryName = countryName.toUpperCase();
+            } else {
+                log.warn("Missing country name at row: {}, skipping", rowNum);
+                return null;
+            }
+
+            SwiftCode swift = SwiftCode.builder()
+                    .swiftCode(swiftCode)
+                    .bankName(bankName)
+                    .address(address)
+                    .countryISO2(countryISO2)
+                    .countryName(countryName)
+                    .isHeadquarter(isHeadquarter)
+                    .headquarters(null)
+                    .branches(new LinkedHashSet<>())
+                    .build();
+
+            if (!isValid(swift)) {
+                log.warn("Skipping invalid SWIFT code: {}", swift.getSwiftCode());
+                return null;
+            }
+            return swift;
+        } catch (Exception e) {
+            log.warn("Error processing row {}: {}", rowNum, e.getMessage());
+            return null;
+        }
+    }
+
+
+    //HELPER methods
+
+
+    //first row is the header row, every next row is a new record
+    private static class HeaderRowHandler implements RowReader.RowHandler {
+        private final RowConsumer consumer;
+        private SwiftCodeRowMapper mapper;
+
+        private HeaderRowHandler(RowConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void handleRow(int rowNum, String[] cells) {
+            if (mapper == null) {
+                if (rowNum != 0) {
+                    throw new ExcelParseException("Missing headers row");
+                }
+                mapper = fromHeaderRow(cells);
+                return;
+            }
+
+            consumer.accept(mapper, rowNum, cells);
+        }
+    }
+
+    //creating a map which align columns (headers) with indexes in the Excel File
+    //this prevents a situation when the order of the columns in the Excel File change
+    private static Map<String, Integer> mapColumnIndices(String[] headerCells) {
+        Map<String, Integer> columnIndexMap = new HashMap<>();
+
+        for (int i = 0; i < headerCells.length; i++) {
+            String headerValue = headerCells[i];
+            if (headerValue != null && !headerValue.trim().isEmpty()) {
+                columnIndexMap.put(headerValue.trim(), i);
+            }
+        }
+
+        return columnIndexMap;
+    }
+
+    //checking if all necessary columns exits in the Excel file
+    private static void verifyRequiredColumns(Map<String, Integer> columnIndexMap) {
+        List<String> requiredColumns = Arrays.asList(
+                COUNTRY_ISO2_HEADER,
+                SWIFT_CODE_HEADER,
+                BANK_NAME_HEADER,
+                COUNTRY_NAME_HEADER
+        );
+
+        for (String requiredColumn : requiredColumns) {
+            if (!columnIndexMap.containsKey(requiredColumn)) {
+                throw new ExcelParseException("Required column not found: " + requiredColumn);
+            }
+        }
+    }
+
+    //safely retrieving value from the excel cell
+    private String getCellValueSafely(String[] cells, Integer columnIndex) {
+        return getCellValueSafely(cells, columnIndex, null);
+    }
+
+    private String getCellValueSafely(String[] cells, Integer columnIndex, String defaultValue) {
+        if (columnIndex == null || cells == null || columnIndex >= cells.length) {
+            return defaultValue;
+        }
+
+        String value = cells[columnIndex];
+        return value != null ? value : defaultValue;
+    }
+
+    //in our case excel file is good and this validation is not needed but in real life not always it's that awesome
+    private boolean isValid(SwiftCode swiftCode){
+        String swiftCodeValue = swiftCode.getSwiftCode();
+        if (swiftCode.getSwiftCode() == null || swiftCodeValue.length() != 11) {
+            log.warn("Invalid SWIFT code length for {}", swiftCode.getSwiftCode());
+            return false;
+        }
+        if (swiftCode.getBankName() == null || swiftCode.getBankName().isEmpty()) {
+            log.warn("Invalid bank name for SWIFT code {}", swiftCode.getSwiftCode());
+            return false;
+        }
+        if (swiftCode.getCountryISO2() == null || swiftCode.getCountryISO2().length() != 2) {
+            log.warn("Invalid country code for SWIFT code {}", swiftCode.getSwiftCode());
+            return false;
+        }
+        if (swiftCode.getCountryName() == null || swiftCode.getCountryName().isEmpty()) {
+            log.warn("Invalid country name for SWIFT code {}", swiftCode.getSwiftCode());
+            return false;
+        }
+        return true;
+
+    }
+}
@@ -0,0 +1,326 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.SnapshotFormatException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ Compact binary snapshot of the whole swift_codes table, a new instance restores it instead of parsing the Excel file.
+ The file is memory-mapped, rows and strings are decoded straight from the mapped bytes when they are needed.
+
+ Layout (version 1, big-endian):
+ * header (48 bytes)  - magic "SWIFTSNP", version, row count, country count, string count, string pool size,
+                        string index of the source fingerprint, creation time, 8 reserved bytes
+ * string pool        - (string count + 1) int offsets, then UTF-8 bytes of all strings, every string is stored
+                        once (bank names are shared by the headquarter and all its branches)
+ * countries          - dictionary of (ISO2, country name) pairs, 2 string indexes each, rows store a 2 byte index
+ * rows (34 bytes)    - swift code (11 ASCII bytes, fixed width), flags, country, bank name, address,
+                        row of the headquarter, row hash; rows are sorted by swift code
+ * trailer            - CRC32 of everything before it (long)
+ Null values are stored as index -1, so restored rows are exactly the same as exported ones.
+ */
+public class SwiftCodeSnapshot {
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = "SWIFTSNP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 48;
+    private static final int COUNTRY_SIZE = 8;
+    private static final int ROW_SIZE = 34;
+    private static final int TRAILER_SIZE = 8;
+    private static final int SWIFT_CODE_SIZE = 11;
+    private static final int NONE = -1;
+    private static final int NO_COUNTRY = 0xFFFF;
+
+    private static final int FLAG_HEADQUARTER = 1;
+    private static final int FLAG_ROW_HASH = 2;
+
+    //one row of the snapshot, headquarter is referenced by its swift code
+    public record Row(String swiftCode, String bankName, String address, String countryISO2, String countryName,
+                      boolean headquarter, String headquartersCode, Long rowHash) {
+    }
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final int stringCount;
+    private final int offsetsStart;
+    private final int stringsStart;
+    private final int countriesStart;
+    private final int rowsStart;
+    private final String sourceFingerprint;
+    private final Instant createdAt;
+    //strings are decoded once, most of them are repeated in many rows
+    private final String[] strings;
+
+    private SwiftCodeSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE + TRAILER_SIZE) {
+            throw new SnapshotFormatException("Snapshot file is too short");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new SnapshotFormatException("Not a SWIFT codes snapshot file");
+        }
+        int version = buffer.getInt(8);
+        if (version != VERSION) {
+            throw new SnapshotFormatException("Unsupported snapshot version: " + version + " (supported: " + VERSION + ")");
+        }
+
+        rowCount = buffer.getInt(12);
+        int countryCount = buffer.getInt(16);
+        stringCount = buffer.getInt(20);
+        int stringBytes = buffer.getInt(24);
+        offsetsStart = HEADER_SIZE;
+        stringsStart = offsetsStart + (stringCount + 1) * Integer.BYTES;
+        countriesStart = stringsStart + stringBytes;
+        rowsStart = countriesStart + countryCount * COUNTRY_SIZE;
+        long expectedSize = (long) rowsStart + (long) rowCount * ROW_SIZE + TRAILER_SIZE;
+        if (rowCount < 0 || countryCount < 0 || stringCount < 0 || stringBytes < 0 || expectedSize != buffer.limit()) {
+            throw new SnapshotFormatException("Snapshot file is truncated or damaged");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, buffer.limit() - TRAILER_SIZE));
+        if (crc.getValue() != buffer.getLong(buffer.limit() - TRAILER_SIZE)) {
+            throw new SnapshotFormatException("Snapshot file is damaged (checksum mismatch)");
+        }
+
+        strings = new String[stringCount];
+        sourceFingerprint = string(buffer.getInt(28));
+        createdAt = Instant.ofEpochMilli(buffer.getLong(32));
+    }
+
+    //memory-maps the file, the mapping stays valid after the channel is closed
+    public static SwiftCodeSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new SnapshotFormatException("Snapshot file is too big");
+            }
+            return new SwiftCodeSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    //snapshot which is already in memory (for example a small upload)
+    public static SwiftCodeSnapshot of(byte[] content) {
+        return new SwiftCodeSnapshot(ByteBuffer.wrap(content));
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    //fingerprint of the file the data was imported from (DatasetFingerprintService), null if unknown
+    public String getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public String swiftCode(int row) {
+        int position = rowPosition(row);
+        int length = SWIFT_CODE_SIZE;
+        while (length > 0 && buffer.get(position + length - 1) == 0) {
+            length--;
+        }
+        byte[] code = new byte[length];
+        buffer.get(position, code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    public boolean isHeadquarter(int row) {
+        return (buffer.get(rowPosition(row) + 11) & FLAG_HEADQUARTER) != 0;
+    }
+
+    public String countryISO2(int row) {
+        int country = Short.toUnsignedInt(buffer.getShort(rowPosition(row) + 12));
+        return country == NO_COUNTRY ? null : string(buffer.getInt(countriesStart + country * COUNTRY_SIZE));
+    }
+
+    public String countryName(int row) {
+        int country = Short.toUnsignedInt(buffer.getShort(rowPosition(row) + 12));
+        return country == NO_COUNTRY ? null : string(buffer.getInt(countriesStart + country * COUNTRY_SIZE + 4));
+    }
+
+    public String bankName(int row) {
+        return string(buffer.getInt(rowPosition(row) + 14));
+    }
+
+    public String address(int row) {
+        return string(buffer.getInt(rowPosition(row) + 18));
+    }
+
+    //row of the headquarter of this branch, -1 if it doesn't have one
+    public int headquartersRow(int row) {
+        return buffer.getInt(rowPosition(row) + 22);
+    }
+
+    public Long rowHash(int row) {
+        int position = rowPosition(row);
+        return (buffer.get(position + 11) & FLAG_ROW_HASH) != 0 ? buffer.getLong(position + 26) : null;
+    }
+
+    public Row row(int row) {
+        int headquartersRow = headquartersRow(row);
+        return new Row(swiftCode(row), bankName(row), address(row), countryISO2(row), countryName(row),
+                isHeadquarter(row), headquartersRow == NONE ? null : swiftCode(headquartersRow), rowHash(row));
+    }
+
+    private int rowPosition(int row) {
+        Objects.checkIndex(row, rowCount);
+        return rowsStart + row * ROW_SIZE;
+    }
+
+    private String string(int index) {
+        if (index == NONE) {
+            return null;
+        }
+        Objects.checkIndex(index, stringCount);
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(offsetsStart + index * Integer.BYTES);
+            int end = buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringsStart + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+
+    //WRITING
+
+
+    /**
+     Collects rows and writes them as one snapshot, rows can be added in any order.
+     Everything is kept in memory until write(), the file needs the counts before the data.
+     */
+    public static class Writer {
+        private final List<Row> rows = new ArrayList<>();
+
+        public Writer add(Row row) {
+            rows.add(row);
+            return this;
+        }
+
+        public int size() {
+            return rows.size();
+        }
+
+        public void write(OutputStream outputStream, String sourceFingerprint) throws IOException {
+            rows.sort(Comparator.comparing(Row::swiftCode));
+            Map<String, Integer> rowIndexes = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rowIndexes.put(rows.get(i).swiftCode(), i) != null) {
+                    throw new SnapshotFormatException("Duplicate SWIFT code in snapshot: " + rows.get(i).swiftCode());
+                }
+            }
+
+            StringPool pool = new StringPool();
+            int sourceIndex = pool.indexOf(sourceFingerprint);
+            Map<List<String>, Integer> countries = new LinkedHashMap<>();
+            ByteBuffer rowBuffer = ByteBuffer.allocate(rows.size() * ROW_SIZE);
+            for (Row row : rows) {
+                writeSwiftCode(rowBuffer, row.swiftCode());
+                rowBuffer.put((byte) ((row.headquarter() ? FLAG_HEADQUARTER : 0) | (row.rowHash() != null ? FLAG_ROW_HASH : 0)));
+                rowBuffer.putShort((short) countryIndex(countries, row, pool));
+                rowBuffer.putInt(pool.indexOf(row.bankName()));
+                rowBuffer.putInt(pool.indexOf(row.address()));
+                //headquarter which is not in the snapshot is dropped (database doesn't allow it anyway)
+                Integer headquartersRow = row.headquartersCode() != null ? rowIndexes.get(row.headquartersCode()) : null;
+                rowBuffer.putInt(headquartersRow != null ? headquartersRow : NONE);
+                rowBuffer.putLong(row.rowHash() != null ? row.rowHash() : 0);
+            }
+
+            CheckedOutputStream checked = new CheckedOutputStream(outputStream, new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 64 * 1024));
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows.size());
+            out.writeInt(countries.size());
+            out.writeInt(pool.size());
+            out.writeInt(pool.bytes.size());
+            out.writeInt(sourceIndex);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(0);
+
+            for (int i = 0; i < pool.offsets.size(); i++) {
+                out.writeInt(pool.offsets.get(i));
+            }
+            pool.bytes.writeTo(out);
+            for (List<String> country : countries.keySet()) {
+                out.writeInt(pool.indexOf(country.get(0)));
+                out.writeInt(pool.indexOf(country.get(1)));
+            }
+            out.write(rowBuffer.array());
+            out.flush();
+
+            //checksum goes around the CheckedOutputStream, it's not part of the checksum
+            new DataOutputStream(outputStream).writeLong(checked.getChecksum().getValue());
+            outputStream.flush();
+        }
+
+        private void writeSwiftCode(ByteBuffer rowBuffer, String swiftCode) {
+            byte[] bytes = swiftCode.getBytes(StandardCharsets.US_ASCII);
+            if (bytes.length > SWIFT_CODE_SIZE || !StandardCharsets.US_ASCII.newEncoder().canEncode(swiftCode)) {
+                throw new SnapshotFormatException("SWIFT code can't be stored in the snapshot: " + swiftCode);
+            }
+            rowBuffer.put(bytes);
+            //shorter codes are padded with zeros
+            rowBuffer.put(new byte[SWIFT_CODE_SIZE - bytes.length]);
+        }
+
+        private int countryIndex(Map<List<String>, Integer> countries, Row row, StringPool pool) {
+            if (row.countryISO2() == null && row.countryName() == null) {
+                return NO_COUNTRY;
+            }
+            //Arrays.asList allows nulls (List.of doesn't)
+            List<String> country = Arrays.asList(row.countryISO2(), row.countryName());
+            Integer index = countries.get(country);
+            if (index == null) {
+                index = countries.size();
+                if (index >= NO_COUNTRY) {
+                    throw new SnapshotFormatException("Too many countries for the snapshot");
+                }
+                countries.put(country, index);
+                pool.indexOf(row.countryISO2());
+                pool.indexOf(row.countryName());
+            }
+            return index;
+        }
+    }
+
+    //every distinct string once, offsets.get(i) .. offsets.get(i + 1) are bytes of string i
+    private static class StringPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<Integer> offsets = new ArrayList<>(List.of(0));
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int indexOf(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            return indexes.computeIfAbsent(value, key -> {
+                bytes.writeBytes(key.getBytes(StandardCharsets.UTF_8));
+                offsets.add(bytes.size());
+                return offsets.size() - 2;
+            });
+        }
+
+        private int size() {
+            return offsets.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ Streaming (SAX) reader for the first sheet of an XLSX file.
+
+ * Unlike XSSFWorkbook it never builds the whole sheet in memory, rows are emitted one at a time.
+ * The incoming stream is spooled to a temporary file first, because opening the zip package
+   from a stream would unpack every part into the heap.
+ * Cell values are passed as the text shown in Excel (formulas are passed as formula text).
+ */
+public class XlsxStreamingReader {
+
+    public static void read(InputStream inputStream, RowReader.RowHandler rowHandler) throws IOException {
+        Path tempFile = Files.createTempFile("swift-codes-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            read(tempFile, rowHandler);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public static void read(Path file, RowReader.RowHandler rowHandler) throws IOException {
+        try (OPCPackage opcPackage = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new ExcelParseException("Excel file does not contain any sheets");
+            }
+
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            //we only need the first sheet, same as before with workbook.getSheetAt(0)
+            try (InputStream sheet = sheets.next()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, sharedStrings, new RowCollector(rowHandler), new DataFormatter(), true));
+                xmlReader.parse(new InputSource(sheet));
+            }
+        } catch (ExcelParseException | IOException | UncheckedIOException e) {
+            //UncheckedIOException comes from the row handler (for example COPY to the database), it's not a parse error
+            throw e;
+        } catch (Exception e) {
+            //SAX wraps exceptions thrown by our handler, so we are unwrapping it here
+            if (e.getCause() instanceof ExcelParseException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause;
+            }
+            throw new ExcelParseException("Error reading Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    //collects cells of a single row and hands them over when the row ends
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowReader.RowHandler rowHandler;
+        private final List<String> cells = new ArrayList<>();
+        private String[] rowBuffer = new String[0];
+        private int nextColumn;
+
+        private RowCollector(RowReader.RowHandler rowHandler) {
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowBuffer.length < cells.size()) {
+                rowBuffer = new String[cells.size()];
+            }
+            Arrays.fill(rowBuffer, null);
+            for (int i = 0; i < cells.size(); i++) {
+                rowBuffer[i] = cells.get(i);
+            }
+            rowHandler.handleRow(rowNum, rowBuffer);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            //empty cells are not reported at all, so we use cell reference to find the real column
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, formattedValue);
+            nextColumn = column + 1;
+        }
+    }
+}
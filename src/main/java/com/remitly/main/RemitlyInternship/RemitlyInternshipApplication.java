@@ -2,8 +2,10 @@ package com.remitly.main.RemitlyInternship;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RemitlyInternshipApplication {
 
 	public static void main(String[] args) {
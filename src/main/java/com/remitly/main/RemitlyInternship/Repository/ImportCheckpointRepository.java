@@ -0,0 +1,7 @@
+package com.remitly.main.RemitlyInternship.Repository;
+
+import com.remitly.main.RemitlyInternship.Model.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
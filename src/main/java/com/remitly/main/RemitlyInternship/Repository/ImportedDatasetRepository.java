@@ -0,0 +1,11 @@
+package com.remitly.main.RemitlyInternship.Repository;
+
+import com.remitly.main.RemitlyInternship.Model.ImportedDataset;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ImportedDatasetRepository extends JpaRepository<ImportedDataset, Long> {
+    //last successful import of the given file
+    Optional<ImportedDataset> findFirstBySourceOrderByImportedAtDesc(String source);
+}
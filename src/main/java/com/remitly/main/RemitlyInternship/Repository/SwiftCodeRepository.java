@@ -1,18 +1,149 @@
 package com.remitly.main.RemitlyInternship.Repository;
 
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface SwiftCodeRepository extends JpaRepository<SwiftCode, Long> {
     Optional<SwiftCode> findBySwiftCode(String swiftCode);
-    List<SwiftCode> findByCountryISO2(String countryISO2);
-    //method to find branches based on the bank's headquarter.
-    List<SwiftCode> findByHeadquarters(SwiftCode headquarters);
+
+    //many codes in one IN query, without branches (headquarters of the branches in a bulk create batch)
+    List<SwiftCode> findBySwiftCodeIn(Collection<String> swiftCodes);
+
+    //code with its branches in one statement (no extra SELECT when the branches are read), branches in id order
+    @Query("SELECT s FROM SwiftCode s LEFT JOIN FETCH s.branches b WHERE s.swiftCode = :swiftCode ORDER BY b.id")
+    Optional<SwiftCode> findWithBranchesBySwiftCode(@Param("swiftCode") String swiftCode);
+
+    //many codes with their branches in one statement (batch lookup), same branch order as findWithBranchesBySwiftCode
+    @Query("SELECT s FROM SwiftCode s LEFT JOIN FETCH s.branches b WHERE s.swiftCode IN :swiftCodes ORDER BY s.id, b.id")
+    List<SwiftCode> findWithBranchesBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    //in id order (order of inserting), same as SwiftCodeIndex, without ORDER BY it changes after UPDATEs
+    @Query("SELECT s FROM SwiftCode s WHERE s.countryISO2 = :countryISO2 ORDER BY s.id")
+    List<SwiftCode> findByCountryISO2(@Param("countryISO2") String countryISO2);
+
+    //one page of the country after the given code (keyset pagination), "" -> first page,
+    //idx_country_iso2_swift_code (countryISO2, swiftCode) gives rows already in this order, deep pages cost the same as the first
+    @Query("SELECT s FROM SwiftCode s WHERE s.countryISO2 = :countryISO2 AND s.swiftCode > :afterSwiftCode " +
+            "ORDER BY s.swiftCode")
+    List<SwiftCode> findCountryPage(@Param("countryISO2") String countryISO2,
+                                    @Param("afterSwiftCode") String afterSwiftCode, Limit limit);
+
+    //search while the in-memory index isn't ready, bank names are only uppercased here (accents and punctuation stay)
+    List<SwiftCode> findBySwiftCodeStartingWithOrderBySwiftCode(String swiftCodePrefix, Limit limit);
+
+    @Query("SELECT s FROM SwiftCode s WHERE UPPER(s.bankName) LIKE CONCAT(:namePrefix, '%') " +
+            "OR UPPER(s.bankName) LIKE CONCAT('% ', :namePrefix, '%') ORDER BY UPPER(s.bankName), s.swiftCode")
+    List<SwiftCode> findByBankNamePrefix(@Param("namePrefix") String namePrefix, Limit limit);
+
     boolean existsBySwiftCode(String swiftCode);
 
+    //databases created before we switched from IDENTITY to a sequence already have ids,
+    //so the sequence is moved after the biggest id (it is never moved backwards)
+    @Query(value = "SELECT setval('swift_codes_seq', (SELECT MAX(id) FROM swift_codes)) " +
+            "WHERE (SELECT MAX(id) FROM swift_codes) > (SELECT last_value FROM swift_codes_seq)", nativeQuery = true)
+    List<Long> alignIdSequence();
+
+    //used during import to check many codes with one query instead of one query per code
+    @Query("SELECT s.swiftCode FROM SwiftCode s WHERE s.swiftCode IN :swiftCodes")
+    List<String> findExistingSwiftCodes(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    //delta import only needs the key and the hash of every row, not whole entities
+    interface RowHashView {
+        Long getId();
+        String getSwiftCode();
+        Long getRowHash();
+    }
+
+    @Query("SELECT s.id AS id, s.swiftCode AS swiftCode, s.rowHash AS rowHash FROM SwiftCode s")
+    List<RowHashView> findAllRowHashes();
+
+    //branches of deleted headquarters stay, they just lose their headquarter
+    @Modifying
+    @Query("UPDATE SwiftCode s SET s.headquarters = null WHERE s.headquarters.id IN :ids")
+    int unlinkBranchesOf(@Param("ids") Collection<Long> headquarterIds);
+
+    @Modifying
+    @Query("DELETE FROM SwiftCode s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    //one UPDATE links every branch without headquarter to the "XXX" headquarter with the same bank code,
+    //persistence context is cleared after it, loaded entities wouldn't know about the new links
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE swift_codes b SET headquarters_id = h.id FROM swift_codes h " +
+            "WHERE b.headquarters_id IS NULL AND NOT b.is_headquarter AND h.is_headquarter " +
+            "AND h.bank_code = b.bank_code AND h.swift_code = b.bank_code || 'XXX'", nativeQuery = true)
+    int linkOrphanBranches();
+
+    //new headquarter adopts the branches of its bank which don't have a headquarter yet (idx_bank_code, no scan)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE swift_codes SET headquarters_id = :headquartersId " +
+            "WHERE bank_code = :bankCode AND headquarters_id IS NULL AND NOT is_headquarter", nativeQuery = true)
+    int linkBranchesToHeadquarter(@Param("headquartersId") Long headquartersId, @Param("bankCode") String bankCode);
+
+    //linkOrphanBranches only for the given banks (idx_bank_code), for headquarters created by POST /v1/swift-codes/bulk
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE swift_codes b SET headquarters_id = h.id FROM swift_codes h " +
+            "WHERE b.bank_code IN (:bankCodes) AND b.headquarters_id IS NULL AND NOT b.is_headquarter " +
+            "AND h.is_headquarter AND h.bank_code = b.bank_code AND h.swift_code = b.bank_code || 'XXX'",
+            nativeQuery = true)
+    int linkOrphanBranchesOf(@Param("bankCodes") Collection<String> bankCodes);
+
+    //databases created before the bank_code column existed, filled at startup before the API is served (like alignIdSequence)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE swift_codes SET bank_code = substring(swift_code, 1, 8) WHERE bank_code IS NULL",
+            nativeQuery = true)
+    int fillMissingBankCodes();
+
+    //delete only needs the id and the code of the headquarter (its cached list of branches changes), no entities
+    interface DeleteTargetView {
+        Long getId();
+        String getHeadquartersSwiftCode();
+    }
+
+    @Query("SELECT s.id AS id, h.swiftCode AS headquartersSwiftCode FROM SwiftCode s LEFT JOIN s.headquarters h " +
+            "WHERE s.swiftCode = :swiftCode")
+    Optional<DeleteTargetView> findDeleteTargetBySwiftCode(@Param("swiftCode") String swiftCode);
+
+    //the code and its branches in one DELETE (no entities loaded, no DELETE per branch like with the cascade),
+    //returns codes of all deleted rows so caches can be updated, branches are found over idx_headquarters_id.
+    //Not @Modifying because of RETURNING (it gives rows back), @Transactional because a read-only one can't delete
+    @Transactional
+    @Query(value = "DELETE FROM swift_codes WHERE id = :id OR headquarters_id = :id RETURNING swift_code",
+            nativeQuery = true)
+    List<String> deleteWithBranches(@Param("id") Long id);
+
+    //bulk deletes, same as deleteWithBranches: one DELETE which takes the branches of deleted headquarters too
+    //(they can't stay, headquarters_id would point to nothing) and returns codes of all deleted rows
+    @Transactional
+    @Query(value = "DELETE FROM swift_codes WHERE swift_code IN (:swiftCodes) " +
+            "OR headquarters_id IN (SELECT id FROM swift_codes WHERE swift_code IN (:swiftCodes)) " +
+            "RETURNING swift_code", nativeQuery = true)
+    List<String> deleteAllBySwiftCodeInWithBranches(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    //idx_bank_code, branches of the bank's headquarter have the same bank code (that's how they are linked)
+    @Transactional
+    @Query(value = "DELETE FROM swift_codes WHERE bank_code = :bankCode " +
+            "OR headquarters_id IN (SELECT id FROM swift_codes WHERE bank_code = :bankCode AND is_headquarter) " +
+            "RETURNING swift_code", nativeQuery = true)
+    List<String> deleteAllByBankCodeWithBranches(@Param("bankCode") String bankCode);
+
+    //idx_country_iso2_swift_code
+    @Transactional
+    @Query(value = "DELETE FROM swift_codes WHERE countryiso2 = :countryISO2 " +
+            "OR headquarters_id IN (SELECT id FROM swift_codes WHERE countryiso2 = :countryISO2 AND is_headquarter) " +
+            "RETURNING swift_code", nativeQuery = true)
+    List<String> deleteAllByCountryISO2WithBranches(@Param("countryISO2") String countryISO2);
+
     //List<SwiftCode> findBySwiftCodeStartingWithAndIsHeadquarterFalse(String headquarterPrefix);
 
 }
@@ -0,0 +1,92 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+/**
+ Counting Bloom filter of strings used by SwiftCodeFilter (not thread safe, the filter guards it).
+ * mightContain = false -> the string was never added (or every add was removed), true -> it probably was.
+ * Every position has a byte counter instead of a bit, so strings can be removed again. A counter which reached
+   255 stays there (it's not known anymore how many strings share it), it can only give false positives.
+ * Positions are h1 + i * h2 of one 64-bit hash (double hashing), so a string is hashed only once.
+ */
+class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 255;
+
+    private final byte[] counters;
+    private final int hashFunctions;
+
+    private CountingBloomFilter(int size, int hashFunctions) {
+        this.counters = new byte[size];
+        this.hashFunctions = hashFunctions;
+    }
+
+    //optimal size and number of hash functions for expectedItems and the false positive rate
+    static CountingBloomFilter create(long expectedItems, double falsePositiveRate) {
+        long items = Math.max(1, expectedItems);
+        double size = -items * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int counters = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, Math.ceil(size)));
+        int hashFunctions = (int) Math.max(1, Math.min(16, Math.round(counters / (double) items * Math.log(2))));
+        return new CountingBloomFilter(counters, hashFunctions);
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            int position = position(hash, i);
+            int count = counters[position] & 0xFF;
+            if (count < MAX_COUNT) {
+                counters[position] = (byte) (count + 1);
+            }
+        }
+    }
+
+    //only for values which were added before, otherwise counters of other values would go down
+    void remove(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            int position = position(hash, i);
+            int count = counters[position] & 0xFF;
+            if (count > 0 && count < MAX_COUNT) {
+                counters[position] = (byte) (count - 1);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counters[position(hash, i)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return counters.length;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private int position(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, counters.length);
+    }
+
+    //FNV-1a over the chars mixed with fmix64 of MurmurHash3, both halves are used as hashes
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,71 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Model.ImportedDataset;
+import com.remitly.main.RemitlyInternship.Repository.ImportedDatasetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ Keeps track of the files which were already imported (imported_datasets table).
+ * Fingerprint is the SHA-256 of the file content, hashing is only reading bytes so it is much cheaper than parsing.
+ * Only the last import of a source is compared, so a file which changed and then changed back is imported again.
+ * The mode is part of the comparison, the same file imported with another mode (append, then delta) is not skipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetFingerprintService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ImportedDatasetRepository importedDatasetRepository;
+
+    public String fingerprint(InputStream inputStream) throws IOException {
+        MessageDigest digest = sha256();
+        try (DigestInputStream digestStream = new DigestInputStream(inputStream, digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (digestStream.read(buffer) != -1) {
+                //only reading, digest is updated by the stream
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    //true if the last import of this source was exactly the same file with the same mode
+    public boolean isAlreadyImported(String source, ImportProperties.Mode mode, String fingerprint) {
+        return importedDatasetRepository.findFirstBySourceOrderByImportedAtDesc(source)
+                .map(dataset -> dataset.getFingerprint().equals(fingerprint) && mode.name().equals(dataset.getMode()))
+                .orElse(false);
+    }
+
+    public ImportedDataset recordImport(String source, ImportProperties.Mode mode, String fingerprint, long rowCount) {
+        ImportedDataset dataset = importedDatasetRepository.save(ImportedDataset.builder()
+                .source(source)
+                .mode(mode.name())
+                .fingerprint(fingerprint)
+                .rowCount(rowCount)
+                .importedAt(Instant.now())
+                .build());
+        log.info("Recorded {} import of {} ({} rows, fingerprint {})", mode, source, rowCount, fingerprint);
+        return dataset;
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            //every JVM has to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
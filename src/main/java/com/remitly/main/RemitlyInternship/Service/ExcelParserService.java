@@ -1,15 +1,28 @@
 package com.remitly.main.RemitlyInternship.Service;
 
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Exception.InvalidImportRequestException;
+import com.remitly.main.RemitlyInternship.Exception.SnapshotFormatException;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeSnapshot;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
 import jakarta.annotation.PostConstruct;
-import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.PathResource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 
 
 /**
@@ -20,6 +33,18 @@ Important info about formatting: Country codes and names must always be stored a
  * Branch codes are associated with a headquarters if their first 8 characters match.
  * Codes can represent both the branch and the headquarter of the bank.
 
+ Existing database is prepared synchronously before the HTTP port opens (prepareDatabase), even without the startup
+ import, because POST /v1/swift-codes needs it too.
+ Import runs in the background (ImportJobService), so the HTTP port opens right away.
+ Until it's finished the readiness probe is not UP (StartupImportHealthIndicator), liveness is UP immediately.
+ If the startup file is exactly the same as last time and the mode didn't change (DatasetFingerprintService),
+ the parsing is skipped.
+ The same import is used for files uploaded through /v1/imports (submitUpload), they are always imported
+ unless the client asks to skip an unchanged file (skipUnchanged), the database could have changed since.
+ Mode (swift.import.mode or mode of the upload) is append, delta or reload (COPY of the whole file, SwiftCodeBulkLoadService).
+ Besides Excel the file can be CSV or NDJSON (SourceFormat), format is chosen by the file name extension.
+ With swift.import.snapshot-file the startup import is restored from a binary snapshot (SwiftCodeSnapshotService)
+ if the snapshot was made from the same file, otherwise the file is parsed and the snapshot is written for next time.
  */
 
 @Slf4j
@@ -29,16 +54,176 @@ public class ExcelParserService {
 
     private final SwiftCodeRepository swiftCodeRepository;
     private final SwiftCodeParseService swiftCodeParseService;
+    private final ImportJobService importJobService;
+    private final DatasetFingerprintService datasetFingerprintService;
+    private final ImportProperties importProperties;
+    private final SwiftCodeSnapshotService swiftCodeSnapshotService;
+    private final SwiftCodeBulkLoadService swiftCodeBulkLoadService;
 
-    @PostConstruct //this annotation allow us tu start this method everytime when we start out app
+    private volatile ImportJob startupImport;
+
+    //databases created before we switched from IDENTITY to a sequence, new codes would get ids which already exist,
+    //and before the bank_code column, branches and headquarters are linked by bank_code
+    @PostConstruct
+    public void prepareDatabase() {
+        swiftCodeRepository.alignIdSequence();
+        int filledBankCodes = swiftCodeRepository.fillMissingBankCodes();
+        if (filledBankCodes > 0) {
+            log.info("Filled bank_code of {} existing SWIFT codes", filledBankCodes);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class) //starting the import everytime when our app is started
     public void init(){
-        try{
-            InputStream inputStream = new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream();
-            swiftCodeParseService.parseExcelFile(inputStream);
-            log.info("Successfully parsed excel file");
+        if (!importProperties.isStartupEnabled()) {
+            log.info("Startup import of the Excel file is disabled");
+            return;
+        }
+        startupImport = importJobService.submit(importProperties.getStartupFile(), this::importStartupFile);
+    }
 
-        }catch(Exception e){
-            log.error("Error while parsing excel file", e);
+    public boolean isStartupImportEnabled() {
+        return importProperties.isStartupEnabled();
+    }
+
+    //empty until the import is submitted
+    public Optional<ImportJob> getStartupImport() {
+        return Optional.ofNullable(startupImport);
+    }
+
+    //file uploaded through /v1/imports, it's copied to a temporary file (not to memory) and imported in the background,
+    //format null -> by the file name extension (XLSX if unknown)
+    public ImportJob submitUpload(MultipartFile file, String mode, String format, boolean skipUnchanged)
+            throws IOException {
+        ImportProperties.Mode importMode = parseMode(mode);
+        if (file == null || file.isEmpty()) {
+            throw new InvalidImportRequestException("Uploaded file is empty");
+        }
+        String source = file.getOriginalFilename() != null && !file.getOriginalFilename().isBlank()
+                ? file.getOriginalFilename()
+                : "upload";
+        SourceFormat sourceFormat = parseFormat(format, source);
+
+        Path uploadedFile = Files.createTempFile("swift-upload-", ".tmp");
+        try {
+            file.transferTo(uploadedFile);
+        } catch (IOException e) {
+            Files.deleteIfExists(uploadedFile);
+            throw e;
+        }
+
+        return importJobService.submit(source, job -> {
+            try {
+                importFile(job, source, new PathResource(uploadedFile), sourceFormat, importMode, null, skipUnchanged);
+            } finally {
+                Files.deleteIfExists(uploadedFile);
+            }
+        });
+    }
+
+    private void importStartupFile(ImportJob job) throws IOException {
+        String source = importProperties.getStartupFile();
+        Path snapshotFile = importProperties.getSnapshotFile() != null && !importProperties.getSnapshotFile().isBlank()
+                ? Path.of(importProperties.getSnapshotFile())
+                : null;
+        importFile(job, source, new ClassPathResource(source), SourceFormat.fromFileName(source),
+                importProperties.getMode(), snapshotFile, importProperties.isSkipUnchanged());
+    }
+
+    //file is opened twice: first only to compute the fingerprint, then for the import itself,
+    //with a snapshot file the data is restored from it if it was made from the same file, otherwise it's written after the import
+    private void importFile(ImportJob job, String source, InputStreamSource file, SourceFormat format,
+                            ImportProperties.Mode mode, Path snapshotFile, boolean skipUnchanged) throws IOException {
+        String fingerprint;
+        try (InputStream inputStream = file.getInputStream()) {
+            fingerprint = datasetFingerprintService.fingerprint(inputStream);
+        }
+
+        if (skipUnchanged && datasetFingerprintService.isAlreadyImported(source, mode, fingerprint)) {
+            log.info("File {} was already imported in {} mode, skipping", source, mode);
+            job.skip("File already imported (fingerprint " + fingerprint + ")");
+            return;
+        }
+
+        if (snapshotFile != null && restoreSnapshot(job, snapshotFile, fingerprint, mode)) {
+            datasetFingerprintService.recordImport(source, mode, fingerprint, job.getRowsAccepted());
+            return;
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            if (mode == ImportProperties.Mode.DELTA) {
+                SwiftCodeParseService.DeltaResult result = swiftCodeParseService.parseExcelFileDelta(inputStream, format, job);
+                job.finish(String.format("Delta import: %d inserted, %d updated, %d deleted, %d unchanged",
+                        result.inserted(), result.updated(), result.deleted(), result.unchanged()));
+            } else if (mode == ImportProperties.Mode.RELOAD) {
+                long loaded = swiftCodeBulkLoadService.reloadFile(inputStream, format);
+                job.rowsAccepted(loaded);
+                job.finish(String.format("Reload: %d SWIFT codes loaded", loaded));
+            } else {
+                swiftCodeParseService.parseExcelFile(inputStream, format, job, fingerprint);
+            }
+        }
+        datasetFingerprintService.recordImport(source, mode, fingerprint, job.getRowsAccepted());
+        log.info("Successfully parsed {} file {}", format.getDisplayName(), source);
+
+        if (snapshotFile != null) {
+            writeSnapshot(snapshotFile, fingerprint);
+        }
+    }
+
+    //snapshot replaces the whole directory, that's the same as an append import only if the table is empty
+    private boolean restoreSnapshot(ImportJob job, Path snapshotFile, String fingerprint, ImportProperties.Mode mode) {
+        try {
+            Optional<SwiftCodeSnapshot> snapshot = swiftCodeSnapshotService.openSnapshot(snapshotFile);
+            if (snapshot.isEmpty() || !fingerprint.equals(snapshot.get().getSourceFingerprint())) {
+                log.info("No up to date snapshot in {}, the file will be parsed", snapshotFile);
+                return false;
+            }
+            if (mode == ImportProperties.Mode.APPEND && swiftCodeRepository.count() > 0) {
+                log.info("Database is not empty, snapshot {} can't be used for an append import", snapshotFile);
+                return false;
+            }
+
+            long restored = swiftCodeSnapshotService.restoreSnapshot(snapshot.get());
+            job.rowsAccepted(restored);
+            job.finish(String.format("Restored %d SWIFT codes from snapshot %s", restored, snapshotFile));
+            return true;
+        } catch (IOException | SnapshotFormatException e) {
+            log.warn("Snapshot {} can't be used, the file will be parsed: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+    }
+
+    //failure only means that the next start will be slower, so the import is not failed because of it
+    private void writeSnapshot(Path snapshotFile, String fingerprint) {
+        try {
+            swiftCodeSnapshotService.exportSnapshot(snapshotFile, fingerprint);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot {} could not be written: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    //null -> mode from the configuration
+    private ImportProperties.Mode parseMode(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return importProperties.getMode();
+        }
+        try {
+            return ImportProperties.Mode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportRequestException("Unknown import mode: " + mode + " (use append, delta or reload)");
+        }
+    }
+
+    //null -> format by the file name
+    private SourceFormat parseFormat(String format, String fileName) {
+        if (format == null || format.isBlank()) {
+            return SourceFormat.fromFileName(fileName);
+        }
+        try {
+            return SourceFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportRequestException("Unknown file format: " + format + " (use xlsx, csv or ndjson)");
         }
     }
 
@@ -0,0 +1,116 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ State of one import running in the background, it's updated by the import thread and read by others
+ (readiness check, API), so all fields are thread safe.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, SKIPPED, FAILED
+    }
+
+    private final String id;
+    private final String source;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicLong rowsRead = new AtomicLong();
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicLong rowsAccepted = new AtomicLong();
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    //counters of the import pipeline stages (read, validate, link, write), filled while the import runs
+    private final List<ImportStageStats> stages = new CopyOnWriteArrayList<>();
+
+    public ImportJob(String id, String source) {
+        this.id = id;
+        this.source = source;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsAccepted() {
+        return rowsAccepted.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    //rows read per second since the start (until the end for finished imports)
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Duration.between(start, end).toMillis();
+        return millis > 0 ? getRowsRead() * 1000.0 / millis : 0;
+    }
+
+    //row passed the validation
+    public void rowAccepted() {
+        rowsRead.incrementAndGet();
+        rowsAccepted.incrementAndGet();
+    }
+
+    //row was skipped (missing or invalid values, duplicate in the file)
+    public void rowRejected() {
+        rowsRead.incrementAndGet();
+        rowsRejected.incrementAndGet();
+    }
+
+    //many rows at once, without the pipeline (restore of a snapshot)
+    void rowsAccepted(long count) {
+        rowsRead.addAndGet(count);
+        rowsAccepted.addAndGet(count);
+    }
+
+    void addStage(ImportStageStats stage) {
+        stages.add(stage);
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.SKIPPED || status == Status.FAILED;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void finish(String message) {
+        finish(Status.DONE, message);
+    }
+
+    public void skip(String message) {
+        finish(Status.SKIPPED, message);
+    }
+
+    void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+}
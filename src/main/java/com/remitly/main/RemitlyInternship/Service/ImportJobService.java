@@ -0,0 +1,112 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.DTO.ImportJobDTO;
+import com.remitly.main.RemitlyInternship.DTO.ImportStageDTO;
+import com.remitly.main.RemitlyInternship.Exception.ImportJobNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ Runs imports in the background on its own single thread executor.
+ * Imports are executed one after another, so two imports never write to swift_codes at the same time.
+ * Every submitted import gets an ImportJob which can be used to check its state.
+ * Only the last MAX_FINISHED_JOBS finished jobs are kept, so the map doesn't grow forever.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    public interface ImportTask {
+        void run(ImportJob job) throws Exception;
+    }
+
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final ExecutorService importExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("swift-import-"));
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJob submit(String source, ImportTask task) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), source);
+        removeOldJobs();
+        jobs.put(job.getId(), job);
+        importExecutor.execute(() -> run(job, task));
+        log.info("Import job {} for {} submitted", job.getId(), source);
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    //used by /v1/imports/{id}
+    public ImportJobDTO getJobStatus(String id) {
+        return getJob(id)
+                .map(this::mapToDTO)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found: " + id));
+    }
+
+    private void run(ImportJob job, ImportTask task) {
+        job.start();
+        try {
+            task.run(job);
+            //task can finish the job by itself (for example skip it)
+            if (!job.isFinished()) {
+                job.finish("Import finished");
+            }
+            log.info("Import job {} finished: {} rows read", job.getId(), job.getRowsRead());
+        } catch (Exception e) {
+            log.error("Import job {} for {} failed", job.getId(), job.getSource(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void removeOldJobs() {
+        var finished = jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted(Comparator.comparing(ImportJob::getCreatedAt).reversed())
+                .toList();
+        finished.stream().skip(MAX_FINISHED_JOBS).forEach(job -> jobs.remove(job.getId()));
+    }
+
+    private ImportJobDTO mapToDTO(ImportJob job) {
+        return ImportJobDTO.builder()
+                .id(job.getId())
+                .source(job.getSource())
+                .status(job.getStatus().name())
+                .message(job.getMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .rowsRead(job.getRowsRead())
+                .rowsAccepted(job.getRowsAccepted())
+                .rowsRejected(job.getRowsRejected())
+                .rowsPerSecond(job.getRowsPerSecond())
+                .stages(job.getStages().stream()
+                        .map(stage -> ImportStageDTO.builder()
+                                .name(stage.getName())
+                                .threads(stage.getThreads())
+                                .rows(stage.getRows())
+                                .rowsPerSecond(stage.getRowsPerSecond())
+                                .busyMillis(stage.getBusyMillis())
+                                .waitingMillis(stage.getWaitingMillis())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,376 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ Import of one file split into stages connected with bounded queues, so parsing CPU and database I/O overlap:
+
+ read (1 thread)      - streaming read of the file (RowReader of its SourceFormat), rows are copied into chunks
+ validate (N threads) - mapping, validation and uppercasing of the chunks (SwiftCodeRowMapper)
+ link (1 thread)      - puts chunks back in file order, drops duplicates and prepares write batches (BatchLinker)
+ write (caller)       - BatchWriter runs on the calling thread (so it can use the caller's transaction)
+
+ Queues are bounded, so a slow stage stops the stages before it instead of filling the memory.
+ Every stage has its counters (ImportStageStats) in the ImportJob, they show which stage is the bottleneck.
+ If any stage fails the whole pipeline is stopped and the first error is thrown to the caller.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportPipeline {
+
+    //prepares one batch for writing (for example removes codes which are already in the database),
+    //it runs on the link thread, outside of the caller's transaction
+    public interface BatchLinker {
+        List<SwiftCode> link(List<SwiftCode> batch);
+    }
+
+    //runs on the calling thread, lastRowNum is the file row of the last code in the batch
+    public interface BatchWriter {
+        void write(List<SwiftCode> batch, int lastRowNum);
+    }
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ImportProperties importProperties;
+
+    public void run(InputStream inputStream, ImportJob job, BatchLinker linker, BatchWriter writer) throws IOException {
+        run(inputStream, job, 0, linker, writer);
+    }
+
+    public void run(InputStream inputStream, ImportJob job, int resumeAfterRow, BatchLinker linker, BatchWriter writer)
+            throws IOException {
+        run(inputStream, SourceFormat.XLSX, job, resumeAfterRow, linker, writer);
+    }
+
+    //rows up to resumeAfterRow (file row number) are read but skipped, used to resume an interrupted import
+    public void run(InputStream inputStream, SourceFormat format, ImportJob job, int resumeAfterRow,
+                    BatchLinker linker, BatchWriter writer) throws IOException {
+        ImportProperties.Pipeline settings = importProperties.getPipeline();
+        int workers = settings.getWorkers() > 0
+                ? settings.getWorkers()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        Run run = new Run(job, settings, workers, linker);
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 2,
+                new CustomizableThreadFactory("swift-import-pipeline-"));
+        long start = System.nanoTime();
+        try {
+            executor.execute(() -> run.stage(() -> run.read(inputStream, format, resumeAfterRow)));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> run.stage(run::validate));
+            }
+            executor.execute(() -> run.stage(run::link));
+            run.write(writer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExcelParseException("Import was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Import pipeline ({}) finished in {} ms", format, (System.nanoTime() - start) / 1_000_000);
+        job.getStages().forEach(stage -> log.info("  {}", stage));
+    }
+
+
+    //HELPER classes
+
+
+    private record RawChunk(long seq, SwiftCodeRowMapper mapper, int[] rowNums, String[][] cells, int size) {
+    }
+
+    //rowNums are file rows of the valid codes
+    private record ValidatedChunk(long seq, List<SwiftCode> swiftCodes, int[] rowNums, int rejected) {
+    }
+
+    private record WriteBatch(List<SwiftCode> swiftCodes, int lastRowNum) {
+    }
+
+    //rows of the chunk which is being read, cells are copied because the reader reuses its array
+    private static class ChunkBuilder {
+        private final int chunkSize;
+        private long seq;
+        private SwiftCodeRowMapper mapper;
+        private int[] rowNums;
+        private String[][] cells;
+        private int size;
+        private long start = System.nanoTime();
+
+        private ChunkBuilder(int chunkSize) {
+            this.chunkSize = chunkSize;
+            reset();
+        }
+
+        private void add(SwiftCodeRowMapper mapper, int rowNum, String[] rowCells) {
+            this.mapper = mapper;
+            rowNums[size] = rowNum;
+            cells[size] = Arrays.copyOf(rowCells, rowCells.length);
+            size++;
+        }
+
+        private boolean isFull() {
+            return size == chunkSize;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private RawChunk build(ImportStageStats stats) {
+            RawChunk chunk = new RawChunk(seq++, mapper, rowNums, cells, size);
+            stats.busy(size, System.nanoTime() - start);
+            reset();
+            return chunk;
+        }
+
+        //time of waiting on the full queue is not counted as reading
+        private void startTimer() {
+            start = System.nanoTime();
+        }
+
+        private void reset() {
+            rowNums = new int[chunkSize];
+            cells = new String[chunkSize][];
+            size = 0;
+        }
+    }
+
+    private interface StageBody {
+        void run() throws Exception;
+    }
+
+    //state of one pipeline run, shared by all its threads
+    private static class Run {
+        private static final RawChunk RAW_END = new RawChunk(-1, null, null, null, 0);
+        private static final ValidatedChunk VALIDATED_END = new ValidatedChunk(-1, null, null, 0);
+        private static final WriteBatch BATCHES_END = new WriteBatch(null, 0);
+
+        private final ImportJob job;
+        private final ImportProperties.Pipeline settings;
+        private final int workers;
+        private final BatchLinker linker;
+
+        private final BlockingQueue<RawChunk> rawChunks;
+        private final BlockingQueue<ValidatedChunk> validatedChunks;
+        private final BlockingQueue<WriteBatch> batches;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        private final ImportStageStats readStats;
+        private final ImportStageStats validateStats;
+        private final ImportStageStats linkStats;
+        private final ImportStageStats writeStats;
+
+        private Run(ImportJob job, ImportProperties.Pipeline settings, int workers, BatchLinker linker) {
+            this.job = job;
+            this.settings = settings;
+            this.workers = workers;
+            this.linker = linker;
+            this.rawChunks = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+            this.validatedChunks = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+            this.batches = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+
+            readStats = new ImportStageStats("read", 1);
+            validateStats = new ImportStageStats("validate", workers);
+            linkStats = new ImportStageStats("link", 1);
+            writeStats = new ImportStageStats("write", 1);
+            List.of(readStats, validateStats, linkStats, writeStats).forEach(job::addStage);
+        }
+
+        //first failure wins, it stops the writer which then stops everything else
+        private void stage(StageBody body) {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                //pipeline is being stopped because of another failure
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void read(InputStream inputStream, SourceFormat format, int resumeAfterRow) throws Exception {
+            ChunkBuilder chunk = new ChunkBuilder(settings.getChunkSize());
+
+            SwiftCodeRowMapper.readRows(inputStream, format, (mapper, rowNum, cells) -> {
+                if (rowNum <= resumeAfterRow) {
+                    return;
+                }
+                chunk.add(mapper, rowNum, cells);
+                if (chunk.isFull()) {
+                    putUnchecked(rawChunks, chunk.build(readStats), readStats);
+                    chunk.startTimer();
+                }
+            });
+
+            if (!chunk.isEmpty()) {
+                put(rawChunks, chunk.build(readStats), readStats);
+            }
+            for (int i = 0; i < workers; i++) {
+                put(rawChunks, RAW_END, readStats);
+            }
+        }
+
+        private void validate() throws InterruptedException {
+            while (true) {
+                RawChunk chunk = take(rawChunks, validateStats);
+                if (chunk == RAW_END) {
+                    put(validatedChunks, VALIDATED_END, validateStats);
+                    return;
+                }
+
+                long start = System.nanoTime();
+                List<SwiftCode> swiftCodes = new ArrayList<>(chunk.size());
+                int[] rowNums = new int[chunk.size()];
+                int rejected = 0;
+                for (int i = 0; i < chunk.size(); i++) {
+                    SwiftCode swiftCode = chunk.mapper().map(chunk.rowNums()[i], chunk.cells()[i]);
+                    if (swiftCode != null) {
+                        rowNums[swiftCodes.size()] = chunk.rowNums()[i];
+                        swiftCodes.add(swiftCode);
+                    } else {
+                        rejected++;
+                    }
+                }
+                validateStats.busy(chunk.size(), System.nanoTime() - start);
+                put(validatedChunks, new ValidatedChunk(chunk.seq(), swiftCodes, rowNums, rejected), validateStats);
+            }
+        }
+
+        //workers finish chunks in any order, chunks are put back in file order so the first duplicate wins
+        private void link() throws InterruptedException {
+            Map<Long, ValidatedChunk> waiting = new HashMap<>();
+            Set<String> uniqueSwiftCodes = new HashSet<>();
+            List<SwiftCode> batch = new ArrayList<>(settings.getBatchSize());
+            int lastRowNum = 0;
+            long nextSeq = 0;
+            int finishedWorkers = 0;
+
+            while (finishedWorkers < workers) {
+                ValidatedChunk chunk = take(validatedChunks, linkStats);
+                if (chunk == VALIDATED_END) {
+                    finishedWorkers++;
+                    continue;
+                }
+                waiting.put(chunk.seq(), chunk);
+
+                while (waiting.containsKey(nextSeq)) {
+                    ValidatedChunk next = waiting.remove(nextSeq++);
+                    long start = System.nanoTime();
+                    long waited = 0;
+                    for (int i = 0; i < next.rejected(); i++) {
+                        job.rowRejected();
+                    }
+                    for (int i = 0; i < next.swiftCodes().size(); i++) {
+                        SwiftCode swiftCode = next.swiftCodes().get(i);
+                        //Skip if this swift code was already processed in this file
+                        if (!uniqueSwiftCodes.add(swiftCode.getSwiftCode())) {
+                            log.warn("Duplicate SWIFT code found in file: {}, skipping", swiftCode.getSwiftCode());
+                            job.rowRejected();
+                            continue;
+                        }
+                        job.rowAccepted();
+                        batch.add(swiftCode);
+                        lastRowNum = next.rowNums()[i];
+
+                        if (batch.size() == settings.getBatchSize()) {
+                            waited += linkAndPut(batch, lastRowNum);
+                            batch = new ArrayList<>(settings.getBatchSize());
+                        }
+                    }
+                    linkStats.busy(next.swiftCodes().size() + next.rejected(), System.nanoTime() - start - waited);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                long start = System.nanoTime();
+                long waited = linkAndPut(batch, lastRowNum);
+                linkStats.busy(0, System.nanoTime() - start - waited);
+            }
+            put(batches, BATCHES_END, linkStats);
+        }
+
+        //returns time spent waiting on the full queue, so the caller doesn't count it as busy time
+        private long linkAndPut(List<SwiftCode> batch, int lastRowNum) throws InterruptedException {
+            List<SwiftCode> linked = linker.link(batch);
+            if (linked.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            put(batches, new WriteBatch(linked, lastRowNum), linkStats);
+            return System.nanoTime() - start;
+        }
+
+        //writer polls, so it notices failures of other stages even if nothing comes to its queue
+        private void write(BatchWriter writer) throws InterruptedException, IOException {
+            while (true) {
+                throwFailure();
+                long waitStart = System.nanoTime();
+                WriteBatch batch = batches.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                writeStats.waiting(System.nanoTime() - waitStart);
+                if (batch == null) {
+                    continue;
+                }
+                if (batch == BATCHES_END) {
+                    throwFailure();
+                    return;
+                }
+
+                long start = System.nanoTime();
+                writer.write(batch.swiftCodes(), batch.lastRowNum());
+                writeStats.busy(batch.swiftCodes().size(), System.nanoTime() - start);
+            }
+        }
+
+        private void throwFailure() throws IOException {
+            Exception e = failure.get();
+            if (e == null) {
+                return;
+            }
+            if (e instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ExcelParseException("Error parsing Excel file: " + e.getMessage(), e);
+        }
+
+        private <T> T take(BlockingQueue<T> queue, ImportStageStats stats) throws InterruptedException {
+            long start = System.nanoTime();
+            T item = queue.take();
+            stats.waiting(System.nanoTime() - start);
+            return item;
+        }
+
+        private <T> void put(BlockingQueue<T> queue, T item, ImportStageStats stats) throws InterruptedException {
+            long start = System.nanoTime();
+            queue.put(item);
+            stats.waiting(System.nanoTime() - start);
+        }
+
+        //row callbacks can't throw checked exceptions
+        private <T> void putUnchecked(BlockingQueue<T> queue, T item, ImportStageStats stats) {
+            try {
+                put(queue, item, stats);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import pipeline was stopped");
+            }
+        }
+    }
+}
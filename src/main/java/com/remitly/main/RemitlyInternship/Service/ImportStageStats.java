@@ -0,0 +1,67 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ Counters of one stage of the import pipeline (ImportPipeline).
+ * busy time is the time spent on the work itself, without waiting on the queues
+ * waiting time is the time spent blocked on the queues (empty input or full output)
+ The stage with the lowest throughput and no waiting is the bottleneck, the others are waiting for it.
+ */
+public class ImportStageStats {
+
+    private final String name;
+    private final int threads;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong waitingNanos = new AtomicLong();
+
+    public ImportStageStats(String name, int threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getBusyMillis() {
+        return busyNanos.get() / 1_000_000;
+    }
+
+    public long getWaitingMillis() {
+        return waitingNanos.get() / 1_000_000;
+    }
+
+    //rows per second of busy time of all threads of the stage together
+    public double getRowsPerSecond() {
+        long busy = busyNanos.get();
+        if (busy == 0) {
+            return 0;
+        }
+        return rows.get() * threads / (busy / 1_000_000_000.0);
+    }
+
+    void busy(long rows, long nanos) {
+        this.rows.addAndGet(rows);
+        this.busyNanos.addAndGet(nanos);
+    }
+
+    void waiting(long nanos) {
+        this.waitingNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows, %.0f rows/s, busy %d ms, waiting %d ms (%d threads)",
+                name, getRows(), getRowsPerSecond(), getBusyMillis(), getWaitingMillis(), threads);
+    }
+}
@@ -0,0 +1,47 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ Part of the readiness group (/actuator/health/readiness), instance takes traffic only when data is loaded.
+ * PENDING, RUNNING -> OUT_OF_SERVICE
+ * DONE, SKIPPED (or import disabled) -> UP
+ * FAILED -> DOWN
+ */
+@Component
+@RequiredArgsConstructor
+public class StartupImportHealthIndicator implements HealthIndicator {
+
+    private final ExcelParserService excelParserService;
+
+    @Override
+    public Health health() {
+        Optional<ImportJob> startupImport = excelParserService.getStartupImport();
+        if (startupImport.isEmpty()) {
+            return excelParserService.isStartupImportEnabled()
+                    ? Health.outOfService().withDetail("status", ImportJob.Status.PENDING).build()
+                    : Health.up().withDetail("status", "DISABLED").build();
+        }
+
+        ImportJob job = startupImport.get();
+        Health.Builder builder = switch (job.getStatus()) {
+            case DONE, SKIPPED -> Health.up();
+            case PENDING, RUNNING -> Health.outOfService();
+            case FAILED -> Health.down();
+        };
+        builder.withDetail("status", job.getStatus())
+                .withDetail("source", job.getSource())
+                .withDetail("rowsRead", job.getRowsRead())
+                .withDetail("rowsAccepted", job.getRowsAccepted())
+                .withDetail("rowsRejected", job.getRowsRejected());
+        if (job.getMessage() != null) {
+            builder.withDetail("message", job.getMessage());
+        }
+        return builder.build();
+    }
+}
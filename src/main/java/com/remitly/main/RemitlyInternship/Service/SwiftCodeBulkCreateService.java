@@ -0,0 +1,279 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.main.RemitlyInternship.Config.BulkCreateProperties;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkCreateResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkCreateResponseDTO.RecordError;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ POST /v1/swift-codes/bulk, many new codes in one request instead of one POST (and one transaction) per code.
+ * Body is NDJSON (one object per line) or a JSON array of objects, same fields as POST /v1/swift-codes.
+ * Records are read one by one and saved in batches (swift.bulk-create.batch-size), every batch is one transaction
+   with one IN query for existing codes. The next records are read only after the batch is committed, so the client
+   waits for the database (TCP backpressure) and only one batch is in memory, no matter how big the body is.
+ * Every record is checked like a single create (SwiftCodeRequestDTO constraints, branch can't end with XXX, code
+   can't exist), bad records are reported in the response and the rest is saved.
+ * Branch gets its headquarter from the same batch or the database, headquarters adopt branches which were created
+   before them, so the order in the body doesn't matter.
+ * Created codes go to the filter and the index one by one, like single creates, and only the created codes and their
+   headquarters are removed from the cache (no rebuild).
+ * A batch which conflicts with codes created by another request at the same time is retried, the existing check
+   then skips these codes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SwiftCodeBulkCreateService {
+
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final SwiftCodeCache swiftCodeCache;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeFilter swiftCodeFilter;
+    private final BulkCreateProperties bulkCreateProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    //attempts of one batch which was rolled back because the same code was created by another request at the same time
+    private static final int MAX_ATTEMPTS = 3;
+
+    //record number -> request, numbers are needed for the errors
+    private record PendingRecord(long record, SwiftCodeRequestDTO request) {}
+
+    public SwiftCodeBulkCreateResponseDTO createSwiftCodes(InputStream inputStream) throws IOException {
+        SwiftCodeBulkCreateResponseDTO result = SwiftCodeBulkCreateResponseDTO.builder().complete(true).build();
+        int batchSize = Math.max(1, bulkCreateProperties.getBatchSize());
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        //invalid records are found while reading, existing ones only when their batch is saved (maybe after retries),
+        //so the errors with the lowest record numbers are kept, not the first ones found
+        PriorityQueue<RecordError> errors = new PriorityQueue<>(
+                Comparator.comparingLong(RecordError::getRecord).reversed());
+
+        //readValues reads root level values one after another (NDJSON) or the elements of a root array
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(inputStream)) {
+            long recordNum = 0;
+            while (true) {
+                JsonNode node;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    node = records.nextValue();
+                } catch (JsonProcessingException e) {
+                    //we can't find where the next record starts in broken JSON
+                    result.setReceived(++recordNum);
+                    reject(result, errors, recordNum, null, "Invalid JSON, rest of the body was not read: "
+                            + e.getOriginalMessage());
+                    result.setComplete(false);
+                    break;
+                }
+                result.setReceived(++recordNum);
+
+                PendingRecord pending = validate(result, errors, recordNum, node);
+                if (pending == null) {
+                    continue;
+                }
+                batch.add(pending);
+                if (batch.size() == batchSize) {
+                    saveBatch(result, errors, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(result, errors, batch);
+        }
+        result.getErrors().addAll(errors);
+        result.getErrors().sort(Comparator.comparingLong(RecordError::getRecord));
+
+        log.info("Bulk create: {} records received, {} created, {} rejected",
+                result.getReceived(), result.getCreated(), result.getRejected());
+        return result;
+    }
+
+    //same checks as POST /v1/swift-codes (@Valid and createSwiftCode), null -> record is rejected
+    private PendingRecord validate(SwiftCodeBulkCreateResponseDTO result, PriorityQueue<RecordError> errors,
+                                   long recordNum, JsonNode node) {
+        String swiftCode = node.path("swiftCode").isTextual() ? node.path("swiftCode").asText() : null;
+        SwiftCodeRequestDTO request;
+        try {
+            request = objectMapper.treeToValue(node, SwiftCodeRequestDTO.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            reject(result, errors, recordNum, swiftCode,
+                    "Invalid record: " + e.getMessage().lines().findFirst().orElse(""));
+            return null;
+        }
+
+        Set<ConstraintViolation<SwiftCodeRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            //sorted, so the same record always gives the same message
+            reject(result, errors, recordNum, swiftCode, violations.stream()
+                    .sorted(Comparator.comparing((ConstraintViolation<SwiftCodeRequestDTO> violation) ->
+                            violation.getPropertyPath().toString()).thenComparing(ConstraintViolation::getMessage))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        if (!request.getIsHeadquarter() && request.getSwiftCode().endsWith("XXX")) {
+            reject(result, errors, recordNum, swiftCode,
+                    "Branch SwiftCode can't end with XXX: " + request.getSwiftCode());
+            return null;
+        }
+        return new PendingRecord(recordNum, request);
+    }
+
+    private void saveBatch(SwiftCodeBulkCreateResponseDTO result, PriorityQueue<RecordError> errors,
+                           List<PendingRecord> batch) {
+        //same code twice in one batch, first one wins (in the next batches it's caught by the existing check)
+        Map<String, PendingRecord> unique = new LinkedHashMap<>();
+        for (PendingRecord pending : batch) {
+            String swiftCode = pending.request().getSwiftCode();
+            if (unique.putIfAbsent(swiftCode, pending) != null) {
+                reject(result, errors, pending.record(), swiftCode, "Swift code already exists: " + swiftCode);
+            }
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<PendingRecord> created = null;
+        for (int attempt = 1; created == null; attempt++) {
+            try {
+                created = transactionTemplate.execute(status -> createBatch(unique.values()));
+            } catch (DataIntegrityViolationException e) {
+                //same code created by another request in the meantime, the existing check of the next attempt finds it
+                if (attempt == MAX_ATTEMPTS) {
+                    log.warn("Bulk create batch was rolled back {} times, giving up: {}", attempt, e.getMessage());
+                    unique.values().forEach(pending -> reject(result, errors, pending.record(),
+                            pending.request().getSwiftCode(),
+                            "Batch was rolled back, codes were created by other requests at the same time"));
+                    return;
+                }
+                log.info("Bulk create batch was rolled back (attempt {}), retrying: {}", attempt, e.getMessage());
+            }
+        }
+
+        Set<String> createdCodes = new HashSet<>();
+        created.forEach(pending -> createdCodes.add(pending.request().getSwiftCode()));
+        result.setCreated(result.getCreated() + created.size());
+        unique.values().stream()
+                .filter(pending -> !createdCodes.contains(pending.request().getSwiftCode()))
+                .forEach(pending -> reject(result, errors, pending.record(), pending.request().getSwiftCode(),
+                        "Swift code already exists: " + pending.request().getSwiftCode()));
+    }
+
+    //one attempt of the batch, inside its transaction, returns the created records
+    private List<PendingRecord> createBatch(Collection<PendingRecord> records) {
+        Set<String> existing = new HashSet<>(swiftCodeRepository.findExistingSwiftCodes(
+                records.stream().map(pending -> pending.request().getSwiftCode()).toList()));
+        List<PendingRecord> toCreate = new ArrayList<>(records.size());
+        Map<String, SwiftCode> entities = new LinkedHashMap<>();
+        for (PendingRecord pending : records) {
+            if (!existing.contains(pending.request().getSwiftCode())) {
+                toCreate.add(pending);
+                entities.put(pending.request().getSwiftCode(), toEntity(pending.request()));
+            }
+        }
+        if (entities.isEmpty()) {
+            return toCreate;
+        }
+
+        //headquarter of a branch is in this batch or in the database (one IN query),
+        //so branches are inserted with headquarters_id and the index gets complete rows
+        Set<String> headquarterCodes = new HashSet<>();
+        entities.values().stream()
+                .filter(entity -> !entity.isHeadquarter())
+                .map(entity -> SwiftCode.bankCodeOf(entity.getSwiftCode()) + "XXX")
+                .filter(headquarterCode -> !entities.containsKey(headquarterCode))
+                .forEach(headquarterCodes::add);
+        Map<String, SwiftCode> headquarters = new HashMap<>();
+        if (!headquarterCodes.isEmpty()) {
+            swiftCodeRepository.findBySwiftCodeIn(headquarterCodes).forEach(headquarter ->
+                    headquarters.put(headquarter.getSwiftCode(), headquarter));
+        }
+        entities.values().stream().filter(SwiftCode::isHeadquarter).forEach(headquarter ->
+                headquarters.put(headquarter.getSwiftCode(), headquarter));
+        entities.values().stream()
+                .filter(entity -> !entity.isHeadquarter())
+                .forEach(branch -> branch.setHeadquarters(
+                        headquarters.get(SwiftCode.bankCodeOf(branch.getSwiftCode()) + "XXX")));
+
+        //headquarters first, branches of this batch reference them
+        swiftCodeRepository.saveAll(entities.values().stream()
+                .sorted(Comparator.comparing(SwiftCode::isHeadquarter).reversed())
+                .toList());
+
+        //same as a single create: filter before the commit, index after it, cached headquarters list their branches
+        List<String> invalidated = new ArrayList<>();
+        Set<String> newHeadquarterBankCodes = new HashSet<>();
+        for (SwiftCode entity : entities.values()) {
+            swiftCodeFilter.add(entity.getSwiftCode());
+            swiftCodeIndex.put(entity);
+            invalidated.add(entity.getSwiftCode());
+            if (entity.isHeadquarter()) {
+                newHeadquarterBankCodes.add(SwiftCode.bankCodeOf(entity.getSwiftCode()));
+            } else {
+                invalidated.add(SwiftCode.bankCodeOf(entity.getSwiftCode()) + "XXX");
+            }
+        }
+        swiftCodeCache.invalidate(invalidated);
+
+        //branches already in the database which were waiting for one of the new headquarters (the index adopts them
+        //by itself), it flushes the inserts first
+        if (!newHeadquarterBankCodes.isEmpty()) {
+            swiftCodeRepository.linkOrphanBranchesOf(newHeadquarterBankCodes);
+        }
+        return toCreate;
+    }
+
+    //same entity as createSwiftCode builds, headquarter is set by createBatch
+    private SwiftCode toEntity(SwiftCodeRequestDTO request) {
+        return SwiftCode.builder()
+                .swiftCode(request.getSwiftCode())
+                .bankName(request.getBankName())
+                .address(request.getAddress())
+                .countryISO2(request.getCountryISO2())
+                .countryName(request.getCountryName())
+                .isHeadquarter(request.getIsHeadquarter())
+                .build();
+    }
+
+    //errors is a max-heap of the reported errors, the one with the biggest record number is dropped when it's full
+    private void reject(SwiftCodeBulkCreateResponseDTO result, PriorityQueue<RecordError> errors, long recordNum,
+                        String swiftCode, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (bulkCreateProperties.getMaxReportedErrors() <= 0) {
+            return;
+        }
+        errors.add(new RecordError(recordNum, swiftCode, message));
+        if (errors.size() > bulkCreateProperties.getMaxReportedErrors()) {
+            errors.poll();
+        }
+    }
+}
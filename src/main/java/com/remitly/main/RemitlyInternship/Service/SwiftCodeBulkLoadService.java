@@ -0,0 +1,260 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeRowMapper;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ Full reload of the swift_codes table with PostgreSQL COPY, much faster than inserting rows with JPA.
+ Used by swift.import.mode=reload (or mode=reload on /v1/imports) and by snapshot restores.
+
+ * Rows are streamed from the file straight into a temporary staging table (COPY FROM STDIN).
+ * One INSERT ... SELECT moves them to swift_codes and resolves headquarters_id at the same time.
+ * The old data is removed with DELETE (not TRUNCATE) in the same transaction. TRUNCATE takes an ACCESS EXCLUSIVE lock,
+   so every read from the database would wait for the whole load, and it's not MVCC-safe. DELETE only locks the rows:
+   readers are not blocked and see the old directory until the commit, then the new one.
+   Writes of the same codes (single create, update or delete) wait for the commit.
+   The price is a dead tuple for every old row, they are cleaned up by autovacuum.
+ * Checkpoints of interrupted imports (import_checkpoints) are deleted in the same transaction.
+ * At the end ANALYZE refreshes planner statistics for the new data.
+
+ It uses the same row mapping and validation as SwiftCodeParseService.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SwiftCodeBulkLoadService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE swift_codes_staging (
+                row_num bigint,
+                swift_code text,
+                bank_name text,
+                address text,
+                countryiso2 text,
+                country_name text,
+                is_headquarter boolean,
+                row_hash bigint
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_TO_STAGING = "COPY swift_codes_staging " +
+            "(row_num, swift_code, bank_name, address, countryiso2, country_name, is_headquarter, row_hash) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COUNT_UNIQUE_CODES = "SELECT count(DISTINCT swift_code) FROM swift_codes_staging";
+
+    //not TRUNCATE, see the class comment
+    private static final String DELETE_ALL = "DELETE FROM swift_codes";
+
+    //checkpoints belong to the directory which is replaced, an interrupted import must not resume on the new one
+    private static final String DELETE_CHECKPOINTS = "DELETE FROM import_checkpoints";
+
+    //reserving ids for all rows at once, returns the id before the first reserved one
+    private static final String RESERVE_IDS = "SELECT setval('swift_codes_seq', nextval('swift_codes_seq') + ?) - ?";
+
+    //duplicates in the file -> first row wins (same as in SwiftCodeParseService),
+    //branch gets the id of the "XXX" headquarter with the same first 8 characters
+    private static final String INSERT_FROM_STAGING = """
+            WITH unique_rows AS (
+                SELECT DISTINCT ON (swift_code) * FROM swift_codes_staging ORDER BY swift_code, row_num
+            ), numbered AS (
+                SELECT row_number() OVER (ORDER BY row_num) + ? AS id, * FROM unique_rows
+            )
+            INSERT INTO swift_codes (id, swift_code, bank_name, address, countryiso2, country_name,
+                                     is_headquarter, row_hash, bank_code, headquarters_id)
+            SELECT b.id, b.swift_code, b.bank_name, b.address, b.countryiso2, b.country_name,
+                   b.is_headquarter, b.row_hash, substring(b.swift_code, 1, 8), h.id
+            FROM numbered b
+            LEFT JOIN numbered h ON NOT b.is_headquarter AND h.is_headquarter
+                                AND h.swift_code = substring(b.swift_code, 1, 8) || 'XXX'""";
+
+    //snapshot rows already have everything (ids are given here), so they go straight to swift_codes
+    private static final String COPY_TO_SWIFT_CODES = "COPY swift_codes " +
+            "(id, swift_code, bank_name, address, countryiso2, country_name, is_headquarter, row_hash, bank_code, " +
+            "headquarters_id) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SwiftCodeCache swiftCodeCache;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeFilter swiftCodeFilter;
+
+    //replaces the whole directory with the content of the Excel file, returns number of loaded SWIFT codes
+    public long reloadExcelFile(InputStream inputStream) {
+        return reloadFile(inputStream, SourceFormat.XLSX);
+    }
+
+    //replaces the whole directory with the content of the file, returns number of loaded SWIFT codes
+    public long reloadFile(InputStream inputStream, SourceFormat format) {
+        if (inputStream == null) {
+            throw new ExcelParseException("Input stream cannot be null");
+        }
+
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long loaded = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CREATE_STAGING_TABLE);
+            Long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copyToStaging(connection, inputStream, format));
+
+            Long uniqueCodes = jdbcTemplate.queryForObject(COUNT_UNIQUE_CODES, Long.class);
+            Long idOffset = jdbcTemplate.queryForObject(RESERVE_IDS, Long.class, uniqueCodes, uniqueCodes);
+
+            //inside the transaction, new codes must not be missing in the filter after the commit
+            swiftCodeFilter.markStale();
+            jdbcTemplate.update(DELETE_ALL);
+            jdbcTemplate.update(DELETE_CHECKPOINTS);
+            int inserted = jdbcTemplate.update(INSERT_FROM_STAGING, idOffset);
+
+            log.info("Bulk load: {} rows copied to staging, {} duplicates skipped", staged, staged - inserted);
+            return (long) inserted;
+        });
+
+        swiftCodeCache.invalidateAll();
+
+        swiftCodeIndex.markStale();
+        jdbcTemplate.execute("ANALYZE swift_codes");
+        log.info("Successfully bulk loaded {} SWIFT codes in {} ms", loaded, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     Replaces the whole directory with the rows of the snapshot (SwiftCodeSnapshot), no parsing and no validation,
+     rows are exactly the ones which were exported. Id of snapshot row i is the first reserved id + i.
+     Rows without a headquarter are copied first, so the foreign key of every branch already points to a row.
+     */
+    public long reloadSnapshot(SwiftCodeSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long loaded = transactionTemplate.execute(status -> {
+            Long idOffset = jdbcTemplate.queryForObject(RESERVE_IDS, Long.class, snapshot.size(), snapshot.size());
+            //inside the transaction, new codes must not be missing in the filter after the commit
+            swiftCodeFilter.markStale();
+            jdbcTemplate.update(DELETE_ALL);
+            jdbcTemplate.update(DELETE_CHECKPOINTS);
+            return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copySnapshot(connection, snapshot, idOffset));
+        });
+
+        swiftCodeCache.invalidateAll();
+
+        swiftCodeIndex.markStale();
+        jdbcTemplate.execute("ANALYZE swift_codes");
+        log.info("Successfully restored {} SWIFT codes from snapshot in {} ms", loaded, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private long copySnapshot(Connection connection, SwiftCodeSnapshot snapshot, long idOffset) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(copyManager.copyIn(COPY_TO_SWIFT_CODES), COPY_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            for (boolean linked : new boolean[]{false, true}) {
+                for (int row = 0; row < snapshot.size(); row++) {
+                    int headquartersRow = snapshot.headquartersRow(row);
+                    if ((headquartersRow >= 0) != linked) {
+                        continue;
+                    }
+                    writer.write(Long.toString(idOffset + row + 1));
+                    writer.write(',');
+                    writeCsvValue(writer, snapshot.swiftCode(row));
+                    writer.write(',');
+                    writeCsvValue(writer, snapshot.bankName(row));
+                    writer.write(',');
+                    writeCsvValue(writer, snapshot.address(row));
+                    writer.write(',');
+                    writeCsvValue(writer, snapshot.countryISO2(row));
+                    writer.write(',');
+                    writeCsvValue(writer, snapshot.countryName(row));
+                    writer.write(',');
+                    writer.write(snapshot.isHeadquarter(row) ? "t" : "f");
+                    writer.write(',');
+                    Long rowHash = snapshot.rowHash(row);
+                    writer.write(rowHash != null ? Long.toString(rowHash) : "");
+                    writer.write(',');
+                    writeCsvValue(writer, SwiftCode.bankCodeOf(snapshot.swiftCode(row)));
+                    writer.write(',');
+                    writer.write(linked ? Long.toString(idOffset + headquartersRow + 1) : "");
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error while copying snapshot rows", e);
+        }
+        return snapshot.size();
+    }
+
+    //only errors of reading the file are parse errors, errors of the COPY stream (database, socket) are SQLExceptions,
+    //so JdbcTemplate translates them to DataAccessException
+    private long copyToStaging(Connection connection, InputStream inputStream, SourceFormat format) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        long[] staged = {0};
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(copyManager.copyIn(COPY_TO_STAGING), COPY_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            try {
+                SwiftCodeRowMapper.readFile(inputStream, format, (rowNum, swiftCode) -> {
+                    writeCsvRow(writer, rowNum, swiftCode);
+                    staged[0]++;
+                });
+            } catch (IOException e) {
+                throw new ExcelParseException("Error parsing " + format.getDisplayName() + " file: " + e.getMessage(), e);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new SQLException("Error while copying rows to the staging table", e);
+        }
+        return staged[0];
+    }
+
+    private void writeCsvRow(Writer writer, int rowNum, SwiftCode swiftCode) {
+        try {
+            writer.write(Integer.toString(rowNum));
+            writer.write(',');
+            writeCsvValue(writer, swiftCode.getSwiftCode());
+            writer.write(',');
+            writeCsvValue(writer, swiftCode.getBankName());
+            writer.write(',');
+            writeCsvValue(writer, swiftCode.getAddress());
+            writer.write(',');
+            writeCsvValue(writer, swiftCode.getCountryISO2());
+            writer.write(',');
+            writeCsvValue(writer, swiftCode.getCountryName());
+            writer.write(',');
+            writer.write(swiftCode.isHeadquarter() ? "t" : "f");
+            writer.write(',');
+            //same hash as @PrePersist would give, so a later delta import sees these rows as unchanged
+            writer.write(Long.toString(swiftCode.computeRowHash()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //null is written as an empty unquoted value (NULL in COPY csv format), everything else is quoted
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,195 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.CacheProperties;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ Bounded cache of finished SwiftCodeDTO responses of GET /v1/swift-codes/{swift-code} (SwiftCodeService.getSwiftCode).
+ * Least recently used entries are evicted above swift.cache.maximum-size, entries older than swift.cache.ttl are
+   loaded again. Only found codes are cached, "not found" always goes to the database.
+ * Writers invalidate the codes they changed (for a branch also its headquarter, whose response lists the branches).
+   Inside a transaction the codes are invalidated right away and once more when the transaction ends, so a reader which
+   loaded the old row before the commit can't put it back into the cache.
+ * A value loaded while any invalidation happened is returned but not cached (invalidation counter), it may be stale.
+ * Cached DTOs are shared between requests, they must not be modified.
+ Hits, misses, evictions and size are published as cache.gets / cache.evictions / cache.size (tag cache=swiftCodes),
+ see /actuator/metrics.
+ */
+@Component
+public class SwiftCodeCache {
+
+    private static final String CACHE_NAME = "swiftCodes";
+
+    private record Entry(SwiftCodeDTO value, long loadedAt) {
+    }
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    //access order -> iteration starts with the least recently used entry, guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public SwiftCodeCache(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this(cacheProperties, meterRegistry, System::nanoTime);
+    }
+
+    SwiftCodeCache(CacheProperties cacheProperties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.maximumSize = cacheProperties.getMaximumSize();
+        this.ttlNanos = cacheProperties.getTtl().toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Number of times cache lookup methods have returned a cached value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Number of times cache lookup methods have returned an uncached (newly loaded) value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Number of entries evicted because of the size limit or expired")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, SwiftCodeCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Number of entries in the cache")
+                .register(meterRegistry);
+    }
+
+    //cached value or the value of the loader (exceptions of the loader are thrown to the caller, nothing is cached)
+    public SwiftCodeDTO get(String swiftCode, Function<String, SwiftCodeDTO> loader) {
+        if (maximumSize <= 0) {
+            return loader.apply(swiftCode);
+        }
+
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            Entry entry = entries.get(swiftCode);
+            if (entry != null) {
+                if (nanoClock.getAsLong() - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(swiftCode);
+                evictions.increment();
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+
+        misses.increment();
+        //database is read outside of the lock, other codes are served from the cache in the meantime
+        SwiftCodeDTO value = loader.apply(swiftCode);
+
+        synchronized (this) {
+            if (invalidations == invalidationsBeforeLoad) {
+                entries.put(swiftCode, new Entry(value, nanoClock.getAsLong()));
+            }
+        }
+        return value;
+    }
+
+    //cached value or null, nothing is loaded (batch lookups load all misses with one query themselves)
+    public SwiftCodeDTO getIfPresent(String swiftCode) {
+        if (maximumSize <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(swiftCode);
+            if (entry != null) {
+                if (nanoClock.getAsLong() - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(swiftCode);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void invalidate(String swiftCode) {
+        invalidate(List.of(swiftCode));
+    }
+
+    public void invalidate(Collection<String> swiftCodes) {
+        remove(swiftCodes);
+        afterTransaction(() -> remove(swiftCodes));
+    }
+
+    //after bulk writes (imports, snapshot restore) which don't know which codes they changed
+    public void invalidateAll() {
+        clear();
+        afterTransaction(this::clear);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private synchronized void remove(Collection<String> swiftCodes) {
+        swiftCodes.forEach(entries::remove);
+        invalidations++;
+    }
+
+    private synchronized void clear() {
+        entries.clear();
+        invalidations++;
+    }
+
+    private void afterTransaction(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    //rolled back too, it's cheap and the first invalidation already happened anyway
+                    action.run();
+                }
+            });
+        }
+    }
+}
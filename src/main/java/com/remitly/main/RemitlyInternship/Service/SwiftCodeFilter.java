@@ -0,0 +1,252 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.FilterProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ Filter of all stored SWIFT codes (CountingBloomFilter), codes which are definitely not stored are answered with 404
+ without the cache, the index or the database (typos, probing of random codes).
+ * Built from the database in the background at startup and after bulk writes (imports, snapshot restore), which
+   only mark it stale (markStale, or beginBulkWrite/endBulkWrite around imports of many transactions).
+   Until it's rebuilt every code "might exist".
+ * SwiftCodeService adds created codes before the commit (a rolled back add only leaves a false positive) and removes
+   deleted ones after the commit, so a stored code is never reported as missing.
+ * Rebuild is thrown away if any write was running or finished while the codes were read (pending writes +
+   generation counter), the finished write schedules another one.
+ */
+@Slf4j
+@Component
+public class SwiftCodeFilter {
+
+    private static final String SELECT_CODES = "SELECT swift_code FROM swift_codes";
+    private static final long RETRY_DELAY_MILLIS = 10_000;
+    //room for codes created after the rebuild, before the false positive rate goes up
+    private static final int GROWTH_FACTOR = 2;
+    private static final int MIN_EXPECTED_CODES = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FilterProperties filterProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //guarded by lock
+    private CountingBloomFilter filter;
+    private boolean ready;
+    private long generation;
+    private int pendingWrites;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService rebuildExecutor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("swift-filter-"));
+
+    public SwiftCodeFilter(JdbcTemplate jdbcTemplate, FilterProperties filterProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filterProperties = filterProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduleRebuild(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //false -> the code is definitely not stored, true -> it may be (always true while the filter isn't ready)
+    public boolean mightContain(String swiftCode) {
+        lock.readLock().lock();
+        try {
+            return !ready || filter.mightContain(swiftCode);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //created code, added right away so it's in the filter before anybody can read it from the database
+    public void add(String swiftCode) {
+        beginWrite();
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                filter.add(swiftCode);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterCompletion(committed -> endWrite());
+    }
+
+    //deleted codes (with the branches deleted by cascade), removed once the delete is committed
+    public void remove(Collection<String> swiftCodes) {
+        List<String> removed = List.copyOf(swiftCodes);
+        beginWrite();
+        afterCompletion(committed -> {
+            if (committed) {
+                lock.writeLock().lock();
+                try {
+                    if (ready) {
+                        removed.forEach(filter::remove);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            endWrite();
+        });
+    }
+
+    /**
+     Before the commit of bulk writes which don't tell what they changed, every code "might exist" from now until
+     the filter is rebuilt. Has to be called inside the writing transaction (or before the write), not after the commit,
+     otherwise new codes would be missing in the filter for a moment.
+     */
+    public void markStale() {
+        beginBulkWrite();
+        afterCompletion(committed -> endBulkWrite());
+    }
+
+    /**
+     Bulk write of many transactions (imports): the filter is stale from beginBulkWrite, before the first write,
+     until endBulkWrite, after the last commit (call it in finally). Rebuild is done once, after endBulkWrite.
+     */
+    public void beginBulkWrite() {
+        beginWrite();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endBulkWrite() {
+        endWrite();
+    }
+
+    //builds the filter from the database now (in the calling thread), returns false if it's not ready afterwards
+    boolean rebuild() {
+        rebuildScheduled.set(false);
+        if (!filterProperties.isEnabled()) {
+            return false;
+        }
+
+        long generationBeforeLoad;
+        lock.readLock().lock();
+        try {
+            if (pendingWrites > 0) {
+                //the write reschedules the rebuild when it ends
+                return false;
+            }
+            generationBeforeLoad = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        List<String> swiftCodes = jdbcTemplate.queryForList(SELECT_CODES, String.class);
+        CountingBloomFilter rebuilt = CountingBloomFilter.create(
+                Math.max(MIN_EXPECTED_CODES, (long) swiftCodes.size() * GROWTH_FACTOR),
+                filterProperties.getFalsePositiveRate());
+        swiftCodes.forEach(rebuilt::add);
+
+        lock.writeLock().lock();
+        try {
+            if (generation != generationBeforeLoad) {
+                log.debug("SWIFT code filter rebuild is outdated, skipping it");
+                return false;
+            }
+            filter = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("SWIFT code filter built with {} codes ({} counters, {} hash functions) in {} ms",
+                swiftCodes.size(), rebuilt.size(), rebuilt.hashFunctions(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+
+    //HELPER methods
+
+
+    private void beginWrite() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites++;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //bulk writes mark the filter stale, every write which ends while it's not ready schedules the rebuild
+    private void endWrite() {
+        boolean rebuildNeeded;
+        lock.writeLock().lock();
+        try {
+            pendingWrites--;
+            generation++;
+            rebuildNeeded = !ready;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuildNeeded) {
+            scheduleRebuild(filterProperties.getRebuildDelay().toMillis());
+        }
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (filterProperties.isEnabled() && rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("SWIFT code filter rebuild failed, retrying in {} ms: {}", RETRY_DELAY_MILLIS, e.getMessage());
+                    scheduleRebuild(RETRY_DELAY_MILLIS);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private interface CompletionAction {
+        void run(boolean committed);
+    }
+
+    private void afterCompletion(CompletionAction action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,415 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.IndexProperties;
+import com.remitly.main.RemitlyInternship.DTO.CountrySwiftCodesResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBranchDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ In-memory read model of the whole directory (SwiftCodeIndexData), GET by code and by country are answered from it
+ without touching the database.
+ * Built from the database in the background when the application starts and after bulk writes (imports, snapshot
+   restore), which only mark it stale (markStale, or beginBulkWrite/endBulkWrite around imports of many
+   transactions). Until it's rebuilt reads go to the database (fallback).
+ * SwiftCodeService applies its creates and deletes to it after the commit, so it doesn't need a rebuild.
+ * Rebuild which overlaps with any write is thrown away and done again (generation counter), so the index never
+   holds a state older than the last write it was told about.
+ * Prefix search over codes and bank names (type-ahead) uses sorted maps kept in the same data.
+ * Readers share a read lock, writes are rare and short (one row or swapping the rebuilt data).
+ */
+@Slf4j
+@Component
+public class SwiftCodeIndex {
+
+    private static final String SELECT_ROWS = """
+            SELECT s.id, s.swift_code, s.bank_name, s.address, s.countryiso2, s.country_name, s.is_headquarter,
+                   h.swift_code AS headquarters_swift_code
+            FROM swift_codes s
+            LEFT JOIN swift_codes h ON h.id = s.headquarters_id
+            ORDER BY s.id
+            """;
+
+    private static final long RETRY_DELAY_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IndexProperties indexProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //guarded by lock
+    private SwiftCodeIndexData data = new SwiftCodeIndexData();
+    private boolean ready;
+    private long generation;
+    //bulk writes which are running, no rebuild until they end
+    private int bulkWrites;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService rebuildExecutor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("swift-index-"));
+
+    public SwiftCodeIndex(JdbcTemplate jdbcTemplate, IndexProperties indexProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexProperties = indexProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduleRebuild(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //same response as the database path, fallback is used while the index isn't ready
+    public SwiftCodeDTO getSwiftCode(String swiftCode, Function<String, SwiftCodeDTO> fallback) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                int row = data.find(swiftCode);
+                if (row == SwiftCodeIndexData.NO_ROW) {
+                    throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
+                }
+                return mapToDTO(row, data.isHeadquarter(row));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return fallback.apply(swiftCode);
+    }
+
+    public boolean exists(String swiftCode, Predicate<String> fallback) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                return data.find(swiftCode) != SwiftCodeIndexData.NO_ROW;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return fallback.test(swiftCode);
+    }
+
+    //found codes only (missing ones aren't in the map), fallback gets all codes while the index isn't ready
+    public Map<String, SwiftCodeDTO> getSwiftCodes(Collection<String> swiftCodes,
+                                                   Function<Collection<String>, Map<String, SwiftCodeDTO>> fallback) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                Map<String, SwiftCodeDTO> found = new HashMap<>();
+                for (String swiftCode : swiftCodes) {
+                    int row = data.find(swiftCode);
+                    if (row != SwiftCodeIndexData.NO_ROW) {
+                        found.put(swiftCode, mapToDTO(row, data.isHeadquarter(row)));
+                    }
+                }
+                return found;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return fallback.apply(swiftCodes);
+    }
+
+    //prefix search (SwiftCodeIndexData.search), fallback is used while the index isn't ready
+    public List<SwiftCodeDTO> search(String codePrefix, String namePrefix, int limit,
+                                     Supplier<List<SwiftCodeDTO>> fallback) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                int[] rows = data.search(codePrefix, namePrefix, limit);
+                List<SwiftCodeDTO> swiftCodeDTOs = new ArrayList<>(rows.length);
+                for (int row : rows) {
+                    swiftCodeDTOs.add(mapToDTO(row, false));
+                }
+                return swiftCodeDTOs;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return fallback.get();
+    }
+
+    //countryISO2 is expected in uppercase
+    public CountrySwiftCodesResponseDTO getCountrySwiftCodes(String countryISO2,
+                                                             Function<String, CountrySwiftCodesResponseDTO> fallback) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                int[] rows = data.countryRows(countryISO2);
+                if (rows.length == 0) {
+                    throw new SwiftCodeNotFoundException("SWIFT codes not found for country: " + countryISO2);
+                }
+                List<SwiftCodeDTO> swiftCodeDTOs = new ArrayList<>(rows.length);
+                for (int row : rows) {
+                    swiftCodeDTOs.add(mapToDTO(row, false));
+                }
+                return CountrySwiftCodesResponseDTO.builder()
+                        .countryISO2(countryISO2)
+                        .countryName(data.countryName(rows[0]))
+                        .swiftCodes(swiftCodeDTOs)
+                        .build();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return fallback.apply(countryISO2);
+    }
+
+    //saved entity (with its headquarter and branches), applied when the current transaction commits
+    public void put(SwiftCode swiftCode) {
+        SwiftCodeIndexData.Row row = toRow(swiftCode);
+        afterCommit(() -> apply(index -> index.put(row)));
+    }
+
+    //deleted code, branches of a headquarter are deleted with it (like CascadeType.ALL in SwiftCode)
+    public void remove(String swiftCode) {
+        afterCommit(() -> apply(index -> {
+            int row = index.find(swiftCode);
+            if (row == SwiftCodeIndexData.NO_ROW) {
+                return true;
+            }
+            for (int branch : index.branchRows(row)) {
+                index.remove(index.swiftCode(branch));
+            }
+            return index.remove(swiftCode);
+        }));
+    }
+
+    //bulk delete, the list already has the branches of deleted headquarters, one change for all of them
+    public void removeAll(Collection<String> swiftCodes) {
+        List<String> removed = List.copyOf(swiftCodes);
+        afterCommit(() -> apply(index -> {
+            removed.forEach(index::remove);
+            return true;
+        }));
+    }
+
+    //after bulk writes which don't tell what they changed, reads go to the database until the index is rebuilt
+    public void markStale() {
+        beginBulkWrite();
+        afterCompletion(this::endBulkWrite);
+    }
+
+    /**
+     Bulk write of many transactions (imports): the index is stale from beginBulkWrite until endBulkWrite, after the
+     last commit (call it in finally). Rebuild is done once, after endBulkWrite, not after every committed batch.
+     */
+    public void beginBulkWrite() {
+        lock.writeLock().lock();
+        try {
+            bulkWrites++;
+            generation++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endBulkWrite() {
+        lock.writeLock().lock();
+        try {
+            bulkWrites--;
+            generation++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        scheduleRebuild(indexProperties.getRebuildDelay().toMillis());
+    }
+
+    //builds the index from the database now (in the calling thread), returns false if it's not ready afterwards
+    boolean rebuild() {
+        rebuildScheduled.set(false);
+        if (!indexProperties.isEnabled()) {
+            return false;
+        }
+
+        long generationBeforeLoad;
+        lock.readLock().lock();
+        try {
+            if (bulkWrites > 0) {
+                //the bulk write schedules the rebuild when it ends
+                return false;
+            }
+            generationBeforeLoad = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        List<SwiftCodeIndexData.Row> rows = new ArrayList<>();
+        jdbcTemplate.query(SELECT_ROWS, resultSet -> {
+            rows.add(new SwiftCodeIndexData.Row(
+                    resultSet.getLong("id"),
+                    resultSet.getString("swift_code"),
+                    resultSet.getString("bank_name"),
+                    resultSet.getString("address"),
+                    resultSet.getString("countryiso2"),
+                    resultSet.getString("country_name"),
+                    resultSet.getBoolean("is_headquarter"),
+                    resultSet.getString("headquarters_swift_code"),
+                    null));
+        });
+        SwiftCodeIndexData rebuilt = new SwiftCodeIndexData(rows.size());
+        if (!rebuilt.putAll(rows)) {
+            //index has to hold every row, otherwise "not found" and country lists would be wrong
+            log.warn("SWIFT code index is not used, some codes in the database are not 11 ASCII characters");
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (generation != generationBeforeLoad) {
+                //something was written while we were reading, the write scheduled another rebuild
+                log.debug("SWIFT code index rebuild is outdated, skipping it");
+                return false;
+            }
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("SWIFT code index built with {} codes in {} ms", rows.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+
+    //HELPER methods
+
+
+    private void scheduleRebuild(long delayMillis) {
+        if (indexProperties.isEnabled() && rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("SWIFT code index rebuild failed, retrying in {} ms: {}", RETRY_DELAY_MILLIS, e.getMessage());
+                    scheduleRebuild(RETRY_DELAY_MILLIS);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //change of a ready index is applied right away, otherwise the next rebuild reads it from the database
+    private void apply(Function<SwiftCodeIndexData, Boolean> change) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            if (ready && change.apply(data)) {
+                return;
+            }
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        scheduleRebuild(indexProperties.getRebuildDelay().toMillis());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    //values are copied now, the entity may be changed or detached before the commit
+    private static SwiftCodeIndexData.Row toRow(SwiftCode swiftCode) {
+        List<String> branchSwiftCodes = new ArrayList<>();
+        if (swiftCode.getBranches() != null) {
+            swiftCode.getBranches().forEach(branch -> branchSwiftCodes.add(branch.getSwiftCode()));
+        }
+        return new SwiftCodeIndexData.Row(
+                //not saved yet (no id) -> after every saved code
+                swiftCode.getId() != null ? swiftCode.getId() : Long.MAX_VALUE,
+                swiftCode.getSwiftCode(),
+                swiftCode.getBankName(),
+                swiftCode.getAddress(),
+                swiftCode.getCountryISO2(),
+                swiftCode.getCountryName(),
+                swiftCode.isHeadquarter(),
+                swiftCode.getHeadquarters() != null ? swiftCode.getHeadquarters().getSwiftCode() : null,
+                branchSwiftCodes);
+    }
+
+    //same mapping as SwiftCodeService.mapToDTO
+    private SwiftCodeDTO mapToDTO(int row, boolean includeBranches) {
+        SwiftCodeDTO swiftCodeDTO = SwiftCodeDTO.builder()
+                .address(data.address(row))
+                .bankName(data.bankName(row))
+                .countryISO2(data.countryISO2(row))
+                .countryName(data.countryName(row))
+                .isHeadquarter(data.isHeadquarter(row))
+                .swiftCode(data.swiftCode(row))
+                .build();
+
+        if (data.isHeadquarter(row) && includeBranches) {
+            int[] branchRows = data.branchRows(row);
+            List<SwiftCodeBranchDTO> branchDTOs = new ArrayList<>(branchRows.length);
+            for (int branch : branchRows) {
+                branchDTOs.add(SwiftCodeBranchDTO.builder()
+                        .address(data.address(branch))
+                        .bankName(data.bankName(branch))
+                        .countryISO2(data.countryISO2(branch))
+                        .countryName(data.countryName(branch))
+                        .isHeadquarter(data.isHeadquarter(branch))
+                        .swiftCode(data.swiftCode(branch))
+                        .build());
+            }
+            swiftCodeDTO.setBranches(branchRows.length == 0 ? List.of() : branchDTOs);
+        }
+        return swiftCodeDTO;
+    }
+}
@@ -0,0 +1,499 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ Columnar in-memory copy of the swift_codes table used by SwiftCodeIndex (not thread safe, the index guards it).
+ * SWIFT code (11 ASCII chars) is packed into two longs, first 8 chars (bank, country, location) and the last 3
+   (branch), lookups compare two longs and keys don't need any objects.
+ * Code -> row is an open addressing table (linear probing, value = row + 1, 0 = empty slot). Removal shifts the
+   following entries back, so there are no tombstones and lookups don't get slower after many deletes.
+ * Rows of a country are growable int arrays in insertion order, branches of a headquarter are kept in id order
+   (same as @OrderBy("id") of SwiftCode.branches), also when a headquarter adopts branches created before it.
+ * Rows of removed codes are reused for the next inserted codes.
+ * Codes and normalized bank names (from every word of the name) are also kept sorted for prefix search,
+   a prefix is one range of the sorted map, so top N matches cost O(log n + N).
+ */
+class SwiftCodeIndexData {
+
+    static final int NO_ROW = -1;
+
+    private static final int SWIFT_CODE_LENGTH = 11;
+    private static final int HIGH_CHARS = 8;
+    //separates the name from the code in keys of sortedNames, sorts before any char of a name
+    private static final char NAME_KEY_SEPARATOR = '\0';
+
+    //one row, id is the database id, headquartersSwiftCode and branchSwiftCodes are links to other rows (if they are in the index)
+    record Row(long id, String swiftCode, String bankName, String address, String countryISO2, String countryName,
+               boolean headquarter, String headquartersSwiftCode, List<String> branchSwiftCodes) {
+    }
+
+    private long[] keyHigh;
+    private long[] keyLow;
+    private long[] id;
+    private String[] bankName;
+    private String[] address;
+    private String[] countryISO2;
+    private String[] countryName;
+    private boolean[] headquarter;
+    private int[] headquartersRow;
+    private IntList[] branchRows;
+
+    private int usedRows; //rows [0, usedRows) were used at least once
+    private final IntList freeRows = new IntList();
+    private int size;
+
+    private int[] table;
+    private final Map<String, IntList> countryRows = new HashMap<>();
+    //code -> row and "NORMALIZED NAME FROM A WORD" + separator + code -> row
+    private final NavigableMap<String, Integer> sortedCodes = new TreeMap<>();
+    private final NavigableMap<String, Integer> sortedNames = new TreeMap<>();
+
+    SwiftCodeIndexData() {
+        this(16);
+    }
+
+    SwiftCodeIndexData(int expectedRows) {
+        int capacity = Math.max(16, expectedRows);
+        keyHigh = new long[capacity];
+        keyLow = new long[capacity];
+        id = new long[capacity];
+        bankName = new String[capacity];
+        address = new String[capacity];
+        countryISO2 = new String[capacity];
+        countryName = new String[capacity];
+        headquarter = new boolean[capacity];
+        headquartersRow = new int[capacity];
+        branchRows = new IntList[capacity];
+        //load factor at most 0.5, linear probing stays short
+        table = new int[Integer.highestOneBit(capacity * 4 - 1)];
+    }
+
+    //11 chars 1-127, everything else can't be in the index
+    static boolean isPackable(String swiftCode) {
+        if (swiftCode == null || swiftCode.length() != SWIFT_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < SWIFT_CODE_LENGTH; i++) {
+            char c = swiftCode.charAt(i);
+            if (c == 0 || c > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //uppercase, without accents, words separated by one space ("Bank Pekao, S.A." -> "BANK PEKAO S A")
+    static String normalizeBankName(String bankName) {
+        if (bankName == null) {
+            return "";
+        }
+        //Ł has no decomposition in Unicode, it would be dropped with the marks
+        String withoutAccents = Normalizer.normalize(bankName.replace('ł', 'l').replace('Ł', 'L'), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return withoutAccents.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", " ").trim();
+    }
+
+    static long packHigh(String swiftCode) {
+        return pack(swiftCode, 0, HIGH_CHARS);
+    }
+
+    static long packLow(String swiftCode) {
+        return pack(swiftCode, HIGH_CHARS, SWIFT_CODE_LENGTH);
+    }
+
+    static String unpack(long high, long low) {
+        char[] chars = new char[SWIFT_CODE_LENGTH];
+        for (int i = HIGH_CHARS - 1; i >= 0; i--) {
+            chars[i] = (char) (high & 0x7F);
+            high >>>= 8;
+        }
+        for (int i = SWIFT_CODE_LENGTH - 1; i >= HIGH_CHARS; i--) {
+            chars[i] = (char) (low & 0x7F);
+            low >>>= 8;
+        }
+        return new String(chars);
+    }
+
+    int size() {
+        return size;
+    }
+
+    //row of the code or NO_ROW
+    int find(String swiftCode) {
+        if (!isPackable(swiftCode)) {
+            return NO_ROW;
+        }
+        return find(packHigh(swiftCode), packLow(swiftCode));
+    }
+
+    /**
+     Adds all rows, links are resolved after all rows are added, so a branch can come before its headquarter.
+     Rows which can't be packed are not added, returns false if there were any.
+     */
+    boolean putAll(List<Row> rows) {
+        boolean allAdded = true;
+        List<Row> linkedRows = new ArrayList<>();
+        for (Row row : rows) {
+            if (!isPackable(row.swiftCode())) {
+                allAdded = false;
+                continue;
+            }
+            remove(row.swiftCode());
+            insert(row);
+            if (row.headquartersSwiftCode() != null) {
+                linkedRows.add(row);
+            }
+        }
+        for (Row row : linkedRows) {
+            int headquarters = find(row.headquartersSwiftCode());
+            if (headquarters != NO_ROW) {
+                link(find(row.swiftCode()), headquarters);
+            }
+        }
+        return allAdded;
+    }
+
+    //adds or replaces the row and its links (a headquarter adopts branches of its bank without headquarter),
+    //returns false if the code can't be packed
+    boolean put(Row row) {
+        if (!isPackable(row.swiftCode())) {
+            return false;
+        }
+        remove(row.swiftCode());
+        int newRow = insert(row);
+
+        if (row.headquartersSwiftCode() != null) {
+            int headquarters = find(row.headquartersSwiftCode());
+            if (headquarters != NO_ROW) {
+                link(newRow, headquarters);
+            }
+        }
+        if (row.branchSwiftCodes() != null) {
+            for (String branchSwiftCode : row.branchSwiftCodes()) {
+                int branch = find(branchSwiftCode);
+                if (branch != NO_ROW) {
+                    unlink(branch);
+                    link(branch, newRow);
+                }
+            }
+        }
+        if (row.headquarter()) {
+            //same as SwiftCodeRepository.linkBranchesToHeadquarter, branches of the bank without headquarter
+            String bankCode = row.swiftCode().substring(0, HIGH_CHARS);
+            for (int branch : sortedCodes.subMap(bankCode, true, bankCode + Character.MAX_VALUE, false).values()) {
+                if (!headquarter[branch] && headquartersRow[branch] == NO_ROW) {
+                    link(branch, newRow);
+                }
+            }
+        }
+        return true;
+    }
+
+    //removes the code, its branches lose their headquarter (they are not removed), returns false if it wasn't there
+    boolean remove(String swiftCode) {
+        int row = find(swiftCode);
+        if (row == NO_ROW) {
+            return false;
+        }
+
+        removeFromTable(row);
+        sortedCodes.remove(swiftCode);
+        nameKeys(bankName[row], swiftCode).forEach(sortedNames::remove);
+        countryRows.get(countryISO2[row]).removeValue(row);
+        unlink(row);
+        IntList branches = branchRows[row];
+        if (branches != null) {
+            for (int i = 0; i < branches.size(); i++) {
+                headquartersRow[branches.get(i)] = NO_ROW;
+            }
+            branchRows[row] = null;
+        }
+
+        bankName[row] = null;
+        address[row] = null;
+        countryISO2[row] = null;
+        countryName[row] = null;
+        freeRows.add(row);
+        size--;
+        return true;
+    }
+
+    /**
+     Rows of codes starting with codePrefix (by code), then rows whose bank name or any word of it starts with
+     namePrefix (by name), every row once, at most limit rows. Prefixes are expected normalized, empty -> not searched.
+     */
+    int[] search(String codePrefix, String namePrefix, int limit) {
+        Set<Integer> rows = new LinkedHashSet<>();
+        addPrefixRange(sortedCodes, codePrefix, rows, limit);
+        addPrefixRange(sortedNames, namePrefix, rows, limit);
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    String swiftCode(int row) {
+        return unpack(keyHigh[row], keyLow[row]);
+    }
+
+    String bankName(int row) {
+        return bankName[row];
+    }
+
+    String address(int row) {
+        return address[row];
+    }
+
+    String countryISO2(int row) {
+        return countryISO2[row];
+    }
+
+    String countryName(int row) {
+        return countryName[row];
+    }
+
+    boolean isHeadquarter(int row) {
+        return headquarter[row];
+    }
+
+    int headquartersRow(int row) {
+        return headquartersRow[row];
+    }
+
+    //branches of the headquarter in id order (empty for branches)
+    int[] branchRows(int row) {
+        IntList branches = branchRows[row];
+        return branches == null ? new int[0] : branches.toArray();
+    }
+
+    //rows of the country in insertion order (empty if there are none)
+    int[] countryRows(String countryISO2) {
+        IntList rows = countryRows.get(countryISO2);
+        return rows == null ? new int[0] : rows.toArray();
+    }
+
+
+    //HELPER methods
+
+
+    private static long pack(String swiftCode, int from, int to) {
+        long packed = 0;
+        for (int i = from; i < to; i++) {
+            packed = (packed << 8) | swiftCode.charAt(i);
+        }
+        return packed;
+    }
+
+    //one key per word of the name, so "SANTANDER" finds "BANCO SANTANDER" too
+    private static List<String> nameKeys(String bankName, String swiftCode) {
+        String name = normalizeBankName(bankName);
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start < name.length()) {
+            keys.add(name.substring(start) + NAME_KEY_SEPARATOR + swiftCode);
+            int space = name.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    private static void addPrefixRange(NavigableMap<String, Integer> sorted, String prefix, Set<Integer> rows, int limit) {
+        if (prefix.isEmpty()) {
+            return;
+        }
+        for (int row : sorted.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (rows.size() >= limit) {
+                return;
+            }
+            rows.add(row);
+        }
+    }
+
+    //fmix64 of MurmurHash3, consecutive codes (same bank) land in different slots
+    private static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private int find(long high, long low) {
+        int mask = table.length - 1;
+        for (int slot = hash(high, low) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return NO_ROW;
+            }
+            int row = entry - 1;
+            if (keyHigh[row] == high && keyLow[row] == low) {
+                return row;
+            }
+        }
+    }
+
+    private int insert(Row row) {
+        int newRow = allocateRow();
+        keyHigh[newRow] = packHigh(row.swiftCode());
+        keyLow[newRow] = packLow(row.swiftCode());
+        id[newRow] = row.id();
+        bankName[newRow] = row.bankName();
+        address[newRow] = row.address();
+        countryISO2[newRow] = row.countryISO2();
+        countryName[newRow] = row.countryName();
+        headquarter[newRow] = row.headquarter();
+        headquartersRow[newRow] = NO_ROW;
+        branchRows[newRow] = null;
+
+        if ((size + 1) * 2 > table.length) {
+            resizeTable(table.length * 2);
+        }
+        addToTable(newRow);
+        countryRows.computeIfAbsent(row.countryISO2(), key -> new IntList()).add(newRow);
+        sortedCodes.put(row.swiftCode(), newRow);
+        nameKeys(row.bankName(), row.swiftCode()).forEach(key -> sortedNames.put(key, newRow));
+        size++;
+        return newRow;
+    }
+
+    private int allocateRow() {
+        if (freeRows.size() > 0) {
+            return freeRows.removeLast();
+        }
+        if (usedRows == keyHigh.length) {
+            int capacity = keyHigh.length * 2;
+            keyHigh = Arrays.copyOf(keyHigh, capacity);
+            keyLow = Arrays.copyOf(keyLow, capacity);
+            id = Arrays.copyOf(id, capacity);
+            bankName = Arrays.copyOf(bankName, capacity);
+            address = Arrays.copyOf(address, capacity);
+            countryISO2 = Arrays.copyOf(countryISO2, capacity);
+            countryName = Arrays.copyOf(countryName, capacity);
+            headquarter = Arrays.copyOf(headquarter, capacity);
+            headquartersRow = Arrays.copyOf(headquartersRow, capacity);
+            branchRows = Arrays.copyOf(branchRows, capacity);
+        }
+        return usedRows++;
+    }
+
+    private void link(int branch, int headquarters) {
+        headquartersRow[branch] = headquarters;
+        if (branchRows[headquarters] == null) {
+            branchRows[headquarters] = new IntList();
+        }
+        branchRows[headquarters].addOrdered(branch, id);
+    }
+
+    private void unlink(int branch) {
+        int headquarters = headquartersRow[branch];
+        if (headquarters != NO_ROW) {
+            branchRows[headquarters].removeValue(branch);
+            headquartersRow[branch] = NO_ROW;
+        }
+    }
+
+    private void addToTable(int row) {
+        int mask = table.length - 1;
+        int slot = hash(keyHigh[row], keyLow[row]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    //backward shift deletion: every following entry which can't be found anymore is moved into the gap
+    private void removeFromTable(int row) {
+        int mask = table.length - 1;
+        int gap = hash(keyHigh[row], keyLow[row]) & mask;
+        while (table[gap] != row + 1) {
+            gap = (gap + 1) & mask;
+        }
+        table[gap] = 0;
+
+        for (int slot = (gap + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            int home = hash(keyHigh[entry - 1], keyLow[entry - 1]) & mask;
+            //entry stays if its home slot is cyclically in (gap, slot]
+            boolean stays = gap <= slot ? gap < home && home <= slot : gap < home || home <= slot;
+            if (!stays) {
+                table[gap] = entry;
+                table[slot] = 0;
+                gap = slot;
+            }
+        }
+    }
+
+    private void resizeTable(int capacity) {
+        int[] oldTable = table;
+        table = new int[capacity];
+        for (int entry : oldTable) {
+            if (entry != 0) {
+                addToTable(entry - 1);
+            }
+        }
+    }
+
+    //growable int array, values keep their order
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        //after the last value with a key not greater than the key of value, so a list which was added in key order
+        //stays in key order (appending in key order doesn't move anything)
+        void addOrdered(int value, long[] keys) {
+            add(value);
+            int i = size - 1;
+            while (i > 0 && keys[values[i - 1]] > keys[value]) {
+                values[i] = values[i - 1];
+                i--;
+            }
+            values[i] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package com.remitly.main.RemitlyInternship.Service;
 
 import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.ImportCheckpoint;
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Repository.ImportCheckpointRepository;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
 import java.util.*;
 
 @Slf4j
@@ -19,149 +24,162 @@ import java.util.*;
 @RequiredArgsConstructor
 public class SwiftCodeParseService {
 
-    private static final String COUNTRY_ISO2_HEADER = "COUNTRY ISO2 CODE";
-    private static final String SWIFT_CODE_HEADER = "SWIFT CODE";
-    private static final String BANK_NAME_HEADER = "NAME";
-    private static final String ADDRESS_HEADER = "ADDRESS";
-    private static final String COUNTRY_NAME_HEADER = "COUNTRY NAME";
+    //how many ids we send in one "IN (...)" query (delta import)
+    private static final int ID_BATCH_SIZE = 1000;
 
     private final SwiftCodeRepository swiftCodeRepository;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final ImportPipeline importPipeline;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final SwiftCodeCache swiftCodeCache;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeFilter swiftCodeFilter;
 
-    @Transactional
     protected void parseExcelFile(InputStream inputStream) throws IOException {
-        if (inputStream == null) {
-            throw new ExcelParseException("Input stream cannot be null");
-        }
+        parseExcelFile(inputStream, new ImportJob(UUID.randomUUID().toString(), "Excel file"));
+    }
 
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            if (workbook.getNumberOfSheets() == 0) {
-                throw new ExcelParseException("Excel file does not contain any sheets");
-            }
+    //job is used to report progress (rows read/accepted/rejected) of the import
+    protected void parseExcelFile(InputStream inputStream, ImportJob job) throws IOException {
+        parseExcelFile(inputStream, job, null);
+    }
 
-            Sheet sheet = workbook.getSheetAt(0); //downloading first sheet
+    /**
+     Append import, only codes which are not in the database yet are inserted.
+     * Every write batch (swift.import.pipeline.batch-size rows) is committed in its own transaction and the
+       persistence context is cleared after it, so a failure near the end doesn't lose the work done before.
+     * With a fingerprint (SHA-256 of the file) the last committed file row is saved in import_checkpoints in the
+       same transaction as the batch. Import of the same file after an interruption continues after that row.
+     * Import commits its own transactions, the link stage reads with its own connection and the persistence context
+       is cleared after every batch, so it can't run inside the caller's transaction (IllegalStateException).
+     * Index and filter are stale for the whole import and rebuilt once at the end, not after every batch.
+     */
+    protected void parseExcelFile(InputStream inputStream, ImportJob job, String fingerprint) throws IOException {
+        parseExcelFile(inputStream, SourceFormat.XLSX, job, fingerprint);
+    }
 
-            if (sheet.getPhysicalNumberOfRows() == 0) {
-                throw new ExcelParseException("Excel file is empty");
-            }
+    //same import for every source format, only the reading of the rows is different
+    protected void parseExcelFile(InputStream inputStream, SourceFormat format, ImportJob job, String fingerprint)
+            throws IOException {
+        if (inputStream == null) {
+            throw new ExcelParseException("Input stream cannot be null");
+        }
+        requireNoTransaction();
 
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                throw new ExcelParseException("Missing headers row");
+        //before the first batch, new codes must not be missing in the filter after its commit
+        swiftCodeIndex.beginBulkWrite();
+        swiftCodeFilter.beginBulkWrite();
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            Optional<ImportCheckpoint> checkpoint = fingerprint != null
+                    ? importCheckpointRepository.findById(fingerprint)
+                    : Optional.empty();
+            int resumeAfterRow = checkpoint.map(ImportCheckpoint::getLastCommittedRow).orElse(0);
+            long[] saved = {checkpoint.map(ImportCheckpoint::getRowsCommitted).orElse(0L)};
+            if (resumeAfterRow > 0) {
+                log.info("Resuming interrupted import of {} after row {} ({} codes already saved)",
+                        job.getSource(), resumeAfterRow, saved[0]);
             }
 
-            //verification of all necessary columns
-            Map<String, Integer> columnIndexMap = mapColumnIndices(headerRow);
-            verifyRequiredColumns(columnIndexMap);
-
-            //cache for heaquarters, it's important to save headquarters first
-            Map<String, SwiftCode> headquartersMap = new HashMap<>();
-            List<SwiftCode> swiftCodesToSave = new ArrayList<>();
-
-            //Add a set to track unique swift codes to prevent duplicates in the same Excel file
-            Set<String> uniqueSwiftCodes = new HashSet<>();
-
-            //iterating through rows cuz every row is a new record which has to be added to the database
-            for (int i = 1; i < sheet.getPhysicalNumberOfRows(); i++) {
-                Row row = sheet.getRow(i);
-
-                if (row == null) {
-                    log.warn("Empty row at index: {}, skipping", i);
-                    continue;
+            //read -> validate -> link -> write, every written batch is one transaction
+            AppendLinker linker = new AppendLinker();
+            importPipeline.run(inputStream, format, job, resumeAfterRow, linker::link, (batch, lastRowNum) ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        swiftCodeRepository.saveAll(batch);
+                        if (fingerprint != null) {
+                            saveCheckpoint(fingerprint, job.getSource(), lastRowNum, saved[0] + batch.size());
+                        }
+                        swiftCodeRepository.flush();
+                        //saved entities are not needed anymore, so memory doesn't grow with the size of the file
+                        entityManager.clear();
+                        saved[0] += batch.size();
+                        //new branches change cached headquarters, whole cache is cheaper than finding them
+                        swiftCodeCache.invalidateAll();
+                    }));
+
+            //branches whose headquarter is in another batch (or was already in the database)
+            Integer linked = transactionTemplate.execute(status -> {
+                int linkedBranches = swiftCodeRepository.linkOrphanBranches();
+                swiftCodeCache.invalidateAll();
+                if (fingerprint != null) {
+                    importCheckpointRepository.deleteById(fingerprint);
                 }
+                return linkedBranches;
+            });
 
-                //skipping header row
-                if(row.getRowNum() == 0){
-                    continue;
-                }
+            log.info("Successfully parsed and saved {} total SWIFT codes, {} branches linked afterwards", saved[0], linked);
 
-                try {
-                    String countryISO2 = getCellValueSafely(row, columnIndexMap.get(COUNTRY_ISO2_HEADER));
-                    if (countryISO2 != null) {
-                        countryISO2 = countryISO2.toUpperCase();
-                    } else {
-                        log.warn("Missing country ISO2 at row: {}, skipping", i);
-                        continue;
-                    }
-
-                    String swiftCode = getCellValueSafely(row, columnIndexMap.get(SWIFT_CODE_HEADER));
-                    if (swiftCode == null) {
-                        log.warn("Missing SWIFT code at row: {}, skipping", i);
-                        continue;
-                    }
-
-                    //Skip if this swift code was already processed in this file
-                    if (!uniqueSwiftCodes.add(swiftCode)) {
-                        log.warn("Duplicate SWIFT code found in file: {}, skipping", swiftCode);
-                        continue;
-                    }
-
-                    //this should also ensure that no same swiftcodes are saved to the database (more important)
-                    Optional<SwiftCode> existingSwiftCode = swiftCodeRepository.findBySwiftCode(swiftCode);
-                    if (existingSwiftCode.isPresent()) {
-                        log.warn("This swift code already exists in DB: {}", swiftCode);
-                        continue;
-                    }
-
-                    boolean isHeadquarter = swiftCode.endsWith("XXX");
-
-                    String bankName = getCellValueSafely(row, columnIndexMap.get(BANK_NAME_HEADER));
-                    if (bankName != null) {
-                        bankName = bankName.toUpperCase();
-                    } else {
-                        log.warn("Missing bank name at row: {}, skipping", i);
-                        continue;
-                    }
-
-                    String address = getCellValueSafely(row, columnIndexMap.get(ADDRESS_HEADER), "");
-
-                    String countryName = getCellValueSafely(row, columnIndexMap.get(COUNTRY_NAME_HEADER));
-                    if (countryName != null) {
-                        countryName = countryName.toUpperCase();
-                    } else {
-                        log.warn("Missing country name at row: {}, skipping", i);
-                        continue;
-                    }
+        } catch (ExcelParseException e) {
+            log.error("Excel parsing error: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error parsing Excel file", e);
+            throw new ExcelParseException("Error parsing Excel file: " + e.getMessage(), e);
+        } finally {
+            //one rebuild after the last commit, also after a failure (batches before it are committed)
+            swiftCodeFilter.endBulkWrite();
+            swiftCodeIndex.endBulkWrite();
+        }
 
-                    SwiftCode swift = SwiftCode.builder()
-                            .swiftCode(swiftCode)
-                            .bankName(bankName)
-                            .address(address)
-                            .countryISO2(countryISO2)
-                            .countryName(countryName)
-                            .isHeadquarter(isHeadquarter)
-                            .headquarters(null)
-                            .branches(new ArrayList<>())
-                            .build();
-
-                    if (isValid(swift)) {
-                        swiftCodesToSave.add(swift);
-                    } else {
-                        log.warn("Skipping invalid SWIFT code: {}", swift.getSwiftCode());
-                    }
+    }
 
-                    if (isHeadquarter) {
-                        headquartersMap.put(swiftCode, swift);
-                    }
-                } catch (Exception e) {
-                    log.warn("Error processing row {}: {}", i, e.getMessage());
-                }
-            }
+    /**
+     Delta import: the file is treated as the whole directory and only the differences are written.
+     * Every row has a hash of its business fields (SwiftCode.rowHash), so from the database we only read
+       (id, swift code, hash) and never load unchanged rows.
+     * Rows are streamed through the pipeline and every write batch is compared with these hashes and committed
+       in its own transaction: new codes are inserted, codes with a different hash are updated.
+       Only the hashes and the write batch are in memory, not the whole file.
+     * Codes which were not seen in the file are deleted at the end, in batches.
+     * Branches of deleted headquarters are not deleted, they lose their headquarter (like in the file).
+     * Like the append import it can't run inside the caller's transaction, index and filter are rebuilt once at the end.
+     */
+    protected DeltaResult parseExcelFileDelta(InputStream inputStream, ImportJob job) throws IOException {
+        return parseExcelFileDelta(inputStream, SourceFormat.XLSX, job);
+    }
 
-            for (SwiftCode branch : swiftCodesToSave) {
-                if (!branch.isHeadquarter()) {
-                    String headquarterCode = branch.getSwiftCode().substring(0, 8) + "XXX";
-                    SwiftCode headquarter = headquartersMap.get(headquarterCode);
+    protected DeltaResult parseExcelFileDelta(InputStream inputStream, SourceFormat format, ImportJob job)
+            throws IOException {
+        if (inputStream == null) {
+            throw new ExcelParseException("Input stream cannot be null");
+        }
+        requireNoTransaction();
 
-                    if (headquarter != null) {
-                        branch.setHeadquarters(headquarter);
-                        headquarter.getBranches().add(branch);
-                    }
-                }
+        swiftCodeIndex.beginBulkWrite();
+        swiftCodeFilter.beginBulkWrite();
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            DeltaWriter writer = new DeltaWriter(swiftCodeRepository.findAllRowHashes());
+            importPipeline.run(inputStream, format, job, 0, batch -> batch, (batch, lastRowNum) ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        writer.write(batch);
+                        //new branches change cached headquarters, whole cache is cheaper than finding them
+                        swiftCodeCache.invalidateAll();
+                    }));
+
+            //everything which is still unseen is not in the file anymore
+            List<Long> toDelete = new ArrayList<>(writer.unseen.values());
+            for (List<Long> batch : batches(toDelete)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    swiftCodeRepository.unlinkBranchesOf(batch);
+                    swiftCodeRepository.deleteAllByIdIn(batch);
+                    swiftCodeCache.invalidateAll();
+                });
             }
 
-            swiftCodeRepository.saveAll(swiftCodesToSave);
+            //existing branches which were waiting for one of the new headquarters,
+            //and new branches which came before their headquarter
+            Integer linked = transactionTemplate.execute(status -> {
+                int linkedBranches = swiftCodeRepository.linkOrphanBranches();
+                swiftCodeCache.invalidateAll();
+                return linkedBranches;
+            });
 
-            log.info("Successfully parsed and saved {} total SWIFT codes", swiftCodesToSave.size());
+            DeltaResult result = new DeltaResult(writer.inserted, writer.updated, toDelete.size(), writer.unchanged);
+            log.info("Delta import finished: {} inserted, {} updated, {} deleted, {} unchanged, {} branches linked",
+                    result.inserted(), result.updated(), result.deleted(), result.unchanged(), linked);
+            return result;
 
         } catch (ExcelParseException e) {
             log.error("Excel parsing error: {}", e.getMessage());
@@ -169,106 +187,168 @@ public class SwiftCodeParseService {
         } catch (Exception e) {
             log.error("Error parsing Excel file", e);
             throw new ExcelParseException("Error parsing Excel file: " + e.getMessage(), e);
+        } finally {
+            swiftCodeFilter.endBulkWrite();
+            swiftCodeIndex.endBulkWrite();
         }
-
     }
 
+    public record DeltaResult(long inserted, long updated, long deleted, long unchanged) {
+    }
 
-    //HELPER methods
+    /**
+     Write stage of the delta import, it runs on the pipeline's writer thread inside the batch transaction.
+     * Codes are compared with the hashes read from the database before the import, seen ones are removed from unseen.
+     * New branch gets its headquarter if the headquarter is in the database or was inserted earlier in the file,
+       the rest is linked by one UPDATE at the end (linkOrphanBranches).
+     */
+    private class DeltaWriter {
+        private final Map<String, SwiftCodeRepository.RowHashView> existing = new HashMap<>();
+        //swift code -> id of the rows which were not in the file (yet)
+        private final Map<String, Long> unseen = new HashMap<>();
+        //headquarters inserted by this import, entities are cleared after every batch so only ids are kept
+        private final Map<String, Long> insertedHeadquarterIds = new HashMap<>();
+        private long inserted;
+        private long updated;
+        private long unchanged;
+
+        private DeltaWriter(List<SwiftCodeRepository.RowHashView> rowHashes) {
+            for (SwiftCodeRepository.RowHashView row : rowHashes) {
+                existing.put(row.getSwiftCode(), row);
+                unseen.put(row.getSwiftCode(), row.getId());
+            }
+        }
 
+        private void write(List<SwiftCode> batch) {
+            Map<Long, SwiftCode> toUpdate = new HashMap<>();
+            List<SwiftCode> toInsert = new ArrayList<>();
+            Map<String, SwiftCode> batchHeadquarters = new HashMap<>();
+            for (SwiftCode swiftCode : batch) {
+                SwiftCodeRepository.RowHashView row = existing.get(swiftCode.getSwiftCode());
+                if (row == null) {
+                    toInsert.add(swiftCode);
+                    if (swiftCode.isHeadquarter()) {
+                        batchHeadquarters.put(swiftCode.getSwiftCode(), swiftCode);
+                    }
+                    continue;
+                }
+                unseen.remove(swiftCode.getSwiftCode());
+                if (row.getRowHash() == null || row.getRowHash() != swiftCode.computeRowHash()) {
+                    toUpdate.put(row.getId(), swiftCode);
+                } else {
+                    unchanged++;
+                }
+            }
 
-    //creating a map which align columns (headers) with indexes in the Excel File
-    //this prevents a situation when the order of the columns in the Excel File change
-    private Map<String, Integer> mapColumnIndices(Row headerRow) {
-        Map<String, Integer> columnIndexMap = new HashMap<>();
+            //dirty checking sends the UPDATEs in JDBC batches
+            for (SwiftCode swiftCode : swiftCodeRepository.findAllById(toUpdate.keySet())) {
+                SwiftCode fileSwiftCode = toUpdate.get(swiftCode.getId());
+                swiftCode.setBankName(fileSwiftCode.getBankName());
+                swiftCode.setAddress(fileSwiftCode.getAddress());
+                swiftCode.setCountryISO2(fileSwiftCode.getCountryISO2());
+                swiftCode.setCountryName(fileSwiftCode.getCountryName());
+                //set explicitly, a row with only a missing hash isn't dirty and @PreUpdate wouldn't run
+                swiftCode.setRowHash(fileSwiftCode.computeRowHash());
+            }
 
-        for (int i = 0; i < headerRow.getPhysicalNumberOfCells(); i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell != null) {
-                String headerValue = cell.getStringCellValue();
-                if (headerValue != null && !headerValue.trim().isEmpty()) {
-                    columnIndexMap.put(headerValue.trim(), i);
+            for (SwiftCode branch : toInsert) {
+                if (!branch.isHeadquarter()) {
+                    linkToHeadquarter(branch, batchHeadquarters);
                 }
             }
+            toInsert.sort(Comparator.comparing(swiftCode -> !swiftCode.isHeadquarter()));
+            swiftCodeRepository.saveAll(toInsert);
+            swiftCodeRepository.flush();
+            batchHeadquarters.values().forEach(headquarter ->
+                    insertedHeadquarterIds.put(headquarter.getSwiftCode(), headquarter.getId()));
+            //written entities are not needed anymore, so memory doesn't grow with the size of the file
+            entityManager.clear();
+
+            inserted += toInsert.size();
+            updated += toUpdate.size();
         }
 
-        return columnIndexMap;
+        //headquarter is from this batch, inserted earlier or already in the database (then only a reference, no SELECT)
+        private void linkToHeadquarter(SwiftCode branch, Map<String, SwiftCode> batchHeadquarters) {
+            String headquarterCode = branch.getSwiftCode().substring(0, 8) + "XXX";
+            SwiftCodeRepository.RowHashView existingHeadquarter = existing.get(headquarterCode);
+            Long headquarterId = existingHeadquarter != null
+                    ? existingHeadquarter.getId()
+                    : insertedHeadquarterIds.get(headquarterCode);
+
+            if (batchHeadquarters.containsKey(headquarterCode)) {
+                branch.setHeadquarters(batchHeadquarters.get(headquarterCode));
+            } else if (headquarterId != null) {
+                branch.setHeadquarters(swiftCodeRepository.getReferenceById(headquarterId));
+            }
+        }
     }
 
-    //checking if all necessary columns exits in the Excel file
-    private void verifyRequiredColumns(Map<String, Integer> columnIndexMap) {
-        List<String> requiredColumns = Arrays.asList(
-                COUNTRY_ISO2_HEADER,
-                SWIFT_CODE_HEADER,
-                BANK_NAME_HEADER,
-                COUNTRY_NAME_HEADER
-        );
-
-        for (String requiredColumn : requiredColumns) {
-            if (!columnIndexMap.containsKey(requiredColumn)) {
-                throw new ExcelParseException("Required column not found: " + requiredColumn);
+    /**
+     Link stage of the append import, it runs on the pipeline's link thread.
+     * Codes which are already in the database are removed, one IN query per batch.
+     * Branch gets its headquarter if the headquarter is in the same batch, the rest is linked by one UPDATE at the end
+       (linkOrphanBranches). Nothing is kept between batches, so memory doesn't grow with the size of the file.
+     * Headquarters go first in the batch, so a branch is inserted with its headquarters_id already set.
+     */
+    private class AppendLinker {
+
+        private List<SwiftCode> link(List<SwiftCode> batch) {
+            //this should also ensure that no same swiftcodes are saved to the database (more important)
+            Set<String> existingSwiftCodes = new HashSet<>(swiftCodeRepository.findExistingSwiftCodes(
+                    batch.stream().map(SwiftCode::getSwiftCode).toList()));
+            existingSwiftCodes.forEach(swiftCode -> log.warn("This swift code already exists in DB: {}", swiftCode));
+
+            List<SwiftCode> toSave = new ArrayList<>(batch.size());
+            //headquarters of this batch which are going to be inserted
+            Map<String, SwiftCode> batchHeadquarters = new HashMap<>();
+            for (SwiftCode swiftCode : batch) {
+                if (existingSwiftCodes.contains(swiftCode.getSwiftCode())) {
+                    continue;
+                }
+                toSave.add(swiftCode);
+                if (swiftCode.isHeadquarter()) {
+                    batchHeadquarters.put(swiftCode.getSwiftCode(), swiftCode);
+                }
             }
+
+            for (SwiftCode branch : toSave) {
+                if (!branch.isHeadquarter()) {
+                    //only one side of the relation, the headquarter is saved in the same transaction
+                    branch.setHeadquarters(batchHeadquarters.get(branch.getSwiftCode().substring(0, 8) + "XXX"));
+                }
+            }
+
+            toSave.sort(Comparator.comparing(swiftCode -> !swiftCode.isHeadquarter()));
+            return toSave;
         }
     }
 
-    //safely retrieving value from the excel cell
-    private String getCellValueSafely(Row row, Integer columnIndex) {
-        return getCellValueSafely(row, columnIndex, null);
-    }
 
-    private String getCellValueSafely(Row row, Integer columnIndex, String defaultValue) {
-        if (columnIndex == null || row == null) {
-            return defaultValue;
-        }
+    //HELPER methods
 
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null) {
-            return defaultValue;
-        }
 
-        try {
-            switch (cell.getCellType()) {
-                case STRING:
-                    return cell.getStringCellValue();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getLocalDateTimeCellValue().toString();
-                    } else {
-                        return String.valueOf(cell.getNumericCellValue());
-                    }
-                case BOOLEAN:
-                    return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    return cell.getCellFormula();
-                default:
-                    return defaultValue;
-            }
-        } catch (Exception e) {
-            log.warn("Error reading cell value at column {}: {}", columnIndex, e.getMessage());
-            return defaultValue;
+    private void requireNoTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Import commits its own transactions, it can't run inside an existing one");
         }
     }
 
-    //in our case excel file is good and this validation is not needed but in real life not always it's that awesome
-    private boolean isValid(SwiftCode swiftCode){
-        String swiftCodeValue = swiftCode.getSwiftCode();
-        if (swiftCode.getSwiftCode() == null || swiftCodeValue.length() != 11) {
-            log.warn("Invalid SWIFT code length for {}", swiftCode.getSwiftCode());
-            return false;
-        }
-        if (swiftCode.getBankName() == null || swiftCode.getBankName().isEmpty()) {
-            log.warn("Invalid bank name for SWIFT code {}", swiftCode.getSwiftCode());
-            return false;
-        }
-        if (swiftCode.getCountryISO2() == null || swiftCode.getCountryISO2().length() != 2) {
-            log.warn("Invalid country code for SWIFT code {}", swiftCode.getSwiftCode());
-            return false;
-        }
-        if (swiftCode.getCountryName() == null || swiftCode.getCountryName().isEmpty()) {
-            log.warn("Invalid country name for SWIFT code {}", swiftCode.getSwiftCode());
-            return false;
-        }
-        return true;
+    private void saveCheckpoint(String fingerprint, String source, int lastRowNum, long rowsCommitted) {
+        importCheckpointRepository.save(ImportCheckpoint.builder()
+                .fingerprint(fingerprint)
+                .source(source)
+                .lastCommittedRow(lastRowNum)
+                .rowsCommitted(rowsCommitted)
+                .updatedAt(Instant.now())
+                .build());
+    }
 
+    private List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += ID_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + ID_BATCH_SIZE, ids.size())));
+        }
+        return batches;
     }
 }
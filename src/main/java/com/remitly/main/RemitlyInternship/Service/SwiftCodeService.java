@@ -1,6 +1,8 @@
 package com.remitly.main.RemitlyInternship.Service;
 
+import com.remitly.main.RemitlyInternship.Config.PaginationProperties;
 import com.remitly.main.RemitlyInternship.DTO.*;
+import com.remitly.main.RemitlyInternship.Exception.InvalidPageRequestException;
 import com.remitly.main.RemitlyInternship.Exception.InvalidSwiftCodeException;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeExistsException;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
@@ -8,12 +10,24 @@ import com.remitly.main.RemitlyInternship.Model.SwiftCode;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,42 +35,238 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SwiftCodeService {
 
-    private final SwiftCodeRepository swiftCodeRepository;
+    //top N of the prefix search
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 100;
 
-    //Retrieving the data based on the swiftCode
-    @Transactional(readOnly = true)
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final SwiftCodeCache swiftCodeCache;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeFilter swiftCodeFilter;
+    private final PlatformTransactionManager transactionManager;
+    private final PaginationProperties paginationProperties;
+
+    //Retrieving the data based on the swiftCode, codes which are definitely not stored are rejected by SwiftCodeFilter,
+    //finished responses are cached (SwiftCodeCache),
+    //misses are answered by the in-memory index (SwiftCodeIndex) and by the database only while it's being built
+    //no @Transactional here, so a cache hit doesn't even take a connection from the pool
     public SwiftCodeDTO getSwiftCode(String swiftCode) {
         log.info("Retrieving swift code for " + swiftCode);
-        SwiftCode swiftCodeEntity = swiftCodeRepository.findBySwiftCode(swiftCode)
-                .orElseThrow(() -> new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode));
+        if (!swiftCodeFilter.mightContain(swiftCode)) {
+            throw new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode);
+        }
+        return swiftCodeCache.get(swiftCode, code -> swiftCodeIndex.getSwiftCode(code, this::loadSwiftCode));
+    }
+
+    //HEAD /v1/swift-codes/{swift-code}, no DTO is built
+    public boolean swiftCodeExists(String swiftCode) {
+        if (!swiftCodeFilter.mightContain(swiftCode)) {
+            return false;
+        }
+        if (swiftCodeCache.getIfPresent(swiftCode) != null) {
+            return true;
+        }
+        return swiftCodeIndex.exists(swiftCode, swiftCodeRepository::existsBySwiftCode);
+    }
+
+    private SwiftCodeDTO loadSwiftCode(String swiftCode) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            //branches are fetched with the code, mapping them doesn't run another query
+            SwiftCode swiftCodeEntity = swiftCodeRepository.findWithBranchesBySwiftCode(swiftCode)
+                    .orElseThrow(() -> new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode));
+
+            //getting all branches if swiftCodeEntity is a headquarter
+            return mapToDTO(swiftCodeEntity, swiftCodeEntity.isHeadquarter());
+        });
+    }
+
+    /**
+     Many codes in one call (POST /v1/swift-codes/lookup), duplicates are answered once.
+     Codes rejected by the filter are missing right away, cached responses are used next, the rest comes from the index or, while it's being built, from one IN query.
+     Results are not put into the cache, batches of mostly different codes would only push out the hot ones.
+     */
+    public SwiftCodeLookupResponseDTO lookupSwiftCodes(List<String> swiftCodes) {
+        log.info("Looking up {} swift codes", swiftCodes.size());
+        Set<String> requested = new LinkedHashSet<>(swiftCodes);
+
+        Map<String, SwiftCodeDTO> found = new HashMap<>();
+        List<String> notCached = new ArrayList<>();
+        for (String swiftCode : requested) {
+            if (!swiftCodeFilter.mightContain(swiftCode)) {
+                continue;
+            }
+            SwiftCodeDTO cached = swiftCodeCache.getIfPresent(swiftCode);
+            if (cached != null) {
+                found.put(swiftCode, cached);
+            } else {
+                notCached.add(swiftCode);
+            }
+        }
+        if (!notCached.isEmpty()) {
+            found.putAll(swiftCodeIndex.getSwiftCodes(notCached, this::loadSwiftCodes));
+        }
+
+        List<SwiftCodeDTO> swiftCodeDTOs = new ArrayList<>();
+        List<String> missingSwiftCodes = new ArrayList<>();
+        for (String swiftCode : requested) {
+            SwiftCodeDTO swiftCodeDTO = found.get(swiftCode);
+            if (swiftCodeDTO != null) {
+                swiftCodeDTOs.add(swiftCodeDTO);
+            } else {
+                missingSwiftCodes.add(swiftCode);
+            }
+        }
+        return SwiftCodeLookupResponseDTO.builder()
+                .swiftCodes(swiftCodeDTOs)
+                .missingSwiftCodes(missingSwiftCodes)
+                .build();
+    }
 
-        //getting all branches if swiftCodeEntity is a headquarter
-        return mapToDTO(swiftCodeEntity, swiftCodeEntity.isHeadquarter());
+    private Map<String, SwiftCodeDTO> loadSwiftCodes(Collection<String> swiftCodes) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            Map<String, SwiftCodeDTO> found = new HashMap<>();
+            swiftCodeRepository.findWithBranchesBySwiftCodeIn(swiftCodes).forEach(swiftCode ->
+                    found.put(swiftCode.getSwiftCode(), mapToDTO(swiftCode, swiftCode.isHeadquarter())));
+            return found;
+        });
     }
 
-    //Retrieving the data based on the countryISO2
-    @Transactional(readOnly = true)
+    //type-ahead over SWIFT codes and bank names ("BPKOPL", "pko bank"), from the in-memory index
+    public SwiftCodeSearchResponseDTO searchSwiftCodes(String query, Integer limit) {
+        log.info("Searching swift codes for " + query);
+        int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (maxResults < 1) {
+            throw new InvalidPageRequestException("limit must be at least 1: " + limit);
+        }
+        int searchLimit = Math.min(maxResults, MAX_SEARCH_LIMIT);
+
+        //codes are compared without spaces, names word by word
+        String namePrefix = SwiftCodeIndexData.normalizeBankName(query);
+        String codePrefix = namePrefix.replace(" ", "");
+        List<SwiftCodeDTO> swiftCodeDTOs = namePrefix.isEmpty()
+                ? List.of()
+                : swiftCodeIndex.search(codePrefix, namePrefix, searchLimit,
+                        () -> loadSearch(codePrefix, namePrefix, searchLimit));
+
+        return SwiftCodeSearchResponseDTO.builder()
+                .query(query)
+                .swiftCodes(swiftCodeDTOs)
+                .build();
+    }
+
+    private List<SwiftCodeDTO> loadSearch(String codePrefix, String namePrefix, int limit) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            Map<String, SwiftCodeDTO> found = new LinkedHashMap<>();
+            swiftCodeRepository.findBySwiftCodeStartingWithOrderBySwiftCode(codePrefix, Limit.of(limit))
+                    .forEach(swiftCode -> found.put(swiftCode.getSwiftCode(), mapToDTO(swiftCode, false)));
+            if (found.size() < limit) {
+                swiftCodeRepository.findByBankNamePrefix(namePrefix, Limit.of(limit))
+                        .forEach(swiftCode -> found.putIfAbsent(swiftCode.getSwiftCode(), mapToDTO(swiftCode, false)));
+            }
+            return found.values().stream().limit(limit).toList();
+        });
+    }
+
+    //Retrieving the data based on the countryISO2, from the in-memory index (database only while it's being built)
     public CountrySwiftCodesResponseDTO getCountrySwiftCodes(String countryISO2) {
         log.info("Retrieving country swift codes for " + countryISO2);
         String formatedCountryISO2 = countryISO2.toUpperCase();
+        return swiftCodeIndex.getCountrySwiftCodes(formatedCountryISO2, this::loadCountrySwiftCodes);
+    }
 
-        List<SwiftCode> swiftCodes = swiftCodeRepository.findByCountryISO2(formatedCountryISO2);
-        if (swiftCodes.isEmpty()) throw new SwiftCodeNotFoundException("SWIFT codes not found for country: " + formatedCountryISO2);
+    private CountrySwiftCodesResponseDTO loadCountrySwiftCodes(String formatedCountryISO2) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            List<SwiftCode> swiftCodes = swiftCodeRepository.findByCountryISO2(formatedCountryISO2);
+            if (swiftCodes.isEmpty()) throw new SwiftCodeNotFoundException("SWIFT codes not found for country: " + formatedCountryISO2);
+
+            String countryName = swiftCodes.getFirst().getCountryName();
+            //mapping all the swiftCodes from the country to our specific DTO
+            List<SwiftCodeDTO> swiftCodeDTOs = swiftCodes.stream()
+                    .map(swiftCode -> mapToDTO(swiftCode, false))
+                    .toList();
 
-        String countryName = swiftCodes.getFirst().getCountryName();
-        //mapping all the swiftCodes from the country to our specific DTO
-        List<SwiftCodeDTO> swiftCodeDTOs = swiftCodes.stream()
-                .map(swiftCode -> mapToDTO(swiftCode, false))
-                .toList();
+            //returning DTO containing all information
+            return CountrySwiftCodesResponseDTO.builder()
+                    .countryISO2(formatedCountryISO2)
+                    .countryName(countryName)
+                    .swiftCodes(swiftCodeDTOs)
+                    .build();
+        });
+    }
 
-        //returning DTO containing all information
-        return CountrySwiftCodesResponseDTO.builder()
-                .countryISO2(formatedCountryISO2)
-                .countryName(countryName)
-                .swiftCodes(swiftCodeDTOs)
-                .build();
+
+    /**
+     One page of the country's codes ordered by SWIFT code (keyset pagination), always from the database.
+     Cursor is an opaque token of the last code of the previous page, the next page starts right after it,
+     so codes added or deleted meanwhile don't shift pages. Null cursor -> first page, null limit -> default size.
+     */
+    public CountrySwiftCodesResponseDTO getCountrySwiftCodesPage(String countryISO2, Integer limit, String cursor) {
+        log.info("Retrieving country swift codes page for " + countryISO2);
+        String formatedCountryISO2 = countryISO2.toUpperCase();
+        int pageSize = pageSize(limit);
+        String afterSwiftCode = cursor == null ? "" : decodeCursor(formatedCountryISO2, cursor);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            //one row more than needed tells us if there is a next page
+            List<SwiftCode> swiftCodes = swiftCodeRepository.findCountryPage(formatedCountryISO2, afterSwiftCode,
+                    Limit.of(pageSize + 1));
+            if (swiftCodes.isEmpty() && cursor == null) {
+                throw new SwiftCodeNotFoundException("SWIFT codes not found for country: " + formatedCountryISO2);
+            }
+
+            List<SwiftCode> page = swiftCodes.size() > pageSize ? swiftCodes.subList(0, pageSize) : swiftCodes;
+            String nextCursor = swiftCodes.size() > pageSize
+                    ? encodeCursor(formatedCountryISO2, page.getLast().getSwiftCode())
+                    : null;
+
+            return CountrySwiftCodesResponseDTO.builder()
+                    .countryISO2(formatedCountryISO2)
+                    .countryName(page.isEmpty() ? null : page.getFirst().getCountryName())
+                    .swiftCodes(page.stream().map(swiftCode -> mapToDTO(swiftCode, false)).toList())
+                    .nextCursor(nextCursor)
+                    .build();
+        });
     }
 
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return paginationProperties.getDefaultPageSize();
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("limit must be at least 1: " + limit);
+        }
+        return Math.min(limit, paginationProperties.getMaxPageSize());
+    }
+
+    //cursor = base64url("US:LASTCODEXXX"), country is in it so a cursor of another country is rejected
+    private static String encodeCursor(String countryISO2, String lastSwiftCode) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((countryISO2 + ":" + lastSwiftCode).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String countryISO2, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+        String prefix = countryISO2 + ":";
+        if (!decoded.startsWith(prefix) || decoded.length() == prefix.length()) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+        return decoded.substring(prefix.length());
+    }
 
     //creating new SwiftCode - we assume that is a new one so we don't add duplicates or change existing ones
     @Transactional
@@ -84,7 +294,6 @@ public class SwiftCodeService {
                 .countryISO2(countryISO2)
                 .countryName(countryName)
                 .isHeadquarter(isHeadquarter)
-                .branches(new ArrayList<>())
                 .build();
 
         //now if it's a branch we have to find its headquarter
@@ -97,28 +306,27 @@ public class SwiftCodeService {
             Optional<SwiftCode> headquarter = swiftCodeRepository.findBySwiftCode(potentialHeadquarterSwiftCode);
             //log.info("Found headquarter: {}", headquarter.isPresent());
 
-            //if we find a headquarter we are setting our headquarters value and creating a relation between
-            //our headquarter and branch. So branch know its headquarter and vice versa
-            headquarter.ifPresent(h -> {
-                swiftCodeEntity.setHeadquarters(h);
-                h.getBranches().add(swiftCodeEntity);
-                //swiftCodeRepository.save(h);
-            });
-        } else {
-            //If user adds branch first which I guess might be possible
-            List<SwiftCode> orphanBranches = swiftCodeRepository.findByHeadquarters(null).stream()
-                    .filter(branch -> branch.getSwiftCode().startsWith(swiftCode.substring(0, 8)))
-                    .toList();
-
-            orphanBranches.forEach(branch -> {
-                branch.setHeadquarters(swiftCodeEntity);
-                swiftCodeEntity.getBranches().add(branch);
-            });
-
-            swiftCodeRepository.saveAll(orphanBranches);
+            //if we find a headquarter we are setting our headquarters value, the relation is saved from the branch side
+            //(headquarters_id). h.getBranches().add(...) would load all branches of the bank just to check the Set,
+            //nothing reads the headquarter's list before the end of this transaction
+            headquarter.ifPresent(swiftCodeEntity::setHeadquarters);
         }
 
         swiftCodeRepository.save(swiftCodeEntity);
+        if (isHeadquarter) {
+            //If user adds branch first which I guess might be possible
+            //one UPDATE over the bank_code index links them, no matter how many codes are in the table
+            int linkedBranches = swiftCodeRepository.linkBranchesToHeadquarter(
+                    swiftCodeEntity.getId(), swiftCodeEntity.getBankCode());
+            log.info("Linked {} branches to the new headquarter {}", linkedBranches, swiftCode);
+        }
+        swiftCodeFilter.add(swiftCode);
+        swiftCodeIndex.put(swiftCodeEntity);
+        //cached response of the headquarter lists its branches, so it's outdated by a new branch too
+        //(branches adopted by a new headquarter don't change, their responses don't mention the headquarter)
+        swiftCodeCache.invalidate(isHeadquarter
+                ? List.of(swiftCode)
+                : List.of(swiftCode, swiftCode.substring(0, 8) + "XXX"));
         log.info("Successfully created new SWIFT code: {}", swiftCode);
 
         return MessageResponseDTO.builder()
@@ -132,31 +340,25 @@ public class SwiftCodeService {
     public MessageResponseDTO deleteSwiftCode(String swiftCode) {
         log.info("Deleting swift code for " + swiftCode);
 
-        SwiftCode swiftCodeEntity = swiftCodeRepository.findBySwiftCode(swiftCode)
+        SwiftCodeRepository.DeleteTargetView target = swiftCodeRepository.findDeleteTargetBySwiftCode(swiftCode)
                 .orElseThrow(() -> new SwiftCodeNotFoundException("SWIFT code not found: " + swiftCode));
 
-        //if it's a branch then we are removing it from the headquarter list and deleting branch itself
-        if (!swiftCodeEntity.isHeadquarter()) {
-            if (swiftCodeEntity.getHeadquarters() != null) {
-                swiftCodeEntity.getHeadquarters().getBranches().remove(swiftCodeEntity);
-            }
-        }
-
         //IT'S NOT SPECIFIED WHAT SHOULD WE DO IN CASE IF WE ARE DELETING HEADQUARTER!!!!!!!!
-        //I choose to delete all branches with: cascade = CascadeType.ALL in SwiftCode class.
-
-        /*
-        //1) if it's a headquarter we have to delete it and all its branches
-        //2) deleting headquarter and all branches stays
-        if (swiftCodeEntity.isHeadquarter() && !swiftCodeEntity.getBranches().isEmpty()) {
-            swiftCodeEntity.getBranches().forEach(branch ->{
-                branch.setHeadquarter(false);
-                swiftCodeRepository.delete(branch);
-            });
+        //I choose to delete all branches together with the headquarter.
+        //It's one DELETE for the code and all its branches (a branch just has no branches), before it was
+        //cascade = CascadeType.ALL which loaded every branch and deleted them one by one
+
+        //deleted code and its branches
+        List<String> deletedSwiftCodes = swiftCodeRepository.deleteWithBranches(target.getId());
+        //deleted codes and the headquarter (list of branches)
+        List<String> changedSwiftCodes = new ArrayList<>(deletedSwiftCodes);
+        if (target.getHeadquartersSwiftCode() != null) {
+            changedSwiftCodes.add(target.getHeadquartersSwiftCode());
         }
-         */
 
-        swiftCodeRepository.delete(swiftCodeEntity);
+        swiftCodeFilter.remove(deletedSwiftCodes);
+        swiftCodeIndex.remove(swiftCode);
+        swiftCodeCache.invalidate(changedSwiftCodes);
         log.info("Successfully deleted SWIFT code: {}", swiftCode);
 
         return MessageResponseDTO.builder()
@@ -164,6 +366,46 @@ public class SwiftCodeService {
                 .build();
     }
 
+    //retired bank or country at once: one DELETE (with branches of deleted headquarters) in one transaction,
+    //then the filter, the index and the cache are updated with the whole list of deleted codes
+    @Transactional
+    public SwiftCodeBulkDeleteResponseDTO deleteSwiftCodes(SwiftCodeBulkDeleteRequestDTO requestDTO) {
+        List<String> deletedSwiftCodes;
+        List<String> missingSwiftCodes = null;
+        if (requestDTO.getSwiftCodes() != null) {
+            log.info("Deleting {} swift codes", requestDTO.getSwiftCodes().size());
+            Set<String> requested = new LinkedHashSet<>(requestDTO.getSwiftCodes());
+            deletedSwiftCodes = swiftCodeRepository.deleteAllBySwiftCodeInWithBranches(requested);
+            requested.removeAll(new HashSet<>(deletedSwiftCodes));
+            missingSwiftCodes = new ArrayList<>(requested);
+        } else if (requestDTO.getBankCode() != null) {
+            log.info("Deleting swift codes of bank " + requestDTO.getBankCode());
+            deletedSwiftCodes = swiftCodeRepository.deleteAllByBankCodeWithBranches(
+                    requestDTO.getBankCode().toUpperCase());
+        } else {
+            log.info("Deleting swift codes of country " + requestDTO.getCountryISO2());
+            deletedSwiftCodes = swiftCodeRepository.deleteAllByCountryISO2WithBranches(
+                    requestDTO.getCountryISO2().toUpperCase());
+        }
+
+        //deleted codes and headquarters of deleted branches (their list of branches changes), branches are always
+        //linked to bank code + XXX, so it's known without loading anything
+        Set<String> changedSwiftCodes = new LinkedHashSet<>(deletedSwiftCodes);
+        deletedSwiftCodes.stream()
+                .filter(swiftCode -> !swiftCode.endsWith("XXX"))
+                .forEach(swiftCode -> changedSwiftCodes.add(SwiftCode.bankCodeOf(swiftCode) + "XXX"));
+
+        swiftCodeFilter.remove(deletedSwiftCodes);
+        swiftCodeIndex.removeAll(deletedSwiftCodes);
+        swiftCodeCache.invalidate(changedSwiftCodes);
+        log.info("Successfully deleted {} SWIFT codes", deletedSwiftCodes.size());
+
+        return SwiftCodeBulkDeleteResponseDTO.builder()
+                .deleted(deletedSwiftCodes.size())
+                .missingSwiftCodes(missingSwiftCodes)
+                .build();
+    }
+
 
     //mapping SwiftCode model (entity) to a DTO - used by both getSwiftCode and getCountrySwiftCodes
     private SwiftCodeDTO mapToDTO(SwiftCode swiftCode, boolean includeBranches) {
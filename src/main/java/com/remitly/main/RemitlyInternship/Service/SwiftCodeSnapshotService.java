@@ -0,0 +1,143 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Exception.InvalidImportRequestException;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ Export and restore of the whole directory as a binary snapshot (SwiftCodeSnapshot).
+ * Export reads the rows with one query (headquarter is joined by id), nothing goes through JPA. It's read with a
+   cursor (FETCH_SIZE rows at a time, like SwiftCodeStreamingService), the driver never holds the whole table.
+ * Restore memory-maps the file and copies the rows straight to the table (SwiftCodeBulkLoadService.reloadSnapshot),
+   it takes milliseconds instead of parsing the Excel file again.
+ * Uploaded snapshots are restored by ImportJobService (submitRestore), so a restore never runs next to an import.
+ Snapshot remembers the fingerprint of the file it was made from, so we know if it's still up to date.
+ */
+@Slf4j
+@Service
+public class SwiftCodeSnapshotService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_ROWS = """
+            SELECT s.swift_code, s.bank_name, s.address, s.countryiso2, s.country_name, s.is_headquarter,
+                   s.row_hash, h.swift_code AS headquarters_code
+            FROM swift_codes s
+            LEFT JOIN swift_codes h ON h.id = s.headquarters_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SwiftCodeBulkLoadService swiftCodeBulkLoadService;
+    private final ImportJobService importJobService;
+
+    public SwiftCodeSnapshotService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    SwiftCodeBulkLoadService swiftCodeBulkLoadService,
+                                    ImportJobService importJobService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionManager = transactionManager;
+        this.swiftCodeBulkLoadService = swiftCodeBulkLoadService;
+        this.importJobService = importJobService;
+    }
+
+    //returns number of exported SWIFT codes
+    public long exportSnapshot(OutputStream outputStream, String sourceFingerprint) throws IOException {
+        long start = System.currentTimeMillis();
+        SwiftCodeSnapshot.Writer writer = new SwiftCodeSnapshot.Writer();
+        //PostgreSQL uses the fetch size only inside a transaction (autocommit off)
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_ROWS, resultSet -> {
+            long rowHash = resultSet.getLong("row_hash");
+            boolean noRowHash = resultSet.wasNull();
+            writer.add(new SwiftCodeSnapshot.Row(
+                    resultSet.getString("swift_code"),
+                    resultSet.getString("bank_name"),
+                    resultSet.getString("address"),
+                    resultSet.getString("countryiso2"),
+                    resultSet.getString("country_name"),
+                    resultSet.getBoolean("is_headquarter"),
+                    resultSet.getString("headquarters_code"),
+                    noRowHash ? null : rowHash));
+        }));
+        writer.write(outputStream, sourceFingerprint);
+
+        log.info("Exported {} SWIFT codes to snapshot in {} ms", writer.size(), System.currentTimeMillis() - start);
+        return writer.size();
+    }
+
+    //written to a temporary file first, so nobody can read a half written snapshot
+    public long exportSnapshot(Path file, String sourceFingerprint) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "swift-snapshot-", ".tmp");
+        try {
+            long exported;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                exported = exportSnapshot(outputStream, sourceFingerprint);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return exported;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    //empty if the file doesn't exist
+    public Optional<SwiftCodeSnapshot> openSnapshot(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(SwiftCodeSnapshot.open(file));
+    }
+
+    //replaces the whole directory, returns number of restored SWIFT codes
+    public long restoreSnapshot(SwiftCodeSnapshot snapshot) {
+        return swiftCodeBulkLoadService.reloadSnapshot(snapshot);
+    }
+
+    //snapshot uploaded through /v1/snapshots, saved to a temporary file (so it can be memory-mapped) and checked
+    //right away, so a broken file is a 400, the restore itself runs in the background like an import
+    public ImportJob submitRestore(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidImportRequestException("Uploaded file is empty");
+        }
+        String source = file.getOriginalFilename() != null && !file.getOriginalFilename().isBlank()
+                ? file.getOriginalFilename()
+                : "snapshot";
+
+        Path snapshotFile = Files.createTempFile("swift-snapshot-", ".tmp");
+        SwiftCodeSnapshot snapshot;
+        try {
+            file.transferTo(snapshotFile);
+            snapshot = SwiftCodeSnapshot.open(snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(snapshotFile);
+            throw e;
+        }
+
+        return importJobService.submit(source, job -> {
+            try {
+                long restored = restoreSnapshot(snapshot);
+                job.rowsAccepted(restored);
+                job.finish("Restored " + restored + " SWIFT codes from snapshot");
+            } finally {
+                Files.deleteIfExists(snapshotFile);
+            }
+        });
+    }
+}
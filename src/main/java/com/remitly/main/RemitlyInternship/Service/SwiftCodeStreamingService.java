@@ -0,0 +1,129 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ Streaming variant of GET /v1/swift-codes/country/{countryISO2} (?stream=true), memory doesn't grow with the number
+ of codes of the country.
+ * Rows are read with a forward-only cursor (PostgreSQL fetches FETCH_SIZE rows at a time, only inside a
+   transaction) and every row is written straight to the response with a JsonGenerator, no entities and no DTOs.
+ * JSON is the same as the normal response (CountrySwiftCodesResponseDTO), same order of codes (by id).
+ * First row is read before anything is written, so an unknown country is still a 404.
+ The transaction (and its connection) is held until the last row is written, slow clients hold it longer.
+ */
+@Slf4j
+@Service
+public class SwiftCodeStreamingService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_COUNTRY_ROWS = """
+            SELECT swift_code, bank_name, address, countryiso2, country_name, is_headquarter
+            FROM swift_codes
+            WHERE countryiso2 = ?
+            ORDER BY id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public SwiftCodeStreamingService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+    }
+
+    //returns number of written SWIFT codes, outputStream is flushed but not closed
+    public long writeCountrySwiftCodes(String countryISO2, OutputStream outputStream) throws IOException {
+        log.info("Streaming country swift codes for " + countryISO2);
+        String formatedCountryISO2 = countryISO2.toUpperCase();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            Long written = transactionTemplate.execute(status -> {
+                CountryJsonWriter writer = new CountryJsonWriter(formatedCountryISO2, outputStream);
+                jdbcTemplate.query(SELECT_COUNTRY_ROWS, writer::writeRow, formatedCountryISO2);
+                return writer.finish();
+            });
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            //client went away or the connection broke
+            throw e.getCause();
+        }
+    }
+
+    //writes the response row by row, the generator is created with the first row
+    private class CountryJsonWriter {
+        private final String countryISO2;
+        private final OutputStream outputStream;
+        private JsonGenerator generator;
+        private long rows;
+
+        private CountryJsonWriter(String countryISO2, OutputStream outputStream) {
+            this.countryISO2 = countryISO2;
+            this.outputStream = outputStream;
+        }
+
+        private void writeRow(ResultSet resultSet) throws SQLException {
+            try {
+                if (generator == null) {
+                    start(resultSet.getString("country_name"));
+                }
+                generator.writeStartObject();
+                generator.writeStringField("address", resultSet.getString("address"));
+                generator.writeStringField("bankName", resultSet.getString("bank_name"));
+                generator.writeStringField("countryISO2", resultSet.getString("countryiso2"));
+                generator.writeStringField("countryName", resultSet.getString("country_name"));
+                generator.writeBooleanField("isHeadquarter", resultSet.getBoolean("is_headquarter"));
+                generator.writeStringField("swiftCode", resultSet.getString("swift_code"));
+                //codes in the country list never have branches, the normal response has null there too
+                generator.writeNullField("branches");
+                generator.writeEndObject();
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void start(String countryName) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("countryISO2", countryISO2);
+            generator.writeStringField("countryName", countryName);
+            generator.writeArrayFieldStart("swiftCodes");
+        }
+
+        private long finish() {
+            if (generator == null) {
+                throw new SwiftCodeNotFoundException("SWIFT codes not found for country: " + countryISO2);
+            }
+            try {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        }
+    }
+}
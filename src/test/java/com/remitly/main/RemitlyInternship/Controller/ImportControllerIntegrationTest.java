@@ -0,0 +1,128 @@
+package com.remitly.main.RemitlyInternship.Controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.main.RemitlyInternship.Parser.XlsxStreamingReader;
+import com.remitly.main.RemitlyInternship.Repository.ImportedDatasetRepository;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//import runs in the background, so this test is not @Transactional and it polls the job until it's finished
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ImportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private ImportedDatasetRepository importedDatasetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAllInBatch();
+        importedDatasetRepository.deleteAll();
+    }
+
+    @Test
+    void testUploadAndPollImport() throws Exception {
+        JsonNode job = pollUntilFinished(upload());
+
+        assertEquals("DONE", job.get("status").asText());
+        assertEquals(1061, job.get("rowsAccepted").asLong());
+        assertEquals(job.get("rowsRead").asLong(), job.get("rowsAccepted").asLong() + job.get("rowsRejected").asLong());
+        assertTrue(job.get("rowsPerSecond").asDouble() > 0);
+        assertEquals(4, job.get("stages").size());
+        assertEquals(1061, swiftCodeRepository.count());
+
+        //same file again is imported (the database could have changed since), append finds every code already stored
+        JsonNode secondJob = pollUntilFinished(upload());
+        assertEquals("DONE", secondJob.get("status").asText());
+        assertEquals(1061, swiftCodeRepository.count());
+
+        //unless the client asks to skip an unchanged file
+        JsonNode thirdJob = pollUntilFinished(upload(true));
+        assertEquals("SKIPPED", thirdJob.get("status").asText());
+    }
+
+    @Test
+    void testUploadCsvFile() throws Exception {
+        //bundled Excel file converted to CSV, format is found by the file name
+        StringBuilder csv = new StringBuilder();
+        XlsxStreamingReader.read(new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream(),
+                (rowNum, cells) -> csv.append(Arrays.stream(cells)
+                        .map(cell -> cell == null ? "" : "\"" + cell.replace("\"", "\"\"") + "\"")
+                        .collect(Collectors.joining(","))).append("\r\n"));
+        MockMultipartFile file = new MockMultipartFile("file", "swift_codes.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        JsonNode job = pollUntilFinished(upload(file));
+
+        assertEquals("DONE", job.get("status").asText());
+        assertEquals(1061, job.get("rowsAccepted").asLong());
+        assertEquals(1061, swiftCodeRepository.count());
+        assertTrue(swiftCodeRepository.findBySwiftCode("BREXPLPWXXX").isPresent());
+    }
+
+    private String upload() throws Exception {
+        return upload(false);
+    }
+
+    private String upload(boolean skipUnchanged) throws Exception {
+        return upload(new MockMultipartFile("file", "Interns_2025_SWIFT_CODES.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream()), skipUnchanged);
+    }
+
+    private String upload(MockMultipartFile file) throws Exception {
+        return upload(file, false);
+    }
+
+    private String upload(MockMultipartFile file, boolean skipUnchanged) throws Exception {
+        String response = mockMvc.perform(multipart("/v1/imports").file(file)
+                        .param("skipUnchanged", Boolean.toString(skipUnchanged)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+
+    private JsonNode pollUntilFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            String response = mockMvc.perform(get("/v1/imports/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(response);
+            String jobStatus = job.get("status").asText();
+            if (!jobStatus.equals("PENDING") && !jobStatus.equals("RUNNING")) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Import job " + id + " didn't finish");
+    }
+}
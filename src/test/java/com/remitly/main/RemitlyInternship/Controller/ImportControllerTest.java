@@ -0,0 +1,103 @@
+package com.remitly.main.RemitlyInternship.Controller;
+
+import com.remitly.main.RemitlyInternship.DTO.ImportJobDTO;
+import com.remitly.main.RemitlyInternship.Exception.ImportJobNotFoundException;
+import com.remitly.main.RemitlyInternship.Exception.InvalidImportRequestException;
+import com.remitly.main.RemitlyInternship.Service.ExcelParserService;
+import com.remitly.main.RemitlyInternship.Service.ImportJob;
+import com.remitly.main.RemitlyInternship.Service.ImportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+public class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExcelParserService excelParserService;
+
+    @MockitoBean
+    private ImportJobService importJobService;
+
+    private final MockMultipartFile file = new MockMultipartFile(
+            "file", "codes.xlsx", "application/octet-stream", "excel content".getBytes());
+
+    @Test
+    void testCreateImport_Accepted() throws Exception {
+        ImportJob job = new ImportJob("job-1", "codes.xlsx");
+        when(excelParserService.submitUpload(any(), eq("delta"), isNull(), eq(false))).thenReturn(job);
+        when(importJobService.getJobStatus("job-1")).thenReturn(ImportJobDTO.builder()
+                .id("job-1")
+                .source("codes.xlsx")
+                .status("PENDING")
+                .build());
+
+        mockMvc.perform(multipart("/v1/imports").file(file).param("mode", "delta"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/v1/imports/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void testCreateImport_InvalidMode() throws Exception {
+        when(excelParserService.submitUpload(any(), eq("replace"), isNull(), eq(false)))
+                .thenThrow(new InvalidImportRequestException("Unknown import mode: replace (use append, delta or reload)"));
+
+        mockMvc.perform(multipart("/v1/imports").file(file).param("mode", "replace"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown import mode: replace (use append, delta or reload)"));
+    }
+
+    @Test
+    void testCreateImport_InvalidFormat() throws Exception {
+        when(excelParserService.submitUpload(any(), isNull(), eq("xml"), eq(false)))
+                .thenThrow(new InvalidImportRequestException("Unknown file format: xml (use xlsx, csv or ndjson)"));
+
+        mockMvc.perform(multipart("/v1/imports").file(file).param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown file format: xml (use xlsx, csv or ndjson)"));
+    }
+
+    @Test
+    void testGetImport_Success() throws Exception {
+        when(importJobService.getJobStatus("job-1")).thenReturn(ImportJobDTO.builder()
+                .id("job-1")
+                .status("RUNNING")
+                .rowsRead(500)
+                .rowsAccepted(490)
+                .rowsRejected(10)
+                .rowsPerSecond(1000)
+                .build());
+
+        mockMvc.perform(get("/v1/imports/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsRead").value(500))
+                .andExpect(jsonPath("$.rowsRejected").value(10))
+                .andExpect(jsonPath("$.rowsPerSecond").value(1000.0));
+    }
+
+    @Test
+    void testGetImport_NotFound() throws Exception {
+        when(importJobService.getJobStatus("unknown"))
+                .thenThrow(new ImportJobNotFoundException("Import job not found: unknown"));
+
+        mockMvc.perform(get("/v1/imports/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Import job not found: unknown"));
+    }
+}
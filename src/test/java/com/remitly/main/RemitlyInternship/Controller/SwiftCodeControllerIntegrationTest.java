@@ -1,10 +1,13 @@
 package com.remitly.main.RemitlyInternship.Controller;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeLookupRequestDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeCache;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +17,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +44,9 @@ public class SwiftCodeControllerIntegrationTest {
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -48,6 +58,8 @@ public class SwiftCodeControllerIntegrationTest {
     void setUp() {
         // Clear the database
         swiftCodeRepository.deleteAll();
+        //data is written straight to the repository and every test is rolled back, the cache doesn't know about it
+        swiftCodeCache.invalidateAll();
 
         // Create test data directly in the database
         headquarters = SwiftCode.builder()
@@ -57,7 +69,7 @@ public class SwiftCodeControllerIntegrationTest {
                 .countryISO2("US")
                 .countryName("UNITED STATES")
                 .isHeadquarter(true)
-                .branches(new ArrayList<>())
+                .branches(new LinkedHashSet<>())
                 .build();
 
         branch = SwiftCode.builder()
@@ -122,6 +134,154 @@ public class SwiftCodeControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getSwiftCodesByCountry_Paged_WalksAllCodesInCodeOrder() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("ABCDUS33XXX")
+                .bankName("ABCD BANK")
+                .address("1 MAIN ST, BOSTON, MA")
+                .countryISO2("US")
+                .countryName("UNITED STATES")
+                .isHeadquarter(true)
+                .build());
+
+        List<String> swiftCodes = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/v1/swift-codes/country/US").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.countryName").value("UNITED STATES"))
+                    .andReturn().getResponse().getContentAsString());
+            page.get("swiftCodes").forEach(swiftCode -> swiftCodes.add(swiftCode.get("swiftCode").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("ABCDUS33XXX", "REMITLY001", "REMITLYXXX"), swiftCodes);
+        assertEquals(2, pages);
+    }
+
+    @Test
+    void getSwiftCodesByCountry_WithoutLimitAndCursor_HasNoNextCursor() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/US"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getSwiftCodesByCountry_PagedInvalidRequests_Returns400() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/US").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/country/US").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/country/XX").param("limit", "10"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createSwiftCode_NewHeadquarters_AdoptsBranchesWithoutHeadquarters() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("NEWBANKK001")
+                .bankName("NEW TEST BANK")
+                .address("1 BRANCH ST")
+                .countryISO2("US")
+                .countryName("UNITED STATES")
+                .isHeadquarter(false)
+                .build());
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/swift-codes/NEWBANKKXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches[*].swiftCode", contains("NEWBANKK001")));
+        //other banks stay as they were
+        mockMvc.perform(get("/v1/swift-codes/REMITLYXXX"))
+                .andExpect(jsonPath("$.branches", hasSize(1)));
+    }
+
+    @Test
+    void swiftCodeExists_Head_Returns200Or404WithoutBody() throws Exception {
+        mockMvc.perform(head("/v1/swift-codes/REMITLYXXX"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        mockMvc.perform(head("/v1/swift-codes/NOPENOPEXXX"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void searchSwiftCodes_ByCodePrefixAndBankName() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "remitly0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("REMITLY001")));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank usa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains("REMITLY001", "REMITLYXXX")));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "REMITLY").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(1)));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "nothing like this"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(0)));
+    }
+
+    @Test
+    void lookupSwiftCodes_ReturnsFoundAndMissingCodes() throws Exception {
+        SwiftCodeLookupRequestDTO lookupRequest = SwiftCodeLookupRequestDTO.builder()
+                .swiftCodes(List.of("REMITLY001", "NOPENOPEXXX", "REMITLYXXX"))
+                .build();
+
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lookupRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes", hasSize(2)))
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("REMITLY001"))
+                .andExpect(jsonPath("$.swiftCodes[1].swiftCode").value("REMITLYXXX"))
+                .andExpect(jsonPath("$.swiftCodes[1].branches", hasSize(1)))
+                .andExpect(jsonPath("$.missingSwiftCodes", contains("NOPENOPEXXX")));
+    }
+
+    @Test
+    void lookupSwiftCodes_EmptyList_Returns400() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.swiftCodes").exists());
+    }
+
+    @Test
+    void getSwiftCodesByCountry_Stream_SameResponseAsWithoutStreaming() throws Exception {
+        //streaming reads with plain JDBC, saved entities have to be in the database already
+        swiftCodeRepository.flush();
+
+        String response = mockMvc.perform(get("/v1/swift-codes/country/us"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String streamedResponse = mockMvc.perform(get("/v1/swift-codes/country/us").param("stream", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(response), objectMapper.readTree(streamedResponse));
+    }
+
+    @Test
+    void getSwiftCodesByCountry_StreamNonExistingCountry_Returns404() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/country/XX").param("stream", "true"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("XX")));
+    }
+
     @Test
     void createSwiftCode_ValidNewCode_Success() throws Exception {
         mockMvc.perform(post("/v1/swift-codes")
@@ -167,6 +327,57 @@ public class SwiftCodeControllerIntegrationTest {
 
     }
 
+    @Test
+    void createSwiftCodes_BulkNdjson_SavesValidRecordsAndReportsTheOthers() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("EXISTSPLXXX")
+                .bankName("EXISTING BANK")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+        //branch comes before its headquarter, one record is invalid, one exists and one is repeated
+        String body = String.join("\n",
+                bulkRecord("BULKPLPWKRK", false),
+                bulkRecord("BULKPLPWXXX", true),
+                "{\"swiftCode\":\"bad\",\"bankName\":\"BULK BANK\",\"isHeadquarter\":false}",
+                bulkRecord("EXISTSPLXXX", true),
+                bulkRecord("BULKPLPWKRK", false),
+                bulkRecord("BULKPLPWGDA", false)) + "\n";
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.complete").value(true))
+                .andExpect(jsonPath("$.errors[*].record", contains(3, 4, 5)))
+                .andExpect(jsonPath("$.errors[0].message", containsString("countryISO2: countryISO2 is required")))
+                .andExpect(jsonPath("$.errors[1].message").value("Swift code already exists: EXISTSPLXXX"));
+
+        mockMvc.perform(get("/v1/swift-codes/BULKPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches[*].swiftCode", containsInAnyOrder("BULKPLPWKRK", "BULKPLPWGDA")));
+    }
+
+    @Test
+    void createSwiftCodes_BulkJsonArrayWithBrokenRecord_KeepsRecordsBeforeIt() throws Exception {
+        String body = "[" + bulkRecord("BULKPLPWXXX", true) + ", {\"swiftCode\": }]";
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.complete").value(false))
+                .andExpect(jsonPath("$.errors[0].record").value(2))
+                .andExpect(jsonPath("$.errors[0].message", startsWith("Invalid JSON")));
+
+        assertTrue(swiftCodeRepository.existsBySwiftCode("BULKPLPWXXX"));
+    }
+
     @Test
     void deleteSwiftCode_ExistingCode_ReturnsSuccessMessage() throws Exception {
         mockMvc.perform(delete("/v1/swift-codes/REMITLYXXX"))
@@ -178,6 +389,67 @@ public class SwiftCodeControllerIntegrationTest {
         assertFalse(swiftCodeRepository.findBySwiftCode("REMITLYXXX").isPresent());
     }
 
+    @Test
+    void deleteSwiftCodes_ByList_DeletesBranchesOfHeadquartersAndReportsMissingCodes() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": [\"REMITLYXXX\", \"NOPENOPEXXX\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.missingSwiftCodes", contains("NOPENOPEXXX")));
+
+        assertEquals(0, swiftCodeRepository.count());
+    }
+
+    @Test
+    void deleteSwiftCodes_ByBankAndCountry_DeleteOnlyMatchingCodes() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkRecord("BULKPLPWXXX", true)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkRecord("BULKPLPWKRK", false)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bankCode\": \"bulkplpw\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.missingSwiftCodes").doesNotExist());
+        mockMvc.perform(get("/v1/swift-codes/BULKPLPWKRK"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"countryISO2\": \"us\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+        mockMvc.perform(get("/v1/swift-codes/country/US"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteSwiftCodes_NoneOrManyCriteria_Returns400() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.singleCriterion").exists());
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bankCode\": \"REMITLYX\", \"countryISO2\": \"US\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bankCode\": \"SHORT\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.bankCode").exists());
+
+        assertEquals(2, swiftCodeRepository.count());
+    }
+
     @Test
     void deleteSwiftCode_NonExistingCode_Returns404() throws Exception {
         mockMvc.perform(delete("/v1/swift-codes/NONEXIST"))
@@ -189,4 +461,14 @@ public class SwiftCodeControllerIntegrationTest {
 
 
 
+    private String bulkRecord(String swiftCode, boolean isHeadquarter) throws Exception {
+        return objectMapper.writeValueAsString(SwiftCodeRequestDTO.builder()
+                .swiftCode(swiftCode)
+                .bankName("BULK BANK")
+                .address("BULK STREET 1")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(isHeadquarter)
+                .build());
+    }
 }
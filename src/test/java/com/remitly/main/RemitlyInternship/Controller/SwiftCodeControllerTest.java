@@ -4,11 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.remitly.main.RemitlyInternship.DTO.CountrySwiftCodesResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.MessageResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBranchDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkCreateResponseDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeExistsException;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeBulkCreateService;
 import com.remitly.main.RemitlyInternship.Service.SwiftCodeService;
+import com.remitly.main.RemitlyInternship.Service.SwiftCodeStreamingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +20,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +43,12 @@ public class SwiftCodeControllerTest {
     @MockitoBean
     private SwiftCodeService swiftCodeService;
 
+    @MockitoBean
+    private SwiftCodeStreamingService swiftCodeStreamingService;
+
+    @MockitoBean
+    private SwiftCodeBulkCreateService swiftCodeBulkCreateService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -150,6 +164,45 @@ public class SwiftCodeControllerTest {
 
     }
 
+    @Test
+    void getSwiftCodeByCountry_Stream_WritesStreamingResponse() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"countryISO2\":\"US\",\"countryName\":\"United States\",\"swiftCodes\":[]}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(swiftCodeStreamingService).writeCountrySwiftCodes(eq("US"), any(OutputStream.class));
+
+        mockMvc.perform(get("/v1/swift-codes/country/US").param("stream", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.countryISO2").value("US"));
+    }
+
+    @Test
+    void getSwiftCodeByCountry_StreamInvalidCountry_Returns404() throws Exception {
+        when(swiftCodeStreamingService.writeCountrySwiftCodes(eq("XX"), any(OutputStream.class)))
+                .thenThrow(new SwiftCodeNotFoundException("SWIFT codes not found for country: XX"));
+
+        mockMvc.perform(get("/v1/swift-codes/country/XX").param("stream", "true"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createSwiftCodes_Bulk_ReturnsSummary() throws Exception {
+        when(swiftCodeBulkCreateService.createSwiftCodes(any(InputStream.class))).thenReturn(
+                SwiftCodeBulkCreateResponseDTO.builder().received(2).created(1).rejected(1).complete(true)
+                        .errors(List.of(new SwiftCodeBulkCreateResponseDTO.RecordError(2, "TESTBANK001", "exists")))
+                        .build());
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"swiftCode\":\"TESTBANKXXX\"}\n{\"swiftCode\":\"TESTBANK001\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].record").value(2));
+    }
+
     @Test
     void createSwiftCode_ValidRequest_Returns201() throws Exception {
         when(swiftCodeService.createSwiftCode(any(SwiftCodeRequestDTO.class))).thenReturn(messageResponse);
@@ -0,0 +1,91 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvStreamingReaderTest {
+
+    @Test
+    void testReadQuotedAndEmptyValues() throws Exception {
+        //file starts with UTF-8 BOM (Excel adds it)
+        String csv = "\uFEFFSWIFT CODE,NAME,ADDRESS\r\n"
+                + "BOFALU33XXX,\"BANK OF AMERICA, N.A.\",\r\n"
+                + "\r\n"
+                + "BREXPLPWXXX,\"MBANK \"\"S.A.\"\"\",\"LINE 1\nLINE 2\"\n"
+                + "ŁÓDŹ1234XXX,,\"\"";
+
+        List<String> rows = read(csv);
+
+        assertEquals(List.of(
+                "0:[SWIFT CODE, NAME, ADDRESS]",
+                "1:[BOFALU33XXX, BANK OF AMERICA, N.A., null]",
+                "3:[BREXPLPWXXX, MBANK \"S.A.\", LINE 1\nLINE 2]",
+                "4:[ŁÓDŹ1234XXX, null, null]"), rows);
+    }
+
+    @Test
+    void testShorterRowDoesNotKeepValuesOfPreviousRow() throws Exception {
+        List<String> rows = read("A,B,C\n1,2,3\n4\n");
+
+        assertEquals(List.of("0:[A, B, C]", "1:[1, 2, 3]", "2:[4, null, null]"), rows);
+    }
+
+    @Test
+    void testRecordsAcrossBufferBoundaries() throws Exception {
+        //values are bigger than the buffer, so records are split and the buffer has to grow
+        String longValue = "X".repeat(100_000);
+        StringBuilder csv = new StringBuilder("SWIFT CODE,NAME\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("CODE").append(i).append(",\"NAME ").append(i).append("\"\n");
+        }
+        csv.append("LAST,\"").append(longValue).append("\"\n");
+
+        List<String[]> rows = new ArrayList<>();
+        //stream which returns only a few bytes at once, like a slow network upload
+        CsvStreamingReader.read(slowStream(csv.toString()), (rowNum, cells) -> rows.add(Arrays.copyOf(cells, 2)));
+
+        assertEquals(5_002, rows.size());
+        assertArrayEquals(new String[]{"CODE4321", "NAME 4321"}, rows.get(4_322));
+        assertEquals(longValue, rows.getLast()[1]);
+    }
+
+    @Test
+    void testUnterminatedQuote() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () -> read("A,B\n1,\"2\n3,4\n"));
+
+        assertEquals("Unterminated quoted value in CSV file at row 1", exception.getMessage());
+    }
+
+    @Test
+    void testTextAfterQuotedValue() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () -> read("A,B\n1,\"2\"x\n"));
+
+        assertEquals("Unexpected character after quoted value in CSV file at row 1", exception.getMessage());
+    }
+
+    private List<String> read(String csv) throws IOException {
+        List<String> rows = new ArrayList<>();
+        CsvStreamingReader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                (rowNum, cells) -> rows.add(rowNum + ":" + Arrays.toString(Arrays.copyOf(cells, 3))));
+        return rows;
+    }
+
+    private InputStream slowStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 777));
+            }
+        };
+    }
+}
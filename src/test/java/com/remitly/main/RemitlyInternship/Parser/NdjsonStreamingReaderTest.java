@@ -0,0 +1,76 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonStreamingReaderTest {
+
+    @Test
+    void testKeysOfFirstObjectAreHeaderRow() throws Exception {
+        String ndjson = """
+                {"SWIFT CODE": "BOFALU33XXX", "NAME": "BANK OF AMERICA", "ADDRESS": null}
+
+                {"NAME":"MBANK \\"S.A.\\"","SWIFT CODE":"BREXPLPWXXX","UNKNOWN":"x"}
+                  {"SWIFT CODE":"\\u0141ODZ1234XXX","ADDRESS":"LINE 1\\nLINE 2","NAME":123}
+                {}
+                """;
+
+        List<String> rows = read(ndjson);
+
+        assertEquals(List.of(
+                "0:[SWIFT CODE, NAME, ADDRESS]",
+                "1:[BOFALU33XXX, BANK OF AMERICA, null]",
+                "3:[BREXPLPWXXX, MBANK \"S.A.\", null]",
+                "4:[ŁODZ1234XXX, 123, LINE 1\nLINE 2]",
+                "5:[null, null, null]"), rows);
+    }
+
+    @Test
+    void testManyRowsAcrossBufferBoundaries() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            ndjson.append("{\"SWIFT CODE\":\"CODE").append(i).append("\",\"NAME\":\"ŻABKA ").append(i).append("\"}\r\n");
+        }
+
+        List<String[]> rows = new ArrayList<>();
+        NdjsonStreamingReader.read(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                (rowNum, cells) -> rows.add(Arrays.copyOf(cells, 2)));
+
+        assertEquals(10_001, rows.size());
+        assertArrayEquals(new String[]{"SWIFT CODE", "NAME"}, rows.getFirst());
+        assertArrayEquals(new String[]{"CODE9999", "ŻABKA 9999"}, rows.getLast());
+    }
+
+    @Test
+    void testInvalidJson() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                read("{\"A\":\"1\"}\n{\"A\":\"2\"\n"));
+
+        assertEquals("Invalid JSON in NDJSON file at row 2: unexpected end of line", exception.getMessage());
+    }
+
+    @Test
+    void testNestedValuesAreNotSupported() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                read("{\"A\":{\"B\":\"1\"}}\n"));
+
+        assertEquals("Invalid JSON in NDJSON file at row 1: nested objects and arrays are not supported",
+                exception.getMessage());
+    }
+
+    private List<String> read(String ndjson) throws IOException {
+        List<String> rows = new ArrayList<>();
+        NdjsonStreamingReader.read(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                (rowNum, cells) -> rows.add(rowNum + ":" + Arrays.toString(Arrays.copyOf(cells, 3))));
+        return rows;
+    }
+}
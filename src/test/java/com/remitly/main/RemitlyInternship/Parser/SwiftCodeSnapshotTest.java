@@ -0,0 +1,114 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.SnapshotFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeSnapshotTest {
+
+    private final List<SwiftCodeSnapshot.Row> rows = List.of(
+            new SwiftCodeSnapshot.Row("BREXPLPWXXX", "MBANK S.A.", "UL. PROSTA 18, WARSZAWA", "PL", "POLAND",
+                    true, null, 123L),
+            new SwiftCodeSnapshot.Row("BREXPLPWWAL", "MBANK S.A.", "", "PL", "POLAND", false, "BREXPLPWXXX", -5L),
+            //branch without headquarter, nulls and a row saved before row_hash existed
+            new SwiftCodeSnapshot.Row("ALBPPLPWCUS", "ALIOR ŻÓŁW", null, "PL", null, false, null, null),
+            new SwiftCodeSnapshot.Row("AAAABBCC", null, "ADDRESS", null, null, false, null, 0L));
+
+    @Test
+    void testRoundTrip(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("swift.snapshot");
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            writer(rows).write(outputStream, "fingerprint");
+        }
+
+        SwiftCodeSnapshot snapshot = SwiftCodeSnapshot.open(file);
+
+        assertEquals(4, snapshot.size());
+        assertEquals("fingerprint", snapshot.getSourceFingerprint());
+        assertNotNull(snapshot.getCreatedAt());
+        List<SwiftCodeSnapshot.Row> restored = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            restored.add(snapshot.row(i));
+        }
+        //rows are sorted by swift code
+        assertEquals(List.of(rows.get(3), rows.get(2), rows.get(1), rows.get(0)), restored);
+        assertEquals(3, snapshot.headquartersRow(2));
+        assertEquals(-1, snapshot.headquartersRow(3));
+    }
+
+    @Test
+    void testStringsAndCountriesAreStoredOnce() throws Exception {
+        List<SwiftCodeSnapshot.Row> manyRows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            manyRows.add(new SwiftCodeSnapshot.Row(String.format("BANK%04dXXX", i), "THE SAME BANK NAME",
+                    "THE SAME ADDRESS", "PL", "POLAND", true, null, (long) i));
+        }
+
+        byte[] content = write(writer(manyRows), null);
+
+        //header + 5 strings + 1 country + 34 bytes per row + checksum
+        assertTrue(content.length < 48 + 100 + 8 + 1_000 * 34 + 8, "Size was " + content.length);
+        SwiftCodeSnapshot snapshot = SwiftCodeSnapshot.of(content);
+        assertEquals("BANK0999XXX", snapshot.swiftCode(999));
+        assertEquals("THE SAME BANK NAME", snapshot.bankName(999));
+        assertNull(snapshot.getSourceFingerprint());
+    }
+
+    @Test
+    void testDamagedSnapshot() throws Exception {
+        byte[] content = write(writer(rows), "fingerprint");
+        content[content.length - 20] ^= 1;
+
+        SnapshotFormatException exception = assertThrows(SnapshotFormatException.class, () -> SwiftCodeSnapshot.of(content));
+        assertEquals("Snapshot file is damaged (checksum mismatch)", exception.getMessage());
+    }
+
+    @Test
+    void testUnsupportedVersion() throws Exception {
+        byte[] content = write(writer(rows), "fingerprint");
+        ByteBuffer.wrap(content).putInt(8, 2);
+
+        SnapshotFormatException exception = assertThrows(SnapshotFormatException.class, () -> SwiftCodeSnapshot.of(content));
+        assertEquals("Unsupported snapshot version: 2 (supported: 1)", exception.getMessage());
+    }
+
+    @Test
+    void testNotASnapshot() {
+        assertThrows(SnapshotFormatException.class, () -> SwiftCodeSnapshot.of(new byte[10]));
+        SnapshotFormatException exception = assertThrows(SnapshotFormatException.class,
+                () -> SwiftCodeSnapshot.of("PK this is a zip file, not a snapshot ".repeat(5).getBytes()));
+        assertEquals("Not a SWIFT codes snapshot file", exception.getMessage());
+    }
+
+    @Test
+    void testSwiftCodeWhichDoesNotFit() {
+        SwiftCodeSnapshot.Writer writer = writer(List.of(
+                new SwiftCodeSnapshot.Row("TOOLONGCODE12", "BANK", "", "PL", "POLAND", false, null, 1L)));
+
+        SnapshotFormatException exception = assertThrows(SnapshotFormatException.class, () -> write(writer, null));
+        assertEquals("SWIFT code can't be stored in the snapshot: TOOLONGCODE12", exception.getMessage());
+    }
+
+    private SwiftCodeSnapshot.Writer writer(List<SwiftCodeSnapshot.Row> rows) {
+        SwiftCodeSnapshot.Writer writer = new SwiftCodeSnapshot.Writer();
+        rows.forEach(writer::add);
+        return writer;
+    }
+
+    private byte[] write(SwiftCodeSnapshot.Writer writer, String sourceFingerprint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out, sourceFingerprint);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,77 @@
+package com.remitly.main.RemitlyInternship.Parser;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XlsxStreamingReaderTest {
+
+    @Test
+    void testReadRowsWithSparseCells() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("SwiftCodes");
+        Row headerRow = sheet.createRow(0);
+        headerRow.createCell(0).setCellValue("SWIFT CODE");
+        headerRow.createCell(1).setCellValue("ADDRESS");
+        headerRow.createCell(2).setCellValue("NAME");
+
+        Row row = sheet.createRow(1);
+        row.createCell(0).setCellValue("BOFALU33XXX");
+        //no address cell, SAX parser doesn't report it at all
+        row.createCell(2).setCellValue("BANK OF AMERICA");
+
+        //empty row in the middle, it should be skipped
+        Row row3 = sheet.createRow(3);
+        row3.createCell(0).setCellValue(123);
+
+        List<String> rows = new ArrayList<>();
+        XlsxStreamingReader.read(toInputStream(workbook),
+                (rowNum, cells) -> rows.add(rowNum + ":" + Arrays.toString(Arrays.copyOf(cells, 3))));
+
+        assertEquals(List.of(
+                "0:[SWIFT CODE, ADDRESS, NAME]",
+                "1:[BOFALU33XXX, null, BANK OF AMERICA]",
+                "3:[123, null, null]"), rows);
+    }
+
+    @Test
+    void testReadWorkbookWithoutSheets() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                XlsxStreamingReader.read(toInputStream(workbook), (rowNum, cells) -> { }));
+
+        assertTrue(exception.getMessage().contains("Excel file does not contain any sheets"));
+    }
+
+    @Test
+    void testExceptionFromRowHandlerIsNotWrapped() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        workbook.createSheet("Sheet1").createRow(0).createCell(0).setCellValue("SWIFT CODE");
+
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                XlsxStreamingReader.read(toInputStream(workbook), (rowNum, cells) -> {
+                    throw new ExcelParseException("Missing headers row");
+                }));
+
+        assertEquals("Missing headers row", exception.getMessage());
+    }
+
+    private ByteArrayInputStream toInputStream(XSSFWorkbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
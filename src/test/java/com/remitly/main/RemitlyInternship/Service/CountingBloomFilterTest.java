@@ -0,0 +1,53 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountingBloomFilterTest {
+
+    @Test
+    void testAddedCodesAreAlwaysFound() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+        List<String> swiftCodes = swiftCodes("BANK", 10_000);
+        swiftCodes.forEach(filter::add);
+
+        swiftCodes.forEach(swiftCode -> assertTrue(filter.mightContain(swiftCode), swiftCode));
+    }
+
+    @Test
+    void testFalsePositiveRateIsCloseToTheConfiguredOne() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+        swiftCodes("BANK", 10_000).forEach(filter::add);
+
+        long falsePositives = swiftCodes("NOPE", 100_000).stream().filter(filter::mightContain).count();
+
+        //1% expected, some room for an unlucky hash
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void testRemovedCodesAreNotFoundAndOthersStay() {
+        CountingBloomFilter filter = CountingBloomFilter.create(1_000, 0.01);
+        List<String> swiftCodes = swiftCodes("BANK", 1_000);
+        swiftCodes.forEach(filter::add);
+
+        List<String> removed = swiftCodes.subList(0, 500);
+        removed.forEach(filter::remove);
+
+        swiftCodes.subList(500, 1_000).forEach(swiftCode -> assertTrue(filter.mightContain(swiftCode), swiftCode));
+        long stillFound = removed.stream().filter(filter::mightContain).count();
+        assertTrue(stillFound < 50, "Removed codes still found: " + stillFound);
+    }
+
+    private static List<String> swiftCodes(String bank, int count) {
+        List<String> swiftCodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            swiftCodes.add(String.format("%sPL%02d%03d", bank, i / 1000, i % 1000));
+        }
+        return swiftCodes;
+    }
+}
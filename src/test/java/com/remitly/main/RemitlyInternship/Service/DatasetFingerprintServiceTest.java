@@ -0,0 +1,56 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Model.ImportedDataset;
+import com.remitly.main.RemitlyInternship.Repository.ImportedDatasetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DatasetFingerprintServiceTest {
+
+    @Mock
+    private ImportedDatasetRepository importedDatasetRepository;
+
+    @InjectMocks
+    private DatasetFingerprintService datasetFingerprintService;
+
+    @Test
+    void testFingerprint() throws Exception {
+        String fingerprint = datasetFingerprintService.fingerprint(new ByteArrayInputStream("abc".getBytes()));
+
+        //well known SHA-256 of "abc"
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", fingerprint);
+        assertNotEquals(fingerprint, datasetFingerprintService.fingerprint(new ByteArrayInputStream("abd".getBytes())));
+    }
+
+    @Test
+    void testIsAlreadyImported() {
+        when(importedDatasetRepository.findFirstBySourceOrderByImportedAtDesc("file.xlsx"))
+                .thenReturn(Optional.of(ImportedDataset.builder()
+                        .source("file.xlsx")
+                        .mode("APPEND")
+                        .fingerprint("abc")
+                        .rowCount(10)
+                        .importedAt(Instant.now())
+                        .build()));
+        when(importedDatasetRepository.findFirstBySourceOrderByImportedAtDesc("other.xlsx"))
+                .thenReturn(Optional.empty());
+
+        assertTrue(datasetFingerprintService.isAlreadyImported("file.xlsx", ImportProperties.Mode.APPEND, "abc"));
+        assertFalse(datasetFingerprintService.isAlreadyImported("file.xlsx", ImportProperties.Mode.APPEND, "changed"));
+        //same file with another mode changes other rows (delta deletes codes which are not in the file)
+        assertFalse(datasetFingerprintService.isAlreadyImported("file.xlsx", ImportProperties.Mode.DELTA, "abc"));
+        assertFalse(datasetFingerprintService.isAlreadyImported("other.xlsx", ImportProperties.Mode.APPEND, "abc"));
+    }
+}
@@ -1,7 +1,10 @@
 package com.remitly.main.RemitlyInternship.Service;
 
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
 import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.ImportCheckpoint;
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Repository.ImportCheckpointRepository;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
 import jakarta.transaction.Transactional;
 import org.apache.poi.ss.usermodel.Row;
@@ -12,12 +15,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,60 +39,75 @@ public class ExcelParseIntegrationTest {
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
     @BeforeEach
     void setUp() {
         //Clear the database before each test
         swiftCodeRepository.deleteAll();
+        importCheckpointRepository.deleteAll();
     }
 
     @Test
-    @Transactional
     void testParseExcelFile() throws Exception{
         InputStream inputStream = new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream();
 
         //parsing input file
         swiftCodeParseService.parseExcelFile(inputStream);
 
-        List<SwiftCode> allSwiftCodes = swiftCodeRepository.findAll();
+        //import commits its own transactions, lazy branches are read in a new one
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<SwiftCode> allSwiftCodes = swiftCodeRepository.findAll();
 
-        //1. verifying if all data was loaded
-        assertFalse(allSwiftCodes.isEmpty(), "Excel file should be parsed and data saved");
+            //1. verifying if all data was loaded
+            assertFalse(allSwiftCodes.isEmpty(), "Excel file should be parsed and data saved");
 
-        //2. Test headquarters identification
-        List<SwiftCode> headquarters = allSwiftCodes.stream()
-                .filter(SwiftCode::isHeadquarter)
-                .toList();
+            //2. Test headquarters identification
+            List<SwiftCode> headquarters = allSwiftCodes.stream()
+                    .filter(SwiftCode::isHeadquarter)
+                    .toList();
 
-        assertFalse(headquarters.isEmpty(), "Should have headquarters records");
-        assertTrue(headquarters.stream().allMatch(hq -> hq.getSwiftCode().endsWith("XXX")),
-                "All headquarters should have codes ending with XXX");
+            assertFalse(headquarters.isEmpty(), "Should have headquarters records");
+            assertTrue(headquarters.stream().allMatch(hq -> hq.getSwiftCode().endsWith("XXX")),
+                    "All headquarters should have codes ending with XXX");
 
-        //3. Test headquarter-branch relation
-        for (SwiftCode hq : headquarters) {
-            String hqPrefix = hq.getSwiftCode().substring(0, 8);
+            //3. Test headquarter-branch relation
+            for (SwiftCode hq : headquarters) {
+                String hqPrefix = hq.getSwiftCode().substring(0, 8);
 
-            for (SwiftCode branch : hq.getBranches()) {
+                for (SwiftCode branch : hq.getBranches()) {
 
 
-                assertEquals(hq, branch.getHeadquarters(), "Branch should reference correct headquarters");
-                assertTrue(branch.getSwiftCode().startsWith(hqPrefix), "Prefix (8 chars) should be the same");
-                assertFalse(branch.isHeadquarter(), "Branch should not be marked as headquarters");
+                    assertEquals(hq, branch.getHeadquarters(), "Branch should reference correct headquarters");
+                    assertTrue(branch.getSwiftCode().startsWith(hqPrefix), "Prefix (8 chars) should be the same");
+                    assertFalse(branch.isHeadquarter(), "Branch should not be marked as headquarters");
+                }
             }
-        }
 
-        //4. verifying data format like UPPERCASE letters and length of some properties
-        assertTrue(allSwiftCodes.stream().allMatch(code -> code.getSwiftCode().length() == 11));
+            //4. verifying data format like UPPERCASE letters and length of some properties
+            assertTrue(allSwiftCodes.stream().allMatch(code -> code.getSwiftCode().length() == 11));
 
-        assertTrue(allSwiftCodes.stream().allMatch(code ->
-                        code.getCountryISO2() != null &&
-                                code.getCountryISO2().equals(code.getCountryISO2().toUpperCase()) &&
-                                code.getCountryISO2().length() == 2),
-                "Country ISO2 codes should be 2 characters and uppercase");
+            assertTrue(allSwiftCodes.stream().allMatch(code ->
+                            code.getCountryISO2() != null &&
+                                    code.getCountryISO2().equals(code.getCountryISO2().toUpperCase()) &&
+                                    code.getCountryISO2().length() == 2),
+                    "Country ISO2 codes should be 2 characters and uppercase");
 
-        assertTrue(allSwiftCodes.stream().allMatch(code ->
-                code.getCountryName().equals(code.getCountryName().toUpperCase()) &&
-                        code.getBankName().equals(code.getBankName().toUpperCase())
-                ));
+            assertTrue(allSwiftCodes.stream().allMatch(code ->
+                    code.getCountryName().equals(code.getCountryName().toUpperCase()) &&
+                            code.getBankName().equals(code.getBankName().toUpperCase())
+                    ));
+        });
 
         /*
         //TRUST ME THIS PROGRAM WILL PASS THIS TEST, we dont need to check parsing twice because it's really demanding
@@ -192,4 +214,279 @@ public class ExcelParseIntegrationTest {
 
 
 
+    //codes which are already in the database should be skipped, the rest of the file is still saved
+    @Test
+    void testExcelWithCodesAlreadyInDatabase() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("BOFALU33XXX")
+                .bankName("BANK OF AMERICA")
+                .address("NEW YORK")
+                .countryISO2("US")
+                .countryName("UNITED STATES")
+                .isHeadquarter(true)
+                .build());
+
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("SwiftCodes");
+
+        Row headerRow = sheet.createRow(0);
+        headerRow.createCell(0).setCellValue("COUNTRY ISO2 CODE");
+        headerRow.createCell(1).setCellValue("SWIFT CODE");
+        headerRow.createCell(2).setCellValue("NAME");
+        headerRow.createCell(3).setCellValue("ADDRESS");
+        headerRow.createCell(4).setCellValue("COUNTRY NAME");
+
+        Row row1 = sheet.createRow(1);
+        row1.createCell(0).setCellValue("US");
+        row1.createCell(1).setCellValue("BOFALU33XXX");
+        row1.createCell(2).setCellValue("BANK OF AMERICA CHANGED");
+        row1.createCell(3).setCellValue("NEW YORK");
+        row1.createCell(4).setCellValue("UNITED STATES");
+
+        Row row2 = sheet.createRow(2);
+        row2.createCell(0).setCellValue("US");
+        row2.createCell(1).setCellValue("BOFALU33NYC");
+        row2.createCell(2).setCellValue("BANK OF AMERICA");
+        row2.createCell(3).setCellValue("NEW YORK");
+        row2.createCell(4).setCellValue("UNITED STATES");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        swiftCodeParseService.parseExcelFile(new ByteArrayInputStream(out.toByteArray()));
+
+        List<SwiftCode> allSwiftCodes = swiftCodeRepository.findAll();
+        assertEquals(2, allSwiftCodes.size(), "Only the new SWIFT code should be saved");
+        assertEquals("BANK OF AMERICA", swiftCodeRepository.findBySwiftCode("BOFALU33XXX").orElseThrow().getBankName(),
+                "Existing SWIFT code shouldn't be changed");
+        assertTrue(swiftCodeRepository.existsBySwiftCode("BOFALU33NYC"));
+    }
+
+
+    //headquarter in an earlier write batch, branch before its headquarter and headquarter already in the database
+    @Test
+    void testBranchesAreLinkedAcrossWriteBatches() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("EEEEPLPWXXX")
+                .bankName("BANK E")
+                .address("WARSZAWA")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+
+        int batchSize = importProperties.getPipeline().getBatchSize();
+        importProperties.getPipeline().setBatchSize(2);
+        try {
+            swiftCodeParseService.parseExcelFile(excelFile(new String[][]{
+                    {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"},
+                    {"PL", "BBBBPLPWKRK", "BANK B", "KRAKOW", "POLAND"},
+                    {"PL", "CCCCPLPWXXX", "BANK C", "WARSZAWA", "POLAND"},
+                    {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW", "POLAND"},
+                    {"PL", "BBBBPLPWXXX", "BANK B", "WARSZAWA", "POLAND"},
+                    {"PL", "EEEEPLPWGDA", "BANK E", "GDANSK", "POLAND"},
+                    {"PL", "AAAAPLPWGDA", "BANK A", "GDANSK", "POLAND"},
+            }));
+        } finally {
+            importProperties.getPipeline().setBatchSize(batchSize);
+        }
+
+        assertEquals(8, swiftCodeRepository.count());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(List.of("AAAAPLPWGDA", "AAAAPLPWKRK"), swiftCodeRepository.findBySwiftCode("AAAAPLPWXXX")
+                    .orElseThrow().getBranches().stream().map(SwiftCode::getSwiftCode).sorted().toList());
+            assertEquals("BBBBPLPWXXX", swiftCodeRepository.findBySwiftCode("BBBBPLPWKRK").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+            assertEquals("EEEEPLPWXXX", swiftCodeRepository.findBySwiftCode("EEEEPLPWGDA").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+        });
+    }
+
+
+    //every batch is committed with its checkpoint, second import of the same file continues after the last batch
+    @Test
+    void testFailedImportResumesFromCheckpoint() throws Exception {
+        int batchSize = importProperties.getPipeline().getBatchSize();
+        importProperties.getPipeline().setBatchSize(2);
+        try {
+            //bank name longer than the column, so the second batch fails in the database
+            ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                    swiftCodeParseService.parseExcelFile(excelFile(new String[][]{
+                            {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"},
+                            {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW", "POLAND"},
+                            {"PL", "BBBBPLPWXXX", "B".repeat(300), "WARSZAWA", "POLAND"},
+                            {"PL", "BBBBPLPWKRK", "BANK B", "KRAKOW", "POLAND"},
+                    }), newJob(), "fingerprint"));
+            assertNotNull(exception.getMessage());
+
+            assertEquals(2, swiftCodeRepository.count(), "First batch should stay committed");
+            ImportCheckpoint checkpoint = importCheckpointRepository.findById("fingerprint").orElseThrow();
+            assertEquals(2, checkpoint.getLastCommittedRow());
+            assertEquals(2, checkpoint.getRowsCommitted());
+
+            //rows 1-2 are skipped, so the changed first row is not imported again
+            swiftCodeParseService.parseExcelFile(excelFile(new String[][]{
+                    {"PL", "CCCCPLPWXXX", "BANK C", "WARSZAWA", "POLAND"},
+                    {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW", "POLAND"},
+                    {"PL", "BBBBPLPWXXX", "BANK B", "WARSZAWA", "POLAND"},
+                    {"PL", "BBBBPLPWKRK", "BANK B", "KRAKOW", "POLAND"},
+            }), newJob(), "fingerprint");
+        } finally {
+            importProperties.getPipeline().setBatchSize(batchSize);
+        }
+
+        assertEquals(4, swiftCodeRepository.count());
+        assertFalse(swiftCodeRepository.existsBySwiftCode("CCCCPLPWXXX"));
+        assertTrue(importCheckpointRepository.findById("fingerprint").isEmpty(), "Finished import has no checkpoint");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertEquals("BBBBPLPWXXX", swiftCodeRepository.findBySwiftCode("BBBBPLPWKRK").orElseThrow()
+                        .getHeadquarters().getSwiftCode()));
+    }
+
+
+    //batches are committed one by one, they can't be part of the caller's transaction
+    @Test
+    @Transactional
+    void testImportInsideTransactionIsRejected() throws Exception {
+        InputStream file = excelFile(new String[][]{{"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"}});
+
+        assertThrows(IllegalStateException.class, () -> swiftCodeParseService.parseExcelFile(file));
+        assertThrows(IllegalStateException.class, () -> swiftCodeParseService.parseExcelFileDelta(file, newJob()));
+    }
+
+
+    //DELTA IMPORT
+
+    @Test
+    void testDeltaImport() throws Exception {
+        swiftCodeParseService.parseExcelFileDelta(excelFile(new String[][]{
+                {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"},
+                {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW", "POLAND"},
+                {"PL", "BBBBPLPWXXX", "BANK B", "WARSZAWA", "POLAND"},
+                {"PL", "BBBBPLPWWAW", "BANK B", "WARSZAWA", "POLAND"},
+                {"PL", "CCCCPLPWXXX", "BANK C", "WARSZAWA", "POLAND"},
+        }), newJob());
+        Long unchangedId = swiftCodeRepository.findBySwiftCode("CCCCPLPWXXX").orElseThrow().getId();
+
+        //one address changed, one headquarter removed, new headquarter with a branch, new branch of existing one
+        SwiftCodeParseService.DeltaResult result = swiftCodeParseService.parseExcelFileDelta(excelFile(new String[][]{
+                {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"},
+                {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW, RYNEK 1", "POLAND"},
+                {"PL", "AAAAPLPWGDA", "BANK A", "GDANSK", "POLAND"},
+                {"PL", "BBBBPLPWWAW", "BANK B", "WARSZAWA", "POLAND"},
+                {"PL", "CCCCPLPWXXX", "BANK C", "WARSZAWA", "POLAND"},
+                {"PL", "DDDDPLPWGDA", "BANK D", "GDANSK", "POLAND"},
+                {"PL", "DDDDPLPWXXX", "BANK D", "WARSZAWA", "POLAND"},
+        }), newJob());
+
+        assertEquals(new SwiftCodeParseService.DeltaResult(3, 1, 1, 3), result);
+        assertEquals(7, swiftCodeRepository.count());
+        assertFalse(swiftCodeRepository.existsBySwiftCode("BBBBPLPWXXX"));
+        assertEquals(unchangedId, swiftCodeRepository.findBySwiftCode("CCCCPLPWXXX").orElseThrow().getId(),
+                "Unchanged rows should stay untouched");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SwiftCode updated = swiftCodeRepository.findBySwiftCode("AAAAPLPWKRK").orElseThrow();
+            assertEquals("KRAKOW, RYNEK 1", updated.getAddress());
+            assertEquals(updated.computeRowHash(), updated.getRowHash());
+
+            assertEquals("AAAAPLPWXXX", swiftCodeRepository.findBySwiftCode("AAAAPLPWGDA").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+            assertEquals("DDDDPLPWXXX", swiftCodeRepository.findBySwiftCode("DDDDPLPWGDA").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+            assertNull(swiftCodeRepository.findBySwiftCode("BBBBPLPWWAW").orElseThrow().getHeadquarters(),
+                    "Branch of a removed headquarter should stay without headquarter");
+        });
+    }
+
+    //every write batch is compared and committed on its own, headquarter and its branch can be in different batches
+    @Test
+    void testDeltaImportInSmallBatches() throws Exception {
+        swiftCodeParseService.parseExcelFileDelta(excelFile(new String[][]{
+                {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"},
+                {"PL", "BBBBPLPWXXX", "BANK B", "WARSZAWA", "POLAND"},
+        }), newJob());
+
+        int batchSize = importProperties.getPipeline().getBatchSize();
+        importProperties.getPipeline().setBatchSize(2);
+        SwiftCodeParseService.DeltaResult result;
+        try {
+            result = swiftCodeParseService.parseExcelFileDelta(excelFile(new String[][]{
+                    {"PL", "DDDDPLPWXXX", "BANK D", "WARSZAWA", "POLAND"},
+                    {"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA, NEW", "POLAND"},
+                    {"PL", "AAAAPLPWKRK", "BANK A", "KRAKOW", "POLAND"},
+                    {"PL", "DDDDPLPWGDA", "BANK D", "GDANSK", "POLAND"},
+                    {"PL", "EEEEPLPWGDA", "BANK E", "GDANSK", "POLAND"},
+            }), newJob());
+        } finally {
+            importProperties.getPipeline().setBatchSize(batchSize);
+        }
+
+        assertEquals(new SwiftCodeParseService.DeltaResult(4, 1, 1, 0), result);
+        assertFalse(swiftCodeRepository.existsBySwiftCode("BBBBPLPWXXX"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals("WARSZAWA, NEW", swiftCodeRepository.findBySwiftCode("AAAAPLPWXXX").orElseThrow().getAddress());
+            assertEquals("AAAAPLPWXXX", swiftCodeRepository.findBySwiftCode("AAAAPLPWKRK").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+            assertEquals("DDDDPLPWXXX", swiftCodeRepository.findBySwiftCode("DDDDPLPWGDA").orElseThrow()
+                    .getHeadquarters().getSwiftCode());
+            assertNull(swiftCodeRepository.findBySwiftCode("EEEEPLPWGDA").orElseThrow().getHeadquarters());
+        });
+    }
+
+    @Test
+    void testDeltaImportOfSameFileChangesNothing() throws Exception {
+        swiftCodeParseService.parseExcelFileDelta(
+                new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream(), newJob());
+        long count = swiftCodeRepository.count();
+
+        SwiftCodeParseService.DeltaResult result = swiftCodeParseService.parseExcelFileDelta(
+                new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream(), newJob());
+
+        assertEquals(new SwiftCodeParseService.DeltaResult(0, 0, 0, count), result);
+        assertEquals(count, swiftCodeRepository.count());
+    }
+
+    //rows saved before row_hash existed have no hash, they are updated once
+    @Test
+    void testDeltaImportFillsMissingRowHash() throws Exception {
+        String[][] rows = {{"PL", "AAAAPLPWXXX", "BANK A", "WARSZAWA", "POLAND"}};
+        swiftCodeParseService.parseExcelFileDelta(excelFile(rows), newJob());
+        jdbcTemplate.update("UPDATE swift_codes SET row_hash = NULL");
+
+        assertEquals(new SwiftCodeParseService.DeltaResult(0, 1, 0, 0),
+                swiftCodeParseService.parseExcelFileDelta(excelFile(rows), newJob()));
+        assertEquals(new SwiftCodeParseService.DeltaResult(0, 0, 0, 1),
+                swiftCodeParseService.parseExcelFileDelta(excelFile(rows), newJob()));
+    }
+
+    private ImportJob newJob() {
+        return new ImportJob(UUID.randomUUID().toString(), "test");
+    }
+
+    //rows: country ISO2, swift code, bank name, address, country name
+    private ByteArrayInputStream excelFile(String[][] rows) throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("SwiftCodes");
+
+        Row headerRow = sheet.createRow(0);
+        headerRow.createCell(0).setCellValue("COUNTRY ISO2 CODE");
+        headerRow.createCell(1).setCellValue("SWIFT CODE");
+        headerRow.createCell(2).setCellValue("NAME");
+        headerRow.createCell(3).setCellValue("ADDRESS");
+        headerRow.createCell(4).setCellValue("COUNTRY NAME");
+
+        for (int i = 0; i < rows.length; i++) {
+            Row row = sheet.createRow(i + 1);
+            for (int j = 0; j < rows[i].length; j++) {
+                row.createCell(j).setCellValue(rows[i][j]);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return new ByteArrayInputStream(out.toByteArray());
+    }
 }
@@ -1,16 +1,30 @@
 package com.remitly.main.RemitlyInternship.Service;
 
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeSnapshot;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.ClassPathResource;
-import java.io.ByteArrayInputStream;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -21,33 +35,234 @@ public class ExcelParserServiceTest {
     @Mock
     private SwiftCodeParseService swiftCodeParseService;
     @Mock
-    private ClassPathResource classPathResource;
-    @InjectMocks
+    private DatasetFingerprintService datasetFingerprintService;
+    @Mock
+    private SwiftCodeSnapshotService swiftCodeSnapshotService;
+    @Mock
+    private SwiftCodeBulkLoadService swiftCodeBulkLoadService;
+
+    private ImportJobService importJobService;
+    private ImportProperties importProperties;
     private ExcelParserService excelParserService;
+    private StartupImportHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobService();
+        importProperties = new ImportProperties();
+        excelParserService = new ExcelParserService(swiftCodeRepository, swiftCodeParseService, importJobService,
+                datasetFingerprintService, importProperties, swiftCodeSnapshotService, swiftCodeBulkLoadService);
+        healthIndicator = new StartupImportHealthIndicator(excelParserService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
 
     //unit tests for excel parser service
     @Test
-    void testInit_exception() throws IOException {
+    void testInit_exception() throws Exception {
         //Setup the parse service to throw an exception
-        doThrow(new IOException("Test exception")).when(swiftCodeParseService).parseExcelFile(any());
+        doThrow(new IOException("Test exception")).when(swiftCodeParseService).parseExcelFile(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class), any());
 
-        //Create a subclass that uses a test stream but still calls the real service
-        ExcelParserService testService = new ExcelParserService(swiftCodeRepository, swiftCodeParseService) {
-            @Override
-            public void init() {
-                try {
-                    InputStream testStream = new ByteArrayInputStream("test data".getBytes()); //simple test stream
-                    swiftCodeParseService.parseExcelFile(testStream);
-                } catch (Exception e) {
-                    System.err.println("Error while parsing excel file: " + e.getMessage());
-                }
-            }
-        };
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
 
-        testService.init();
+        verify(swiftCodeParseService).parseExcelFile(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class), any());
+        //failure is not swallowed anymore, it's visible in the job and the readiness probe
+        assertEquals(ImportJob.Status.FAILED, job.getStatus());
+        assertEquals("Test exception", job.getMessage());
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void testInit_runsInBackground() throws Exception {
+        CountDownLatch importStarted = new CountDownLatch(1);
+        CountDownLatch releaseImport = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(2);
+            job.rowAccepted();
+            importStarted.countDown();
+            releaseImport.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(swiftCodeParseService).parseExcelFile(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class), any());
+
+        //init returns right away, import is still running
+        excelParserService.init();
+        assertTrue(importStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(ImportJob.Status.RUNNING, excelParserService.getStartupImport().orElseThrow().getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        releaseImport.countDown();
+        ImportJob job = awaitStartupImport();
 
-        verify(swiftCodeParseService).parseExcelFile(any(InputStream.class));
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        assertEquals(1, job.getRowsRead());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(datasetFingerprintService).recordImport(eq(importProperties.getStartupFile()), eq(ImportProperties.Mode.APPEND), any(), eq(1L));
     }
-}
 
+    @Test
+    void testInit_skipsUnchangedFile() throws Exception {
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("abc");
+        when(datasetFingerprintService.isAlreadyImported(importProperties.getStartupFile(), ImportProperties.Mode.APPEND, "abc")).thenReturn(true);
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
 
+        assertEquals(ImportJob.Status.SKIPPED, job.getStatus());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verifyNoInteractions(swiftCodeParseService);
+        verify(datasetFingerprintService, never()).recordImport(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testInit_changedFileIsImported() throws Exception {
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("new");
+        when(datasetFingerprintService.isAlreadyImported(importProperties.getStartupFile(), ImportProperties.Mode.APPEND, "new")).thenReturn(false);
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        verify(swiftCodeParseService).parseExcelFile(any(InputStream.class), eq(SourceFormat.XLSX), eq(job), eq("new"));
+        verify(datasetFingerprintService).recordImport(importProperties.getStartupFile(), ImportProperties.Mode.APPEND, "new", 0L);
+    }
+
+    @Test
+    void testPrepareDatabase_withoutStartupImport() {
+        importProperties.setStartupEnabled(false);
+
+        excelParserService.prepareDatabase();
+        excelParserService.init();
+
+        //sequence is aligned and bank codes are filled even if no import runs, the API creates and links codes too
+        verify(swiftCodeRepository).alignIdSequence();
+        verify(swiftCodeRepository).fillMissingBankCodes();
+        assertTrue(excelParserService.getStartupImport().isEmpty());
+    }
+
+    @Test
+    void testInit_disabled() {
+        importProperties.setStartupEnabled(false);
+
+        excelParserService.init();
+
+        assertTrue(excelParserService.getStartupImport().isEmpty());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verifyNoInteractions(swiftCodeParseService);
+    }
+
+    @Test
+    void testInit_deltaMode() throws Exception {
+        importProperties.setMode(ImportProperties.Mode.DELTA);
+        when(swiftCodeParseService.parseExcelFileDelta(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class)))
+                .thenReturn(new SwiftCodeParseService.DeltaResult(1, 2, 3, 4));
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        assertEquals("Delta import: 1 inserted, 2 updated, 3 deleted, 4 unchanged", job.getMessage());
+        verify(swiftCodeParseService, never()).parseExcelFile(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class), any());
+    }
+
+    @Test
+    void testInit_reloadMode() throws Exception {
+        importProperties.setMode(ImportProperties.Mode.RELOAD);
+        when(swiftCodeBulkLoadService.reloadFile(any(InputStream.class), eq(SourceFormat.XLSX))).thenReturn(1061L);
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        assertEquals("Reload: 1061 SWIFT codes loaded", job.getMessage());
+        assertEquals(1061, job.getRowsAccepted());
+        verifyNoInteractions(swiftCodeParseService);
+        verify(datasetFingerprintService).recordImport(eq(importProperties.getStartupFile()), eq(ImportProperties.Mode.RELOAD), any(), eq(1061L));
+    }
+
+    //database could have changed since the last import (deletes through the API), so uploads are skipped only on request
+    @Test
+    void testUpload_unchangedFileIsImportedUnlessSkipIsRequested() throws Exception {
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("abc");
+        when(datasetFingerprintService.isAlreadyImported("codes.xlsx", ImportProperties.Mode.DELTA, "abc")).thenReturn(true);
+        when(swiftCodeParseService.parseExcelFileDelta(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class)))
+                .thenReturn(new SwiftCodeParseService.DeltaResult(0, 0, 0, 1));
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "codes.xlsx", "application/octet-stream", "excel content".getBytes());
+
+        assertEquals(ImportJob.Status.DONE, awaitJob(excelParserService.submitUpload(file, "delta", null, false)).getStatus());
+        assertEquals(ImportJob.Status.SKIPPED, awaitJob(excelParserService.submitUpload(file, "delta", null, true)).getStatus());
+        verify(swiftCodeParseService, times(1))
+                .parseExcelFileDelta(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class));
+        verify(datasetFingerprintService).recordImport("codes.xlsx", ImportProperties.Mode.DELTA, "abc", 0L);
+    }
+
+    @Test
+    void testInit_restoresUpToDateSnapshot() throws Exception {
+        importProperties.setSnapshotFile("snapshots/swift-codes.snapshot");
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("abc");
+        SwiftCodeSnapshot snapshot = snapshot("abc");
+        when(swiftCodeSnapshotService.openSnapshot(Path.of("snapshots/swift-codes.snapshot"))).thenReturn(Optional.of(snapshot));
+        when(swiftCodeSnapshotService.restoreSnapshot(snapshot)).thenReturn(1061L);
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        assertEquals("Restored 1061 SWIFT codes from snapshot snapshots/swift-codes.snapshot", job.getMessage());
+        assertEquals(1061, job.getRowsAccepted());
+        verifyNoInteractions(swiftCodeParseService);
+        verify(datasetFingerprintService).recordImport(importProperties.getStartupFile(), ImportProperties.Mode.APPEND, "abc", 1061L);
+    }
+
+    @Test
+    void testInit_outdatedSnapshotIsReplaced() throws Exception {
+        importProperties.setSnapshotFile("snapshots/swift-codes.snapshot");
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("new");
+        when(swiftCodeSnapshotService.openSnapshot(any())).thenReturn(Optional.of(snapshot("old")));
+
+        excelParserService.init();
+        ImportJob job = awaitStartupImport();
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus());
+        verify(swiftCodeSnapshotService, never()).restoreSnapshot(any());
+        verify(swiftCodeParseService).parseExcelFile(any(InputStream.class), eq(SourceFormat.XLSX), eq(job), eq("new"));
+        verify(swiftCodeSnapshotService).exportSnapshot(Path.of("snapshots/swift-codes.snapshot"), "new");
+    }
+
+    @Test
+    void testInit_snapshotIsNotUsedForAppendToExistingData() throws Exception {
+        importProperties.setSnapshotFile("snapshots/swift-codes.snapshot");
+        when(datasetFingerprintService.fingerprint(any(InputStream.class))).thenReturn("abc");
+        when(swiftCodeSnapshotService.openSnapshot(any())).thenReturn(Optional.of(snapshot("abc")));
+        when(swiftCodeRepository.count()).thenReturn(10L);
+
+        excelParserService.init();
+        awaitStartupImport();
+
+        verify(swiftCodeSnapshotService, never()).restoreSnapshot(any());
+        verify(swiftCodeParseService).parseExcelFile(any(InputStream.class), any(SourceFormat.class), any(ImportJob.class), eq("abc"));
+    }
+
+    private SwiftCodeSnapshot snapshot(String sourceFingerprint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SwiftCodeSnapshot.Writer().write(out, sourceFingerprint);
+        return SwiftCodeSnapshot.of(out.toByteArray());
+    }
+
+    private ImportJob awaitStartupImport() throws InterruptedException {
+        return awaitJob(excelParserService.getStartupImport().orElseThrow());
+    }
+
+    private ImportJob awaitJob(ImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Import should finish");
+        return job;
+    }
+}
@@ -0,0 +1,204 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportPipelineTest {
+
+    private static final int ROWS = 1_000;
+
+    private ImportPipeline importPipeline;
+    private ImportJob job;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        //small chunks and batches and many workers, so chunks are really finished out of order
+        importProperties.getPipeline().setWorkers(4);
+        importProperties.getPipeline().setChunkSize(7);
+        importProperties.getPipeline().setBatchSize(50);
+        importProperties.getPipeline().setQueueCapacity(2);
+        importPipeline = new ImportPipeline(importProperties);
+        job = new ImportJob(UUID.randomUUID().toString(), "test");
+    }
+
+    @Test
+    void testRowsAreWrittenInFileOrderWithoutDuplicates() throws Exception {
+        List<String> written = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+
+        importPipeline.run(excelFile(ROWS), job, batch -> batch, (batch, lastRowNum) -> {
+            batchSizes.add(batch.size());
+            batch.forEach(swiftCode -> written.add(swiftCode.getSwiftCode() + " " + swiftCode.getBankName()));
+        });
+
+        //every 10th row is a duplicate of the row before it and every 25th row is invalid
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 10 != 9 && i % 25 != 24) {
+                expected.add(swiftCode(i) + " BANK " + i);
+            }
+        }
+        assertEquals(expected, written, "First occurrence of every code should be written, in file order");
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+
+        assertEquals(ROWS, job.getRowsRead());
+        assertEquals(expected.size(), job.getRowsAccepted());
+        assertEquals(ROWS - expected.size(), job.getRowsRejected());
+
+        Map<String, Long> stageRows = job.getStages().stream()
+                .collect(Collectors.toMap(ImportStageStats::getName, ImportStageStats::getRows));
+        assertEquals(Map.of("read", (long) ROWS, "validate", (long) ROWS, "link", (long) ROWS,
+                "write", (long) expected.size()), stageRows);
+    }
+
+    @Test
+    void testAllFormatsGiveSameResult() throws Exception {
+        List<String> xlsx = writtenRows(excelFile(ROWS), SourceFormat.XLSX);
+        List<String> csv = writtenRows(csvFile(ROWS), SourceFormat.CSV);
+        List<String> ndjson = writtenRows(ndjsonFile(ROWS), SourceFormat.NDJSON);
+
+        assertFalse(xlsx.isEmpty());
+        assertEquals(xlsx, csv);
+        assertEquals(xlsx, ndjson);
+    }
+
+    @Test
+    void testResumeAfterRow() throws Exception {
+        List<String> written = new ArrayList<>();
+        List<Integer> lastRowNums = new ArrayList<>();
+
+        importPipeline.run(excelFile(ROWS), job, 500, batch -> batch, (batch, lastRowNum) -> {
+            batch.forEach(swiftCode -> written.add(swiftCode.getSwiftCode()));
+            lastRowNums.add(lastRowNum);
+        });
+
+        //file row 501 is the row with i = 500
+        assertEquals(swiftCode(500), written.getFirst());
+        assertEquals(lastRowNums.stream().sorted().toList(), lastRowNums);
+        assertEquals(999, lastRowNums.getLast(), "Last valid row of the file is row 999");
+        assertEquals(ROWS - 500, job.getRowsRead());
+    }
+
+    @Test
+    void testLinkerCanDropRows() throws Exception {
+        List<SwiftCode> written = new ArrayList<>();
+
+        importPipeline.run(excelFile(100), job,
+                batch -> batch.stream().filter(SwiftCode::isHeadquarter).toList(),
+                (batch, lastRowNum) -> written.addAll(batch));
+
+        assertFalse(written.isEmpty());
+        assertTrue(written.stream().allMatch(SwiftCode::isHeadquarter));
+    }
+
+    @Test
+    void testWriterFailureStopsPipeline() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                importPipeline.run(excelFile(ROWS), job, batch -> batch, (batch, lastRowNum) -> {
+                    throw new IllegalStateException("database is down");
+                }));
+
+        assertEquals("database is down", exception.getMessage());
+    }
+
+    @Test
+    void testReaderFailureIsThrownToCaller() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                importPipeline.run(new ByteArrayInputStream("not excel".getBytes()), job, batch -> batch, (batch, lastRowNum) -> { }));
+
+        assertTrue(exception.getMessage().startsWith("Error reading Excel file"));
+    }
+
+    @Test
+    void testLinkerFailureIsThrownToCaller() {
+        ExcelParseException exception = assertThrows(ExcelParseException.class, () ->
+                importPipeline.run(excelFile(ROWS), job, batch -> {
+                    throw new ExcelParseException("link failed");
+                }, (batch, lastRowNum) -> { }));
+
+        assertEquals("link failed", exception.getMessage());
+    }
+
+    //swift code, bank, address, country and file row of every written code
+    private List<String> writtenRows(ByteArrayInputStream file, SourceFormat format) throws Exception {
+        List<String> written = new ArrayList<>();
+        ImportJob formatJob = new ImportJob(UUID.randomUUID().toString(), format.name());
+        importPipeline.run(file, format, formatJob, 0, batch -> batch, (batch, lastRowNum) -> {
+            batch.forEach(swiftCode -> written.add(String.join("|", swiftCode.getSwiftCode(), swiftCode.getBankName(),
+                    swiftCode.getAddress(), swiftCode.getCountryISO2(), swiftCode.getCountryName())));
+            written.add("row " + lastRowNum);
+        });
+        assertEquals(ROWS, formatJob.getRowsRead());
+        return written;
+    }
+
+    private String swiftCode(int i) {
+        return String.format("BANK%04d", i) + (i % 3 == 0 ? "XXX" : "WAW");
+    }
+
+    //same rows as excelFile
+    private ByteArrayInputStream csvFile(int rows) {
+        StringBuilder csv = new StringBuilder("COUNTRY ISO2 CODE,SWIFT CODE,NAME,ADDRESS,COUNTRY NAME\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("pl,").append(i % 10 == 9 ? swiftCode(i - 1) : swiftCode(i)).append(',')
+                    .append(i % 25 == 24 ? "" : "Bank " + i).append(",\"Street ").append(i).append("\",poland\n");
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ByteArrayInputStream ndjsonFile(int rows) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"COUNTRY ISO2 CODE\":\"pl\",\"SWIFT CODE\":\"")
+                    .append(i % 10 == 9 ? swiftCode(i - 1) : swiftCode(i))
+                    .append("\",\"NAME\":\"").append(i % 25 == 24 ? "" : "Bank " + i)
+                    .append("\",\"ADDRESS\":\"Street ").append(i).append("\",\"COUNTRY NAME\":\"poland\"}\n");
+        }
+        return new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ByteArrayInputStream excelFile(int rows) throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("SwiftCodes");
+        Row headerRow = sheet.createRow(0);
+        headerRow.createCell(0).setCellValue("COUNTRY ISO2 CODE");
+        headerRow.createCell(1).setCellValue("SWIFT CODE");
+        headerRow.createCell(2).setCellValue("NAME");
+        headerRow.createCell(3).setCellValue("ADDRESS");
+        headerRow.createCell(4).setCellValue("COUNTRY NAME");
+
+        for (int i = 0; i < rows; i++) {
+            Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue("pl");
+            //duplicates have different bank name, so we can see that the first one wins
+            row.createCell(1).setCellValue(i % 10 == 9 ? swiftCode(i - 1) : swiftCode(i));
+            row.createCell(2).setCellValue(i % 25 == 24 ? "" : "Bank " + i);
+            row.createCell(3).setCellValue("Street " + i);
+            row.createCell(4).setCellValue("poland");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
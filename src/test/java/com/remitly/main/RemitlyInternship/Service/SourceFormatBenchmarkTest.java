@@ -0,0 +1,125 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.ImportProperties;
+import com.remitly.main.RemitlyInternship.Parser.RowReader;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ Parsing throughput of the source formats (same rows as XLSX, CSV and NDJSON), run it with: ./mvnw test -Pbenchmark
+ (number of rows can be changed with -Dbenchmark.rows=50000)
+
+ * "read"     - only the RowReader of the format (unzip + XML for XLSX, byte parsing for CSV/NDJSON)
+ * "pipeline" - read -> validate -> link of ImportPipeline without the database (writer does nothing)
+ Nothing is written to the database, so this is the upper limit of what the format allows.
+ */
+@Tag("benchmark")
+public class SourceFormatBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int RUNS = 3;
+
+    @Test
+    void benchmarkSourceFormats() throws Exception {
+        Map<SourceFormat, byte[]> files = new EnumMap<>(SourceFormat.class);
+        files.put(SourceFormat.XLSX, SwiftCodeParseBenchmarkTest.createExcelFile(ROWS));
+        files.put(SourceFormat.CSV, toCsv(files.get(SourceFormat.XLSX)));
+        files.put(SourceFormat.NDJSON, toNdjson(files.get(SourceFormat.XLSX)));
+
+        ImportPipeline importPipeline = new ImportPipeline(new ImportProperties());
+
+        //warm up (JIT)
+        for (SourceFormat format : SourceFormat.values()) {
+            read(format, files.get(format));
+            runPipeline(importPipeline, format, files.get(format));
+        }
+
+        System.out.printf("%nSource format throughput (%d rows, best of %d runs)%n", ROWS, RUNS);
+        System.out.printf("  %-7s %10s %14s %14s%n", "format", "size (KB)", "read rows/s", "pipeline rows/s");
+        for (SourceFormat format : SourceFormat.values()) {
+            byte[] file = files.get(format);
+            double read = 0;
+            double pipeline = 0;
+            for (int i = 0; i < RUNS; i++) {
+                read = Math.max(read, read(format, file));
+                pipeline = Math.max(pipeline, runPipeline(importPipeline, format, file));
+            }
+            System.out.printf("  %-7s %10d %14.0f %14.0f%n", format, file.length / 1024, read, pipeline);
+        }
+        System.out.println();
+    }
+
+    //returns rows per second
+    private double read(SourceFormat format, byte[] file) throws IOException {
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+        format.read(new ByteArrayInputStream(file), (rowNum, cells) -> rows.incrementAndGet());
+        long elapsed = System.nanoTime() - start;
+
+        //+ header row
+        assertEquals(ROWS + 1, rows.get());
+        return ROWS / (elapsed / 1_000_000_000.0);
+    }
+
+    private double runPipeline(ImportPipeline importPipeline, SourceFormat format, byte[] file) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format.name());
+        long start = System.nanoTime();
+        importPipeline.run(new ByteArrayInputStream(file), format, job, 0, batch -> batch, (batch, lastRowNum) -> { });
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(ROWS, job.getRowsAccepted());
+        return ROWS / (elapsed / 1_000_000_000.0);
+    }
+
+    //same rows as the Excel file, every value is quoted
+    private byte[] toCsv(byte[] excelFile) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (String[] row : rows(excelFile)) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                csv.append('"').append(row[i].replace("\"", "\"\"")).append('"');
+            }
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] toNdjson(byte[] excelFile) throws IOException {
+        List<String[]> rows = rows(excelFile);
+        String[] header = rows.getFirst();
+        StringBuilder ndjson = new StringBuilder();
+        for (String[] row : rows.subList(1, rows.size())) {
+            ndjson.append('{');
+            for (int i = 0; i < header.length; i++) {
+                if (i > 0) {
+                    ndjson.append(',');
+                }
+                ndjson.append('"').append(header[i]).append("\":\"").append(row[i].replace("\"", "\\\"")).append('"');
+            }
+            ndjson.append("}\n");
+        }
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String[]> rows(byte[] excelFile) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        RowReader.RowHandler collector = (rowNum, cells) -> rows.add(cells.clone());
+        SourceFormat.XLSX.read(new ByteArrayInputStream(excelFile), collector);
+        return rows;
+    }
+}
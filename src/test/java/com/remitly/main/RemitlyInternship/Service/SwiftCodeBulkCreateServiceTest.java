@@ -0,0 +1,188 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.main.RemitlyInternship.Config.BulkCreateProperties;
+import com.remitly.main.RemitlyInternship.Config.CacheProperties;
+import com.remitly.main.RemitlyInternship.Config.FilterProperties;
+import com.remitly.main.RemitlyInternship.Config.IndexProperties;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkCreateResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SwiftCodeBulkCreateServiceTest {
+
+    @Mock
+    private SwiftCodeRepository swiftCodeRepository;
+    //without synchronization every transaction "commits" right away
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private SwiftCodeCache swiftCodeCache = new SwiftCodeCache(new CacheProperties(), new SimpleMeterRegistry());
+    @Spy
+    private SwiftCodeIndex swiftCodeIndex = new SwiftCodeIndex(null, disabledIndex());
+    @Spy
+    private SwiftCodeFilter swiftCodeFilter = new SwiftCodeFilter(null, disabledFilter());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BulkCreateProperties bulkCreateProperties = new BulkCreateProperties();
+    private SwiftCodeBulkCreateService swiftCodeBulkCreateService;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeBulkCreateService = new SwiftCodeBulkCreateService(swiftCodeRepository, swiftCodeCache,
+                swiftCodeIndex, swiftCodeFilter, bulkCreateProperties, transactionManager, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void testCreatedCodesGoToFilterIndexAndCache() throws Exception {
+        SwiftCode headquarter = SwiftCode.builder().swiftCode("BULKPLPWXXX").isHeadquarter(true).build();
+        when(swiftCodeRepository.findExistingSwiftCodes(anyCollection())).thenReturn(List.of());
+        when(swiftCodeRepository.findBySwiftCodeIn(anyCollection())).thenReturn(List.of(headquarter));
+        when(swiftCodeRepository.saveAll(any())).then(invocation -> invocation.getArgument(0));
+
+        SwiftCodeBulkCreateResponseDTO result = swiftCodeBulkCreateService.createSwiftCodes(
+                body(bulkRecord("BULKPLPW001", false), bulkRecord("BULKPLPW002", false)));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isZero();
+        //headquarter is taken from the database, no orphans to link because no headquarter was created
+        ArgumentCaptor<SwiftCode> indexed = ArgumentCaptor.forClass(SwiftCode.class);
+        verify(swiftCodeIndex, times(2)).put(indexed.capture());
+        assertThat(indexed.getAllValues()).allSatisfy(branch ->
+                assertThat(branch.getHeadquarters()).isSameAs(headquarter));
+        verify(swiftCodeFilter).add("BULKPLPW001");
+        verify(swiftCodeFilter).add("BULKPLPW002");
+        verify(swiftCodeCache).invalidate(List.of("BULKPLPW001", "BULKPLPWXXX", "BULKPLPW002", "BULKPLPWXXX"));
+        verify(swiftCodeCache, never()).invalidateAll();
+        verify(swiftCodeRepository, never()).linkOrphanBranchesOf(anyCollection());
+    }
+
+    @Test
+    void testBranchGetsHeadquarterFromSameBatch() throws Exception {
+        when(swiftCodeRepository.findExistingSwiftCodes(anyCollection())).thenReturn(List.of());
+        when(swiftCodeRepository.saveAll(any())).then(invocation -> invocation.getArgument(0));
+
+        SwiftCodeBulkCreateResponseDTO result = swiftCodeBulkCreateService.createSwiftCodes(
+                body(bulkRecord("BULKPLPW001", false), bulkRecord("BULKPLPWXXX", true)));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        ArgumentCaptor<SwiftCode> indexed = ArgumentCaptor.forClass(SwiftCode.class);
+        verify(swiftCodeIndex, times(2)).put(indexed.capture());
+        Map<String, SwiftCode> bySwiftCode = indexed.getAllValues().stream()
+                .collect(Collectors.toMap(SwiftCode::getSwiftCode, Function.identity()));
+        assertThat(bySwiftCode.get("BULKPLPW001").getHeadquarters()).isSameAs(bySwiftCode.get("BULKPLPWXXX"));
+        verify(swiftCodeRepository, never()).findBySwiftCodeIn(anyCollection());
+        //branches created earlier by other requests
+        verify(swiftCodeRepository).linkOrphanBranchesOf(Set.of("BULKPLPW"));
+    }
+
+    @Test
+    void testConflictingBatchIsRetriedWithoutConcurrentCode() throws Exception {
+        //BULKPLPW002 is created by another request between the existing check and the insert
+        when(swiftCodeRepository.findExistingSwiftCodes(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("BULKPLPW002"));
+        when(swiftCodeRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .then(invocation -> invocation.getArgument(0));
+
+        SwiftCodeBulkCreateResponseDTO result = swiftCodeBulkCreateService.createSwiftCodes(
+                body(bulkRecord("BULKPLPWXXX", true), bulkRecord("BULKPLPW001", false),
+                        bulkRecord("BULKPLPW002", false)));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(3);
+            assertThat(error.getMessage()).isEqualTo("Swift code already exists: BULKPLPW002");
+        });
+        verify(swiftCodeRepository, times(2)).saveAll(any());
+        verify(swiftCodeFilter, never()).add("BULKPLPW002");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testBatchIsRejectedAfterLastAttempt() throws Exception {
+        when(swiftCodeRepository.findExistingSwiftCodes(anyCollection())).thenReturn(List.of());
+        when(swiftCodeRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        SwiftCodeBulkCreateResponseDTO result = swiftCodeBulkCreateService.createSwiftCodes(
+                body(bulkRecord("BULKPLPWXXX", true), bulkRecord("BULKPLPW001", false)));
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getRejected()).isEqualTo(2);
+        verify(swiftCodeRepository, times(3)).saveAll(any());
+        verifyNoInteractions(swiftCodeFilter, swiftCodeIndex);
+    }
+
+    //existing code (record 1) is found only when its batch is saved, after the invalid record 2 was already rejected
+    @Test
+    void testReportedErrorsAreTheFirstRecords() throws Exception {
+        bulkCreateProperties.setMaxReportedErrors(1);
+        when(swiftCodeRepository.findExistingSwiftCodes(anyCollection())).thenReturn(List.of("BULKPLPW001"));
+
+        SwiftCodeBulkCreateResponseDTO result = swiftCodeBulkCreateService.createSwiftCodes(
+                body(bulkRecord("BULKPLPW001", false), bulkRecord("BULKPLPWXXX", false)));
+
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(1);
+            assertThat(error.getMessage()).isEqualTo("Swift code already exists: BULKPLPW001");
+        });
+    }
+
+    private ByteArrayInputStream body(String... records) {
+        return new ByteArrayInputStream(String.join("\n", records).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String bulkRecord(String swiftCode, boolean isHeadquarter) throws Exception {
+        return objectMapper.writeValueAsString(SwiftCodeRequestDTO.builder()
+                .swiftCode(swiftCode)
+                .bankName("BULK BANK")
+                .address("BULK STREET 1")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(isHeadquarter)
+                .build());
+    }
+
+    private static FilterProperties disabledFilter() {
+        FilterProperties filterProperties = new FilterProperties();
+        filterProperties.setEnabled(false);
+        return filterProperties;
+    }
+
+    private static IndexProperties disabledIndex() {
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(false);
+        return indexProperties;
+    }
+}
@@ -0,0 +1,194 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Exception.ExcelParseException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SourceFormat;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against the test PostgreSQL database, COPY is PostgreSQL specific
+@SpringBootTest
+@ActiveProfiles("test")
+public class SwiftCodeBulkLoadIntegrationTest {
+
+    @Autowired
+    private SwiftCodeBulkLoadService swiftCodeBulkLoadService;
+
+    @Autowired
+    private SwiftCodeParseService swiftCodeParseService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAllInBatch();
+    }
+
+    //bulk load has to give exactly the same directory as the normal import
+    @Test
+    void testBulkLoadMatchesParseService() throws Exception {
+        swiftCodeParseService.parseExcelFile(new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream());
+        Set<String> parsed = directorySnapshot();
+
+        long loaded = swiftCodeBulkLoadService.reloadExcelFile(
+                new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream());
+        Set<String> bulkLoaded = directorySnapshot();
+
+        assertEquals(parsed.size(), loaded);
+        assertEquals(parsed, bulkLoaded);
+    }
+
+    @Test
+    void testBulkLoadReplacesDataAndLinksBranches() throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("OLDBANKKXXX")
+                .bankName("OLD BANK")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("SwiftCodes");
+        Row headerRow = sheet.createRow(0);
+        headerRow.createCell(0).setCellValue("SWIFT CODE");
+        headerRow.createCell(1).setCellValue("COUNTRY ISO2 CODE");
+        headerRow.createCell(2).setCellValue("NAME");
+        headerRow.createCell(3).setCellValue("ADDRESS");
+        headerRow.createCell(4).setCellValue("COUNTRY NAME");
+
+        //branch before its headquarter, duplicated headquarter and a quote in the address
+        String[][] rows = {
+                {"BOFAUS3NNYC", "us", "Bank of America", "5th \"Avenue\", NY", "united states"},
+                {"BOFAUS3NXXX", "us", "Bank of America", "", "united states"},
+                {"BOFAUS3NXXX", "us", "Duplicate", "", "united states"},
+                {"TOOSHORT", "us", "Invalid", "", "united states"},
+        };
+        for (int i = 0; i < rows.length; i++) {
+            Row row = sheet.createRow(i + 1);
+            for (int j = 0; j < rows[i].length; j++) {
+                row.createCell(j).setCellValue(rows[i][j]);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        long loaded = swiftCodeBulkLoadService.reloadExcelFile(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, loaded);
+        assertEquals(2, swiftCodeRepository.count());
+        assertFalse(swiftCodeRepository.existsBySwiftCode("OLDBANKKXXX"), "Old data should be replaced");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SwiftCode branch = swiftCodeRepository.findBySwiftCode("BOFAUS3NNYC").orElseThrow();
+            assertEquals("BOFAUS3NXXX", branch.getHeadquarters().getSwiftCode());
+            assertEquals("5th \"Avenue\", NY", branch.getAddress());
+            assertEquals("UNITED STATES", branch.getCountryName());
+            assertEquals("BANK OF AMERICA", branch.getHeadquarters().getBankName());
+            //bulk loader writes the same row hash as JPA, so a later delta import sees no changes
+            assertEquals(branch.computeRowHash(), branch.getRowHash());
+        });
+
+        //ids are taken from the sequence, so JPA inserts still work after the bulk load
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("NEWBANKKXXX")
+                .bankName("NEW BANK")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+        assertEquals(3, swiftCodeRepository.count());
+    }
+
+    @Test
+    void testBulkLoadKeepsOldDataWhenFileIsInvalid() {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("OLDBANKKXXX")
+                .bankName("OLD BANK")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+
+        assertThrows(ExcelParseException.class, () ->
+                swiftCodeBulkLoadService.reloadExcelFile(new ByteArrayInputStream("not excel".getBytes())));
+
+        assertTrue(swiftCodeRepository.existsBySwiftCode("OLDBANKKXXX"));
+    }
+
+    @Test
+    void testBulkLoadOfCsvFile() {
+        String csv = """
+                SWIFT CODE,COUNTRY ISO2 CODE,NAME,ADDRESS,COUNTRY NAME
+                BOFAUS3NNYC,us,Bank of America,"5th Avenue, NY",united states
+                BOFAUS3NXXX,us,Bank of America,,united states
+                """;
+
+        long loaded = swiftCodeBulkLoadService.reloadFile(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), SourceFormat.CSV);
+
+        assertEquals(2, loaded);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> assertEquals("BOFAUS3NXXX",
+                swiftCodeRepository.findBySwiftCode("BOFAUS3NNYC").orElseThrow().getHeadquarters().getSwiftCode()));
+    }
+
+    //file is fine, the database refuses the row (PostgreSQL text can't contain NUL), that's not a parse error
+    @Test
+    void testCopyFailureIsDataAccessError() {
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("OLDBANKKXXX")
+                .bankName("OLD BANK")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+        String csv = """
+                SWIFT CODE,COUNTRY ISO2 CODE,NAME,ADDRESS,COUNTRY NAME
+                BOFAUS3NXXX,us,Bank\u0000of America,,united states
+                """;
+
+        assertThrows(DataAccessException.class, () -> swiftCodeBulkLoadService.reloadFile(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), SourceFormat.CSV));
+
+        assertTrue(swiftCodeRepository.existsBySwiftCode("OLDBANKKXXX"));
+    }
+
+    private Set<String> directorySnapshot() {
+        return new TransactionTemplate(transactionManager).execute(status -> swiftCodeRepository.findAll().stream()
+                .map(swiftCode -> String.join("|",
+                        swiftCode.getSwiftCode(),
+                        swiftCode.getBankName(),
+                        String.valueOf(swiftCode.getAddress()),
+                        swiftCode.getCountryISO2(),
+                        swiftCode.getCountryName(),
+                        String.valueOf(swiftCode.isHeadquarter()),
+                        swiftCode.getBankCode(),
+                        swiftCode.getHeadquarters() == null ? "-" : swiftCode.getHeadquarters().getSwiftCode()))
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Config.CacheProperties;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeCacheTest {
+
+    private CacheProperties cacheProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private AtomicInteger loads;
+    private Function<String, SwiftCodeDTO> loader;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new CacheProperties();
+        cacheProperties.setMaximumSize(2);
+        cacheProperties.setTtl(Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        loads = new AtomicInteger();
+        loader = swiftCode -> {
+            loads.incrementAndGet();
+            return SwiftCodeDTO.builder().swiftCode(swiftCode).build();
+        };
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        SwiftCodeCache cache = cache();
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("BBBBPLPWXXX", loader);
+        //A was used after B, so B is the one evicted by C
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("CCCCPLPWXXX", loader);
+
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+        cache.get("AAAAPLPWXXX", loader);
+        assertEquals(3, loads.get(), "A should still be cached");
+        cache.get("BBBBPLPWXXX", loader);
+        assertEquals(4, loads.get(), "B should be loaded again");
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void testExpiredEntryIsLoadedAgain() {
+        SwiftCodeCache cache = cache();
+        SwiftCodeDTO first = cache.get("AAAAPLPWXXX", loader);
+
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertSame(first, cache.get("AAAAPLPWXXX", loader));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNotSame(first, cache.get("AAAAPLPWXXX", loader));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testInvalidate() {
+        SwiftCodeCache cache = cache();
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("BBBBPLPWXXX", loader);
+
+        cache.invalidate("AAAAPLPWXXX");
+        assertEquals(1, cache.size());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testValueLoadedDuringInvalidationIsNotCached() {
+        SwiftCodeCache cache = cache();
+
+        //row was changed (and the code invalidated) while we were reading the old version
+        SwiftCodeDTO stale = cache.get("AAAAPLPWXXX", swiftCode -> {
+            cache.invalidate(swiftCode);
+            return loader.apply(swiftCode);
+        });
+
+        assertNotNull(stale);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLoaderExceptionIsNotCached() {
+        SwiftCodeCache cache = cache();
+
+        assertThrows(IllegalStateException.class, () -> cache.get("AAAAPLPWXXX", swiftCode -> {
+            throw new IllegalStateException("not found");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testDisabledCache() {
+        cacheProperties.setMaximumSize(0);
+        SwiftCodeCache cache = cache();
+
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("AAAAPLPWXXX", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testMetrics() {
+        SwiftCodeCache cache = cache();
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("AAAAPLPWXXX", loader);
+        cache.get("AAAAPLPWXXX", loader);
+
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "swiftCodes").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(0, meterRegistry.get("cache.evictions").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.size").gauge().value());
+    }
+
+    private SwiftCodeCache cache() {
+        return new SwiftCodeCache(cacheProperties, meterRegistry, clock::get);
+    }
+}
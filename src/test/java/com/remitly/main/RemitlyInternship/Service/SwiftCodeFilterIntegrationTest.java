@@ -0,0 +1,96 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
+import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//rebuild after imports is only done by hand here (long delay), so we know when the filter is ready
+@SpringBootTest(properties = {"swift.filter.enabled=true", "swift.filter.rebuild-delay=1h"})
+@ActiveProfiles("test")
+public class SwiftCodeFilterIntegrationTest {
+
+    @Autowired
+    private SwiftCodeFilter swiftCodeFilter;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeParseService swiftCodeParseService;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        swiftCodeRepository.deleteAllInBatch();
+        swiftCodeParseService.parseExcelFile(new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream());
+        swiftCodeCache.invalidateAll();
+    }
+
+    @Test
+    void testUnknownCodeIsRejectedWithoutDatabase() {
+        assertFalse(swiftCodeFilter.isReady(), "Import should mark the filter stale");
+        assertTrue(swiftCodeFilter.rebuild());
+        List<String> swiftCodes = jdbcTemplate.queryForList("SELECT swift_code FROM swift_codes", String.class);
+        swiftCodes.forEach(swiftCode -> assertTrue(swiftCodeFilter.mightContain(swiftCode), swiftCode));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeService.getSwiftCode("NOPENOPEXXX"));
+            assertFalse(swiftCodeService.swiftCodeExists("NOPENOPEXXX"));
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void testCreateAndDeleteAreAppliedWithoutRebuild() {
+        assertTrue(swiftCodeFilter.rebuild());
+        String newHeadquarters = "ZZZZPLPWXXX";
+        assertFalse(swiftCodeFilter.mightContain(newHeadquarters));
+
+        swiftCodeService.createSwiftCode(SwiftCodeRequestDTO.builder()
+                .swiftCode(newHeadquarters)
+                .bankName("NEW BANK")
+                .address("SOMEWHERE")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build());
+
+        assertTrue(swiftCodeFilter.isReady());
+        assertTrue(swiftCodeService.swiftCodeExists(newHeadquarters));
+
+        swiftCodeService.deleteSwiftCode(newHeadquarters);
+
+        assertTrue(swiftCodeFilter.isReady());
+        assertFalse(swiftCodeFilter.mightContain(newHeadquarters));
+    }
+}
@@ -0,0 +1,187 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeIndexDataTest {
+
+    //ids like the database sequence gives them, in the order rows are created in a test
+    private long nextId = 1;
+
+    @Test
+    void testPackAndUnpack() {
+        for (String swiftCode : List.of("ABCDPLPWXXX", "ABCDPLPW123", "zzzzzzzz999", "A1B2C3D4E5F")) {
+            assertTrue(SwiftCodeIndexData.isPackable(swiftCode));
+            assertEquals(swiftCode, SwiftCodeIndexData.unpack(
+                    SwiftCodeIndexData.packHigh(swiftCode), SwiftCodeIndexData.packLow(swiftCode)));
+        }
+        assertFalse(SwiftCodeIndexData.isPackable("ABCDPLPW"));
+        assertFalse(SwiftCodeIndexData.isPackable("ABCDPLPWXXXX"));
+        assertFalse(SwiftCodeIndexData.isPackable("ABCDPLPWŻŻŻ"));
+        assertFalse(SwiftCodeIndexData.isPackable(null));
+    }
+
+    @Test
+    void testFindAfterRandomPutsAndRemoves() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        //few banks with many branches -> many codes share the high part, lots of collisions and shifts
+        for (int i = 0; i < 20_000; i++) {
+            String swiftCode = String.format("BANK%02dPW%03d", random.nextInt(20), random.nextInt(300));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(swiftCode) != null, data.remove(swiftCode));
+            } else {
+                String bankName = "BANK " + i;
+                data.put(row(swiftCode, bankName, "PL", null));
+                expected.put(swiftCode, bankName);
+            }
+        }
+
+        assertEquals(expected.size(), data.size());
+        expected.forEach((swiftCode, bankName) -> {
+            int row = data.find(swiftCode);
+            assertNotEquals(SwiftCodeIndexData.NO_ROW, row, swiftCode);
+            assertEquals(swiftCode, data.swiftCode(row));
+            assertEquals(bankName, data.bankName(row));
+        });
+        assertEquals(expected.size(), data.countryRows("PL").length);
+        assertEquals(SwiftCodeIndexData.NO_ROW, data.find("NOPEPLPWXXX"));
+        assertEquals(SwiftCodeIndexData.NO_ROW, data.find("SHORT"));
+    }
+
+    @Test
+    void testBranchesAreLinkedEvenBeforeTheirHeadquarter() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+
+        assertTrue(data.putAll(List.of(
+                row("ABCDPLPWKRK", "A", "PL", "ABCDPLPWXXX"),
+                row("ABCDPLPWXXX", "A", "PL", null),
+                row("ABCDPLPWGDA", "A", "PL", "ABCDPLPWXXX"),
+                row("EFGHDEFFXXX", "E", "DE", null))));
+
+        int headquarters = data.find("ABCDPLPWXXX");
+        assertEquals(List.of("ABCDPLPWKRK", "ABCDPLPWGDA"), swiftCodes(data, data.branchRows(headquarters)));
+        assertEquals(headquarters, data.headquartersRow(data.find("ABCDPLPWKRK")));
+        assertEquals(List.of("ABCDPLPWKRK", "ABCDPLPWXXX", "ABCDPLPWGDA"), swiftCodes(data, data.countryRows("PL")));
+        assertEquals(List.of("EFGHDEFFXXX"), swiftCodes(data, data.countryRows("DE")));
+        assertEquals(0, data.countryRows("US").length);
+    }
+
+    @Test
+    void testNewHeadquarterAdoptsBranches() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        data.put(row("ABCDPLPWKRK", "A", "PL", null));
+
+        data.put(new SwiftCodeIndexData.Row(nextId++, "ABCDPLPWXXX", "A", "", "PL", "POLAND", true, null,
+                List.of("ABCDPLPWKRK", "MISSINGXXXX")));
+
+        int headquarters = data.find("ABCDPLPWXXX");
+        assertEquals(List.of("ABCDPLPWKRK"), swiftCodes(data, data.branchRows(headquarters)));
+    }
+
+    @Test
+    void testNewHeadquarterAdoptsOrphanBranchesOfItsBank() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        data.putAll(List.of(
+                row("ABCDPLPWKRK", "A", "PL", null),
+                row("ABCDPLPWGDA", "A", "PL", null),
+                row("ABCDPLPXGDA", "A", "PL", null)));
+
+        //like SwiftCodeRepository.linkBranchesToHeadquarter, nothing is listed in the row
+        data.put(row("ABCDPLPWXXX", "A", "PL", null));
+
+        int headquarters = data.find("ABCDPLPWXXX");
+        //id order like @OrderBy("id"), not code order
+        assertEquals(List.of("ABCDPLPWKRK", "ABCDPLPWGDA"), swiftCodes(data, data.branchRows(headquarters)));
+        //other bank code (8th character)
+        assertEquals(SwiftCodeIndexData.NO_ROW, data.headquartersRow(data.find("ABCDPLPXGDA")));
+    }
+
+    @Test
+    void testRemovingHeadquarterKeepsBranchesAsOrphans() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        data.putAll(List.of(
+                row("ABCDPLPWXXX", "A", "PL", null),
+                row("ABCDPLPWKRK", "A", "PL", "ABCDPLPWXXX")));
+
+        assertTrue(data.remove("ABCDPLPWXXX"));
+
+        int branch = data.find("ABCDPLPWKRK");
+        assertEquals(SwiftCodeIndexData.NO_ROW, data.headquartersRow(branch));
+        assertEquals(List.of("ABCDPLPWKRK"), swiftCodes(data, data.countryRows("PL")));
+
+        //row of the removed code is reused
+        data.put(row("NEWBPLPWXXX", "N", "PL", null));
+        assertEquals(2, data.size());
+        assertEquals(List.of("ABCDPLPWKRK", "NEWBPLPWXXX"), swiftCodes(data, data.countryRows("PL")));
+    }
+
+    @Test
+    void testPutAllReportsCodesWhichCantBePacked() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+
+        assertFalse(data.putAll(List.of(row("ABCDPLPWXXX", "A", "PL", null), row("ABCD", "A", "PL", null))));
+        assertEquals(1, data.size());
+    }
+
+    @Test
+    void testSearchByCodePrefixThenByWordsOfBankName() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        data.putAll(List.of(
+                row("BPKOPLPWXXX", "PKO BANK POLSKI", "PL", null),
+                row("BPKOPLPWKRK", "PKO BANK POLSKI", "PL", "BPKOPLPWXXX"),
+                row("BSCHESMMXXX", "Banco Santander, S.A.", "ES", null),
+                row("PKOPPLPWXXX", "BANK PEKAO", "PL", null),
+                row("CAIXESBBXXX", "CaixaBank Año", "ES", null)));
+
+        assertEquals(List.of("BPKOPLPWKRK", "BPKOPLPWXXX"), swiftCodes(data, data.search("BPKOPL", "BPKOPL", 10)));
+        //code prefix first, then names starting with any word
+        assertEquals(List.of("PKOPPLPWXXX", "BPKOPLPWKRK", "BPKOPLPWXXX"), swiftCodes(data, data.search("PKO", "PKO", 10)));
+        assertEquals(List.of("BSCHESMMXXX"), swiftCodes(data, data.search("SANTANDERSA", "SANTANDER S A", 10)));
+        assertEquals(List.of("CAIXESBBXXX"), swiftCodes(data, data.search("ANO", "ANO", 10)));
+        assertEquals(2, data.search("B", "B", 2).length);
+        assertEquals(0, data.search("NOPE", "NOPE", 10).length);
+    }
+
+    @Test
+    void testSearchFollowsPutsAndRemoves() {
+        SwiftCodeIndexData data = new SwiftCodeIndexData();
+        data.put(row("ABCDPLPWXXX", "OLD NAME", "PL", null));
+
+        data.put(row("ABCDPLPWXXX", "NEW NAME", "PL", null));
+        assertEquals(0, data.search("", "OLD", 10).length);
+        assertEquals(List.of("ABCDPLPWXXX"), swiftCodes(data, data.search("", "NEW", 10)));
+
+        data.remove("ABCDPLPWXXX");
+        assertEquals(0, data.search("ABCD", "NAME", 10).length);
+    }
+
+    @Test
+    void testNormalizeBankName() {
+        assertEquals("BANK PEKAO S A", SwiftCodeIndexData.normalizeBankName("  Bank Pekao, S.A. "));
+        assertEquals("ZOLC BANK", SwiftCodeIndexData.normalizeBankName("Żółć-Bank"));
+        assertEquals("", SwiftCodeIndexData.normalizeBankName(null));
+    }
+
+    private SwiftCodeIndexData.Row row(String swiftCode, String bankName, String countryISO2,
+                                       String headquartersSwiftCode) {
+        return new SwiftCodeIndexData.Row(nextId++, swiftCode, bankName, "", countryISO2, "COUNTRY " + countryISO2,
+                swiftCode.endsWith("XXX"), headquartersSwiftCode, null);
+    }
+
+    private static List<String> swiftCodes(SwiftCodeIndexData data, int[] rows) {
+        List<String> swiftCodes = new ArrayList<>();
+        Arrays.stream(rows).forEach(row -> swiftCodes.add(data.swiftCode(row)));
+        return swiftCodes;
+    }
+}
@@ -0,0 +1,157 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.DTO.CountrySwiftCodesResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBranchDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
+import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//rebuild after imports is only done by hand here (long delay), so we know when reads go to the database
+@SpringBootTest(properties = {"swift.index.enabled=true", "swift.index.rebuild-delay=1h"})
+@ActiveProfiles("test")
+public class SwiftCodeIndexIntegrationTest {
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeParseService swiftCodeParseService;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        swiftCodeRepository.deleteAllInBatch();
+        swiftCodeParseService.parseExcelFile(new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream());
+        swiftCodeCache.invalidateAll();
+    }
+
+    @Test
+    void testIndexAnswersLikeTheDatabase() {
+        assertFalse(swiftCodeIndex.isReady(), "Import should mark the index stale");
+        List<String> swiftCodes = jdbcTemplate.queryForList("SELECT swift_code FROM swift_codes", String.class);
+        List<String> countries = jdbcTemplate.queryForList("SELECT DISTINCT countryiso2 FROM swift_codes", String.class);
+        Map<String, SwiftCodeDTO> fromDatabase = new LinkedHashMap<>();
+        swiftCodes.forEach(swiftCode -> fromDatabase.put(swiftCode, swiftCodeService.getSwiftCode(swiftCode)));
+        Map<String, CountrySwiftCodesResponseDTO> countriesFromDatabase = new LinkedHashMap<>();
+        countries.forEach(country -> countriesFromDatabase.put(country, swiftCodeService.getCountrySwiftCodes(country)));
+
+        assertTrue(swiftCodeIndex.rebuild());
+
+        fromDatabase.forEach((swiftCode, expected) ->
+                assertEquals(expected, swiftCodeIndex.getSwiftCode(swiftCode, this::noDatabase), swiftCode));
+        countriesFromDatabase.forEach((country, expected) ->
+                assertEquals(expected, swiftCodeIndex.getCountrySwiftCodes(country, this::noDatabase), country));
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeIndex.getSwiftCode("NOPENOPEXXX", this::noDatabase));
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeIndex.getCountrySwiftCodes("XX", this::noDatabase));
+    }
+
+    @Test
+    void testCreateAndDeleteAreAppliedWithoutRebuild() {
+        assertTrue(swiftCodeIndex.rebuild());
+        String headquarters = jdbcTemplate.queryForObject(
+                "SELECT swift_code FROM swift_codes WHERE is_headquarter ORDER BY swift_code LIMIT 1", String.class);
+        String newBranch = headquarters.substring(0, 8) + "ZZ9";
+
+        swiftCodeService.createSwiftCode(SwiftCodeRequestDTO.builder()
+                .swiftCode(newBranch)
+                .bankName("NEW BRANCH")
+                .address("SOMEWHERE")
+                .countryISO2(headquarters.substring(4, 6))
+                .countryName("SOME COUNTRY")
+                .isHeadquarter(false)
+                .build());
+
+        assertTrue(swiftCodeIndex.isReady());
+        assertEquals("NEW BRANCH", swiftCodeIndex.getSwiftCode(newBranch, this::noDatabase).getBankName());
+        assertTrue(swiftCodeIndex.getSwiftCode(headquarters, this::noDatabase).getBranches().stream()
+                .anyMatch(branch -> branch.getSwiftCode().equals(newBranch)));
+
+        assertEquals(List.of(newBranch), swiftCodeIndex.search("", "NEW BRANCH", 10, this::noSearch).stream()
+                .map(SwiftCodeDTO::getSwiftCode).toList());
+
+        swiftCodeService.deleteSwiftCode(headquarters);
+
+        //branches are deleted with their headquarter
+        assertTrue(swiftCodeIndex.isReady());
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeIndex.getSwiftCode(headquarters, this::noDatabase));
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeIndex.getSwiftCode(newBranch, this::noDatabase));
+        assertTrue(swiftCodeIndex.search("", "NEW BRANCH", 10, this::noSearch).isEmpty());
+    }
+
+    //branches are adopted in id order, so the index lists them like the database (@OrderBy("id")), not by code
+    @Test
+    void testHeadquarterCreatedAfterItsBranchesListsThemLikeTheDatabase() {
+        assertTrue(swiftCodeIndex.rebuild());
+        for (String swiftCode : List.of("NEWBPLPWKRK", "NEWBPLPWGDA", "NEWBPLPWXXX")) {
+            swiftCodeService.createSwiftCode(SwiftCodeRequestDTO.builder()
+                    .swiftCode(swiftCode)
+                    .bankName("NEW BANK")
+                    .address("SOMEWHERE")
+                    .countryISO2("PL")
+                    .countryName("POLAND")
+                    .isHeadquarter(swiftCode.endsWith("XXX"))
+                    .build());
+        }
+        SwiftCodeDTO fromIndex = swiftCodeIndex.getSwiftCode("NEWBPLPWXXX", this::noDatabase);
+
+        SwiftCodeDTO fromDatabase;
+        swiftCodeIndex.beginBulkWrite();
+        try {
+            swiftCodeCache.invalidateAll();
+            fromDatabase = swiftCodeService.getSwiftCode("NEWBPLPWXXX");
+        } finally {
+            swiftCodeIndex.endBulkWrite();
+        }
+
+        assertEquals(List.of("NEWBPLPWKRK", "NEWBPLPWGDA"), fromDatabase.getBranches().stream()
+                .map(SwiftCodeBranchDTO::getSwiftCode).toList());
+        assertEquals(fromDatabase, fromIndex);
+    }
+
+    //imports commit many batches, a rebuild between them would publish a half imported directory
+    @Test
+    void testNoRebuildDuringBulkWrite() {
+        swiftCodeIndex.beginBulkWrite();
+        try {
+            assertFalse(swiftCodeIndex.rebuild());
+            assertFalse(swiftCodeIndex.isReady());
+        } finally {
+            swiftCodeIndex.endBulkWrite();
+        }
+
+        assertTrue(swiftCodeIndex.rebuild());
+    }
+
+    private List<SwiftCodeDTO> noSearch() {
+        throw new AssertionError("Index should search without the database");
+    }
+
+    private <T> T noDatabase(String key) {
+        throw new AssertionError("Index should answer without the database: " + key);
+    }
+}
@@ -0,0 +1,220 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ Insert throughput of SWIFT codes, run it with: ./mvnw test -Pbenchmark
+ (number of rows can be changed with -Dbenchmark.rows=50000)
+
+ * "before" - what the IDENTITY mapping we had before did: every INSERT sent on its own to get the id back
+              (no JDBC batching), plain JDBC on its own table created by this test, so no other test context sees it
+ * "after"  - SwiftCode: ids from the pooled sequence, ordered and rewritten batch inserts (batch size from yml)
+ Both persist the same rows (headquarter first, branches point to it) in one transaction, parsing is not measured.
+ The whole import (parse + link + insert, current code) is printed too, it's not part of the comparison.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+public class SwiftCodeParseBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BRANCHES_PER_BANK = 4;
+
+    //columns of swift_codes as they were with IDENTITY ids
+    private static final String CREATE_IDENTITY_TABLE = """
+            CREATE TABLE benchmark_identity_swift_codes (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                swift_code VARCHAR(255) NOT NULL UNIQUE,
+                bank_name VARCHAR(255),
+                address VARCHAR(255),
+                countryiso2 VARCHAR(255),
+                country_name VARCHAR(255),
+                is_headquarter BOOLEAN NOT NULL,
+                headquarters_id BIGINT REFERENCES benchmark_identity_swift_codes (id)
+            )
+            """;
+    private static final String INSERT_IDENTITY_ROW = """
+            INSERT INTO benchmark_identity_swift_codes
+                (swift_code, bank_name, address, countryiso2, country_name, is_headquarter, headquarters_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
+            """;
+
+    @Autowired
+    private SwiftCodeParseService swiftCodeParseService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createIdentityTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS benchmark_identity_swift_codes");
+        jdbcTemplate.execute(CREATE_IDENTITY_TABLE);
+    }
+
+    @AfterEach
+    void dropIdentityTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS benchmark_identity_swift_codes");
+    }
+
+    @Test
+    void benchmarkInsertThroughput() throws Exception {
+        //warm up (JIT, connection pool, Hibernate metadata)
+        insertIdentityRows(1_000);
+        insertSequenceRows(1_000);
+        runImport(createExcelFile(1_000), 1_000);
+
+        double identity = insertIdentityRows(ROWS);
+        double sequence = insertSequenceRows(ROWS);
+        double wholeImport = runImport(createExcelFile(ROWS), ROWS);
+
+        System.out.printf("%nSwiftCode insert throughput (%d rows)%n", ROWS);
+        System.out.printf("  before (IDENTITY, row by row)    : %10.0f rows/s%n", identity);
+        System.out.printf("  after  (pooled sequence, batched): %10.0f rows/s%n", sequence);
+        System.out.printf("  speedup                          : %10.1fx%n", sequence / identity);
+        System.out.printf("  whole import (parse + insert)    : %10.0f rows/s%n%n", wholeImport);
+    }
+
+    //returns rows per second
+    private double insertIdentityRows(int rows) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.execute("DELETE FROM benchmark_identity_swift_codes");
+
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Long headquartersId = null;
+            for (int i = 0; i < rows; i++) {
+                //one round trip per row, the id is needed right away (like Hibernate with IDENTITY)
+                Long id = jdbcTemplate.queryForObject(INSERT_IDENTITY_ROW, Long.class,
+                        swiftCode(i), "Benchmark Bank " + bank(i), "Street " + i + ", Warsaw", "PL", "POLAND",
+                        isHeadquarter(i), isHeadquarter(i) ? null : headquartersId);
+                if (isHeadquarter(i)) {
+                    headquartersId = id;
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(rows, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM benchmark_identity_swift_codes", Long.class));
+        return rows / (elapsed / 1_000_000_000.0);
+    }
+
+    private double insertSequenceRows(int rows) {
+        swiftCodeRepository.deleteAllInBatch();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            SwiftCode headquarters = null;
+            for (int i = 0; i < rows; i++) {
+                SwiftCode swiftCode = SwiftCode.builder()
+                        .swiftCode(swiftCode(i))
+                        .bankName("Benchmark Bank " + bank(i))
+                        .address("Street " + i + ", Warsaw")
+                        .countryISO2("PL")
+                        .countryName("POLAND")
+                        .isHeadquarter(isHeadquarter(i))
+                        .headquarters(isHeadquarter(i) ? null : headquarters)
+                        .build();
+                entityManager.persist(swiftCode);
+                if (isHeadquarter(i)) {
+                    headquarters = swiftCode;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(rows, swiftCodeRepository.count());
+        return rows / (elapsed / 1_000_000_000.0);
+    }
+
+    private double runImport(byte[] excelFile, int rows) throws IOException {
+        swiftCodeRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        swiftCodeParseService.parseExcelFile(new ByteArrayInputStream(excelFile));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(rows, swiftCodeRepository.count());
+        return rows / (elapsed / 1_000_000_000.0);
+    }
+
+    private static int bank(int row) {
+        return row / (BRANCHES_PER_BANK + 1);
+    }
+
+    private static boolean isHeadquarter(int row) {
+        return row % (BRANCHES_PER_BANK + 1) == 0;
+    }
+
+    private static String swiftCode(int row) {
+        int branch = row % (BRANCHES_PER_BANK + 1);
+        String bankCode = "BK" + String.format("%6s", Integer.toString(bank(row), 36)).replace(' ', '0').toUpperCase();
+        return bankCode + (branch == 0 ? "XXX" : String.format("B%02d", branch));
+    }
+
+    //every bank has a headquarter (XXX) and a few branches
+    static byte[] createExcelFile(int rows) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            Sheet sheet = workbook.createSheet("SwiftCodes");
+            Row headerRow = sheet.createRow(0);
+            headerRow.createCell(0).setCellValue("COUNTRY ISO2 CODE");
+            headerRow.createCell(1).setCellValue("SWIFT CODE");
+            headerRow.createCell(2).setCellValue("CODE TYPE");
+            headerRow.createCell(3).setCellValue("NAME");
+            headerRow.createCell(4).setCellValue("ADDRESS");
+            headerRow.createCell(5).setCellValue("TOWN NAME");
+            headerRow.createCell(6).setCellValue("COUNTRY NAME");
+            headerRow.createCell(7).setCellValue("TIME ZONE");
+
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("PL");
+                row.createCell(1).setCellValue(swiftCode(i));
+                row.createCell(2).setCellValue("BIC11");
+                row.createCell(3).setCellValue("Benchmark Bank " + bank(i));
+                row.createCell(4).setCellValue("Street " + i + ", Warsaw");
+                row.createCell(5).setCellValue("WARSAW");
+                row.createCell(6).setCellValue("Poland");
+                row.createCell(7).setCellValue("Europe/Warsaw");
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            workbook.dispose();
+            return out.toByteArray();
+        }
+    }
+}
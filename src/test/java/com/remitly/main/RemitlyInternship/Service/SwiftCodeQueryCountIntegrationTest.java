@@ -0,0 +1,160 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkDeleteRequestDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeBulkDeleteResponseDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeDTO;
+import com.remitly.main.RemitlyInternship.DTO.SwiftCodeLookupResponseDTO;
+import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//number of SQL statements of one read (or delete), reads go to the database here (index is off in the test profile)
+@SpringBootTest
+@ActiveProfiles("test")
+public class SwiftCodeQueryCountIntegrationTest {
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private SwiftCodeCache swiftCodeCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAllInBatch();
+        SwiftCode headquarters = swiftCodeRepository.save(swiftCode("ABCDPLPWXXX", null));
+        for (String branch : new String[]{"ABCDPLPWKRK", "ABCDPLPWGDA", "ABCDPLPWPOZ"}) {
+            swiftCodeRepository.save(swiftCode(branch, headquarters));
+        }
+        swiftCodeCache.invalidateAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testHeadquarterWithBranchesIsOneStatement() {
+        SwiftCodeDTO headquarters = swiftCodeService.getSwiftCode("ABCDPLPWXXX");
+
+        assertEquals(3, headquarters.getBranches().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBranchIsOneStatement() {
+        swiftCodeService.getSwiftCode("ABCDPLPWKRK");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testNotFoundIsOneStatement() {
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeService.getSwiftCode("NOPENOPEXXX"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCountryIsOneStatement() {
+        assertEquals(4, swiftCodeService.getCountrySwiftCodes("PL").getSwiftCodes().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testLookupOfManyCodesIsOneStatement() {
+        SwiftCodeLookupResponseDTO result = swiftCodeService.lookupSwiftCodes(
+                List.of("ABCDPLPWXXX", "ABCDPLPWKRK", "ABCDPLPWGDA", "NOPENOPEXXX"));
+
+        assertEquals(3, result.getSwiftCodes().size());
+        assertEquals(3, result.getSwiftCodes().getFirst().getBranches().size());
+        assertEquals(List.of("NOPENOPEXXX"), result.getMissingSwiftCodes());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCachedResponseIsNoStatement() {
+        swiftCodeService.getSwiftCode("ABCDPLPWXXX");
+        statistics.clear();
+
+        swiftCodeService.getSwiftCode("ABCDPLPWXXX");
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testDeletingHeadquarterWithManyBranchesIsTwoStatements() {
+        SwiftCode headquarters = swiftCodeRepository.findBySwiftCode("ABCDPLPWXXX").orElseThrow();
+        List<SwiftCode> branches = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            branches.add(swiftCode(String.format("ABCDPLPW%03d", i), headquarters));
+        }
+        swiftCodeRepository.saveAll(branches);
+        statistics.clear();
+
+        swiftCodeService.deleteSwiftCode("ABCDPLPWXXX");
+
+        //SELECT of the id + one DELETE of the headquarter and all 503 branches
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, swiftCodeRepository.count());
+    }
+
+    @Test
+    void testDeletingBranchKeepsHeadquarterAndOtherBranches() {
+        swiftCodeService.deleteSwiftCode("ABCDPLPWKRK");
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, swiftCodeService.getSwiftCode("ABCDPLPWXXX").getBranches().size());
+    }
+
+    @Test
+    void testDeletingWholeCountryIsOneStatement() {
+        SwiftCodeBulkDeleteResponseDTO result = swiftCodeService.deleteSwiftCodes(
+                SwiftCodeBulkDeleteRequestDTO.builder().countryISO2("PL").build());
+
+        assertEquals(4, result.getDeleted());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private SwiftCode swiftCode(String swiftCode, SwiftCode headquarters) {
+        return SwiftCode.builder()
+                .swiftCode(swiftCode)
+                .bankName("ABCD BANK")
+                .address("STREET 1")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(headquarters == null)
+                .headquarters(headquarters)
+                .branches(new LinkedHashSet<>())
+                .build();
+    }
+}
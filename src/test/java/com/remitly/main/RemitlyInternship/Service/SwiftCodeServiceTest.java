@@ -1,25 +1,38 @@
 package com.remitly.main.RemitlyInternship.Service;
 
+import com.remitly.main.RemitlyInternship.Config.CacheProperties;
+import com.remitly.main.RemitlyInternship.Config.FilterProperties;
+import com.remitly.main.RemitlyInternship.Config.IndexProperties;
+import com.remitly.main.RemitlyInternship.Config.PaginationProperties;
 import com.remitly.main.RemitlyInternship.DTO.*;
+import com.remitly.main.RemitlyInternship.Exception.InvalidPageRequestException;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeExistsException;
 import com.remitly.main.RemitlyInternship.Exception.SwiftCodeNotFoundException;
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
 import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +42,19 @@ public class SwiftCodeServiceTest {
     //helps us to test our application in isolation
     @Mock
     private SwiftCodeRepository swiftCodeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    //real cache, so we can see what is served from it and what is invalidated
+    @Spy
+    private SwiftCodeCache swiftCodeCache = new SwiftCodeCache(new CacheProperties(), new SimpleMeterRegistry());
+    //index which is never built, so every read goes to the (mocked) repository
+    @Spy
+    private SwiftCodeIndex swiftCodeIndex = new SwiftCodeIndex(null, disabledIndex());
+    //filter which is never built, every code might exist unless a test says otherwise
+    @Spy
+    private SwiftCodeFilter swiftCodeFilter = new SwiftCodeFilter(null, disabledFilter());
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
     @InjectMocks
     private SwiftCodeService swiftCodeService; //inject all mocks into it swiftcodeService instance
 
@@ -53,7 +79,7 @@ public class SwiftCodeServiceTest {
     void testGetSwiftCode_Success() {
         String givenSwiftCode = headquarter.getSwiftCode();
         //simulation without database
-        when(swiftCodeRepository.findBySwiftCode(givenSwiftCode)).thenReturn(Optional.of(headquarter));
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(givenSwiftCode)).thenReturn(Optional.of(headquarter));
 
         SwiftCodeDTO result = swiftCodeService.getSwiftCode(givenSwiftCode);
 
@@ -70,7 +96,7 @@ public class SwiftCodeServiceTest {
         headquarter.getBranches().add(branch);
         headquarter.getBranches().add(branch2);
 
-        when(swiftCodeRepository.findBySwiftCode(headquarter.getSwiftCode())).thenReturn(Optional.of(headquarter));
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(headquarter.getSwiftCode())).thenReturn(Optional.of(headquarter));
 
         SwiftCodeDTO result = swiftCodeService.getSwiftCode(headquarter.getSwiftCode());
 
@@ -94,7 +120,7 @@ public class SwiftCodeServiceTest {
     @Test
     void testGetSwiftCodeBranch_Success() {
         String givenSwiftCode = branch.getSwiftCode();
-        when(swiftCodeRepository.findBySwiftCode(givenSwiftCode)).thenReturn(Optional.of(branch));
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(givenSwiftCode)).thenReturn(Optional.of(branch));
 
         SwiftCodeDTO result = swiftCodeService.getSwiftCode(givenSwiftCode);
         assertNotNull(result);
@@ -105,7 +131,7 @@ public class SwiftCodeServiceTest {
 
     @Test
     void getSwiftCode_NotFound() {
-        when(swiftCodeRepository.findBySwiftCode("NONEXISTENT")).thenReturn(Optional.empty());
+        when(swiftCodeRepository.findWithBranchesBySwiftCode("NONEXISTENT")).thenReturn(Optional.empty());
 
         assertThrows(SwiftCodeNotFoundException.class, () ->
                 swiftCodeService.getSwiftCode("NONEXISTENT")
@@ -135,6 +161,45 @@ public class SwiftCodeServiceTest {
         );
     }
 
+    @Test
+    void getSwiftCodeByCountryPage_NextPageStartsAfterLastCode() {
+        //one row more than the limit -> there is a next page
+        when(swiftCodeRepository.findCountryPage("PL", "", Limit.of(2)))
+                .thenReturn(List.of(branch, branch2, headquarter));
+
+        CountrySwiftCodesResponseDTO firstPage = swiftCodeService.getCountrySwiftCodesPage("pl", 1, null);
+
+        assertThat(firstPage.getSwiftCodes()).extracting(SwiftCodeDTO::getSwiftCode).containsExactly("ABCDPLPW123");
+        assertNotNull(firstPage.getNextCursor());
+
+        when(swiftCodeRepository.findCountryPage("PL", "ABCDPLPW123", Limit.of(2)))
+                .thenReturn(List.of(branch2));
+
+        CountrySwiftCodesResponseDTO secondPage = swiftCodeService.getCountrySwiftCodesPage("PL", 1, firstPage.getNextCursor());
+
+        assertThat(secondPage.getSwiftCodes()).extracting(SwiftCodeDTO::getSwiftCode).containsExactly("ABCDPLPW444");
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getSwiftCodeByCountryPage_LimitIsCutToMaxPageSize() {
+        when(swiftCodeRepository.findCountryPage(eq("PL"), eq(""), any())).thenReturn(countrySwiftCodes);
+
+        swiftCodeService.getCountrySwiftCodesPage("PL", 1_000_000, null);
+
+        verify(swiftCodeRepository).findCountryPage("PL", "", Limit.of(paginationProperties.getMaxPageSize() + 1));
+    }
+
+    @Test
+    void getSwiftCodeByCountryPage_InvalidRequests() {
+        assertThrows(InvalidPageRequestException.class, () -> swiftCodeService.getCountrySwiftCodesPage("PL", 0, null));
+        assertThrows(InvalidPageRequestException.class, () -> swiftCodeService.getCountrySwiftCodesPage("PL", 10, "%%%"));
+        //cursor of another country
+        String usCursor = Base64.getUrlEncoder().encodeToString("US:ABCDUS33XXX".getBytes());
+        assertThrows(InvalidPageRequestException.class, () -> swiftCodeService.getCountrySwiftCodesPage("PL", 10, usCursor));
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
 
     //creating new SwiftCode
     @Test
@@ -166,42 +231,216 @@ public class SwiftCodeServiceTest {
     //delete tests
     @Test
     void testDeleteSwiftCode_NotFound() {
-        when(swiftCodeRepository.findBySwiftCode("AADADADAXXX")).thenReturn(Optional.empty());
+        when(swiftCodeRepository.findDeleteTargetBySwiftCode("AADADADAXXX")).thenReturn(Optional.empty());
 
         assertThrows(SwiftCodeNotFoundException.class, () ->
                 swiftCodeService.deleteSwiftCode("AADADADAXXX")
         );
-        verify(swiftCodeRepository, never()).delete(any(SwiftCode.class));
+        verify(swiftCodeRepository, never()).deleteWithBranches(any());
     }
 
     @Test
     void testDeleteSwiftCode_Success() {
-        when(swiftCodeRepository.findBySwiftCode("ABCDPLPW123")).thenReturn(Optional.of(branch));
-        doNothing().when(swiftCodeRepository).delete(branch);
+        stubDelete(2L, "ABCDPLPW123", "ABCDPLPWXXX", List.of("ABCDPLPW123"));
 
         MessageResponseDTO result = swiftCodeService.deleteSwiftCode("ABCDPLPW123");
         assertNotNull(result);
         assertThat(result.getMessage()).contains("Successfully deleted SWIFT code: ");
         assertThat(result.getMessage()).contains(branch.getSwiftCode());
-        verify(swiftCodeRepository, times(1)).delete(branch);
+        verify(swiftCodeRepository, times(1)).deleteWithBranches(2L);
     }
 
     @Test
     void testDeleteHeadquarterWithBranches(){
-        when(swiftCodeRepository.findBySwiftCode("ABCDPLPWXXX")).thenReturn(Optional.of(headquarter));
-        doNothing().when(swiftCodeRepository).delete(headquarter);
+        stubDelete(1L, "ABCDPLPWXXX", null, List.of("ABCDPLPWXXX", "ABCDPLPW123"));
 
         MessageResponseDTO result = swiftCodeService.deleteSwiftCode("ABCDPLPWXXX");
         assertNotNull(result);
         assertThat(result.getMessage()).contains("Successfully deleted SWIFT code: ");
         assertThat(result.getMessage()).contains(headquarter.getSwiftCode());
 
-        verify(swiftCodeRepository, times(1)).delete(headquarter);
+        //one statement for the headquarter and its branches, no entity deletes
+        verify(swiftCodeRepository, times(1)).deleteWithBranches(1L);
+        verify(swiftCodeRepository, never()).delete(any(SwiftCode.class));
+    }
+
+    //cache tests
+    @Test
+    void testGetSwiftCode_SecondCallIsServedFromCache() {
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(headquarter.getSwiftCode())).thenReturn(Optional.of(headquarter));
+
+        SwiftCodeDTO first = swiftCodeService.getSwiftCode(headquarter.getSwiftCode());
+        SwiftCodeDTO second = swiftCodeService.getSwiftCode(headquarter.getSwiftCode());
+
+        assertSame(first, second);
+        verify(swiftCodeRepository, times(1)).findWithBranchesBySwiftCode(headquarter.getSwiftCode());
+        assertEquals(1, swiftCodeCache.getHitCount());
+        assertEquals(1, swiftCodeCache.getMissCount());
+    }
+
+    @Test
+    void testGetSwiftCode_NotFoundIsNotCached() {
+        when(swiftCodeRepository.findWithBranchesBySwiftCode("AADADADAXXX")).thenReturn(Optional.empty());
+
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeService.getSwiftCode("AADADADAXXX"));
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeService.getSwiftCode("AADADADAXXX"));
+
+        verify(swiftCodeRepository, times(2)).findWithBranchesBySwiftCode("AADADADAXXX");
+        assertEquals(0, swiftCodeCache.size());
     }
 
+    @Test
+    void testCreateBranch_DoesntLoadBranchesOfItsHeadquarter() {
+        when(swiftCodeRepository.existsBySwiftCode(requestDTO.getSwiftCode())).thenReturn(false);
+        SwiftCode headquarterWithLazyBranches = spy(headquarter);
+        when(swiftCodeRepository.findBySwiftCode("ABCDPLPWXXX")).thenReturn(Optional.of(headquarterWithLazyBranches));
+
+        swiftCodeService.createSwiftCode(requestDTO);
+
+        //touching a lazy Set (add checks duplicates) would load every branch of the bank
+        verify(headquarterWithLazyBranches, never()).getBranches();
+        verify(swiftCodeRepository).save(argThat(saved -> saved.getHeadquarters() == headquarterWithLazyBranches));
+    }
 
+    @Test
+    void testCreateBranch_InvalidatesCachedHeadquarter() {
+        //headquarter is read by getSwiftCode and by createSwiftCode
+        when(swiftCodeRepository.findWithBranchesBySwiftCode("ABCDPLPWXXX")).thenReturn(Optional.of(headquarter));
+        when(swiftCodeRepository.findBySwiftCode("ABCDPLPWXXX")).thenReturn(Optional.of(headquarter));
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(branch.getSwiftCode())).thenReturn(Optional.of(branch));
+        swiftCodeService.getSwiftCode("ABCDPLPWXXX");
+        swiftCodeService.getSwiftCode(branch.getSwiftCode());
+        when(swiftCodeRepository.existsBySwiftCode(requestDTO.getSwiftCode())).thenReturn(false);
 
+        swiftCodeService.createSwiftCode(requestDTO);
+
+        //new branch is in the headquarter response, other branch is still cached
+        verify(swiftCodeCache).invalidate(List.of(requestDTO.getSwiftCode(), "ABCDPLPWXXX"));
+        assertEquals(1, swiftCodeCache.size());
+        //the branch is saved from its side (headquarters_id), the database would return the headquarter with it now
+        headquarter.getBranches().add(SwiftCode.builder()
+                .swiftCode(requestDTO.getSwiftCode())
+                .bankName(requestDTO.getBankName())
+                .build());
+        SwiftCodeDTO result = swiftCodeService.getSwiftCode("ABCDPLPWXXX");
+        assertTrue(result.getBranches().stream().anyMatch(b -> b.getSwiftCode().equals(requestDTO.getSwiftCode())));
+    }
 
+    @Test
+    void testDeleteHeadquarter_InvalidatesItsBranches() {
+        stubDelete(1L, "ABCDPLPWXXX", null, List.of("ABCDPLPWXXX", "ABCDPLPW123"));
 
+        swiftCodeService.deleteSwiftCode("ABCDPLPWXXX");
 
+        //branches are deleted with the headquarter, so their cached responses have to go too
+        verify(swiftCodeCache).invalidate(List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+    }
+
+    @Test
+    void testDeleteBranch_InvalidatesItsHeadquarter() {
+        stubDelete(2L, "ABCDPLPW123", "ABCDPLPWXXX", List.of("ABCDPLPW123"));
+
+        swiftCodeService.deleteSwiftCode("ABCDPLPW123");
+
+        verify(swiftCodeCache).invalidate(List.of("ABCDPLPW123", "ABCDPLPWXXX"));
+    }
+
+    @Test
+    void testLookupSwiftCodes_CachedCodesAreNotLoadedAgain() {
+        when(swiftCodeRepository.findWithBranchesBySwiftCode(headquarter.getSwiftCode())).thenReturn(Optional.of(headquarter));
+        swiftCodeService.getSwiftCode(headquarter.getSwiftCode());
+        when(swiftCodeRepository.findWithBranchesBySwiftCodeIn(any())).thenReturn(List.of(branch));
+
+        SwiftCodeLookupResponseDTO result = swiftCodeService.lookupSwiftCodes(
+                List.of("ABCDPLPW123", "ABCDPLPWXXX", "NOPENOPEXXX", "ABCDPLPW123"));
+
+        //one query for the codes which weren't cached, duplicates are answered once
+        verify(swiftCodeRepository).findWithBranchesBySwiftCodeIn(List.of("ABCDPLPW123", "NOPENOPEXXX"));
+        assertThat(result.getSwiftCodes()).extracting(SwiftCodeDTO::getSwiftCode)
+                .containsExactly("ABCDPLPW123", "ABCDPLPWXXX");
+        assertEquals(List.of("NOPENOPEXXX"), result.getMissingSwiftCodes());
+    }
+
+    @Test
+    void testGetSwiftCode_RejectedByFilterDoesNotTouchRepository() {
+        doReturn(false).when(swiftCodeFilter).mightContain("NOPENOPEXXX");
+
+        assertThrows(SwiftCodeNotFoundException.class, () -> swiftCodeService.getSwiftCode("NOPENOPEXXX"));
+        assertFalse(swiftCodeService.swiftCodeExists("NOPENOPEXXX"));
+
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
+    @Test
+    void testDeleteHeadquarter_RemovesItAndBranchesFromFilter() {
+        stubDelete(1L, "ABCDPLPWXXX", null, List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+
+        swiftCodeService.deleteSwiftCode("ABCDPLPWXXX");
+
+        verify(swiftCodeFilter).remove(List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+    }
+
+    @Test
+    void testDeleteSwiftCodesOfBank_UpdatesFilterIndexAndCacheOnce() {
+        when(swiftCodeRepository.deleteAllByBankCodeWithBranches("ABCDPLPW"))
+                .thenReturn(List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+
+        SwiftCodeBulkDeleteResponseDTO result = swiftCodeService.deleteSwiftCodes(
+                SwiftCodeBulkDeleteRequestDTO.builder().bankCode("abcdplpw").build());
+
+        assertEquals(2, result.getDeleted());
+        assertNull(result.getMissingSwiftCodes());
+        verify(swiftCodeFilter).remove(List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+        verify(swiftCodeIndex).removeAll(List.of("ABCDPLPWXXX", "ABCDPLPW123"));
+        verify(swiftCodeCache).invalidate(Set.of("ABCDPLPWXXX", "ABCDPLPW123"));
+    }
+
+    @Test
+    void testDeleteSwiftCodesByList_InvalidatesHeadquartersOfDeletedBranches() {
+        when(swiftCodeRepository.deleteAllBySwiftCodeInWithBranches(Set.of("ABCDPLPW123", "NOPENOPEXXX")))
+                .thenReturn(List.of("ABCDPLPW123"));
+
+        SwiftCodeBulkDeleteResponseDTO result = swiftCodeService.deleteSwiftCodes(SwiftCodeBulkDeleteRequestDTO.builder()
+                .swiftCodes(List.of("ABCDPLPW123", "NOPENOPEXXX", "ABCDPLPW123"))
+                .build());
+
+        assertEquals(1, result.getDeleted());
+        assertEquals(List.of("NOPENOPEXXX"), result.getMissingSwiftCodes());
+        //headquarter stays, but its cached list of branches is outdated
+        verify(swiftCodeCache).invalidate(Set.of("ABCDPLPW123", "ABCDPLPWXXX"));
+        verify(swiftCodeRepository, never()).delete(any(SwiftCode.class));
+    }
+
+    @Test
+    void testCreateAndDelete_AreAppliedToIndex() {
+        when(swiftCodeRepository.existsBySwiftCode(requestDTO.getSwiftCode())).thenReturn(false);
+        when(swiftCodeRepository.findBySwiftCode("ABCDPLPWXXX")).thenReturn(Optional.of(headquarter));
+        stubDelete(2L, "ABCDPLPW123", "ABCDPLPWXXX", List.of("ABCDPLPW123"));
+
+        swiftCodeService.createSwiftCode(requestDTO);
+        swiftCodeService.deleteSwiftCode("ABCDPLPW123");
+
+        verify(swiftCodeIndex).put(argThat(swiftCode -> swiftCode.getSwiftCode().equals(requestDTO.getSwiftCode())));
+        verify(swiftCodeIndex).remove("ABCDPLPW123");
+    }
+
+    private void stubDelete(Long id, String swiftCode, String headquartersSwiftCode, List<String> deletedSwiftCodes) {
+        SwiftCodeRepository.DeleteTargetView target = mock(SwiftCodeRepository.DeleteTargetView.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getHeadquartersSwiftCode()).thenReturn(headquartersSwiftCode);
+        when(swiftCodeRepository.findDeleteTargetBySwiftCode(swiftCode)).thenReturn(Optional.of(target));
+        when(swiftCodeRepository.deleteWithBranches(id)).thenReturn(deletedSwiftCodes);
+    }
+
+    private static FilterProperties disabledFilter() {
+        FilterProperties filterProperties = new FilterProperties();
+        filterProperties.setEnabled(false);
+        return filterProperties;
+    }
+
+    private static IndexProperties disabledIndex() {
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(false);
+        return indexProperties;
+    }
 }
@@ -0,0 +1,131 @@
+package com.remitly.main.RemitlyInternship.Service;
+
+import com.remitly.main.RemitlyInternship.Model.ImportCheckpoint;
+import com.remitly.main.RemitlyInternship.Model.SwiftCode;
+import com.remitly.main.RemitlyInternship.Parser.SwiftCodeSnapshot;
+import com.remitly.main.RemitlyInternship.Repository.ImportCheckpointRepository;
+import com.remitly.main.RemitlyInternship.Repository.SwiftCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SwiftCodeSnapshotIntegrationTest {
+
+    //everything except the ids, headquarter by its swift code
+    private static final String SELECT_ROWS = """
+            SELECT s.swift_code, s.bank_name, s.address, s.countryiso2, s.country_name, s.is_headquarter,
+                   s.row_hash, s.bank_code, h.swift_code
+            FROM swift_codes s
+            LEFT JOIN swift_codes h ON h.id = s.headquarters_id
+            ORDER BY s.swift_code""";
+
+    @Autowired
+    private SwiftCodeSnapshotService swiftCodeSnapshotService;
+
+    @Autowired
+    private SwiftCodeParseService swiftCodeParseService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSnapshotRoundTripsParsedFile(@TempDir Path directory) throws Exception {
+        swiftCodeParseService.parseExcelFile(new ClassPathResource("data/Interns_2025_SWIFT_CODES.xlsx").getInputStream());
+        List<String> parsed = dumpRows();
+        Path file = directory.resolve("swift-codes.snapshot");
+
+        long exported = swiftCodeSnapshotService.exportSnapshot(file, "fingerprint");
+        swiftCodeRepository.deleteAllInBatch();
+        SwiftCodeSnapshot snapshot = SwiftCodeSnapshot.open(file);
+        long restored = swiftCodeSnapshotService.restoreSnapshot(snapshot);
+
+        assertEquals(1061, exported);
+        assertEquals(exported, restored);
+        assertEquals("fingerprint", snapshot.getSourceFingerprint());
+        assertEquals(parsed, dumpRows(), "Restored rows should be exactly the parsed ones");
+    }
+
+    @Test
+    void testRestoreReplacesDataAndKeepsSequence(@TempDir Path directory) throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("AAAAPLPWXXX").bankName("A").address("")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build());
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("AAAAPLPWKRK").bankName("A").address("KRAKOW")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(false)
+                .headquarters(swiftCodeRepository.findBySwiftCode("AAAAPLPWXXX").orElseThrow()).build());
+        Path file = directory.resolve("swift-codes.snapshot");
+        swiftCodeSnapshotService.exportSnapshot(file, null);
+        List<String> exported = dumpRows();
+
+        //data added after the export is gone after the restore
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("BBBBPLPWXXX").bankName("B").address("")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build());
+        swiftCodeSnapshotService.restoreSnapshot(SwiftCodeSnapshot.open(file));
+        assertEquals(exported, dumpRows());
+
+        //ids of restored rows were reserved in the sequence, so new rows don't collide with them
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("CCCCPLPWXXX").bankName("C").address("")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build());
+        assertEquals(3, swiftCodeRepository.count());
+    }
+
+    //uploaded snapshot is restored as an import job, checkpoints of the replaced directory are gone
+    @Test
+    void testSubmitRestore(@TempDir Path directory) throws Exception {
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("AAAAPLPWXXX").bankName("A").address("")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build());
+        Path file = directory.resolve("swift-codes.snapshot");
+        swiftCodeSnapshotService.exportSnapshot(file, null);
+        swiftCodeRepository.save(SwiftCode.builder().swiftCode("BBBBPLPWXXX").bankName("B").address("")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build());
+        importCheckpointRepository.save(ImportCheckpoint.builder().fingerprint("interrupted").source("other.xlsx")
+                .lastCommittedRow(500).rowsCommitted(500).updatedAt(Instant.now()).build());
+
+        ImportJob job = swiftCodeSnapshotService.submitRestore(new MockMultipartFile(
+                "file", "swift-codes.snapshot", "application/octet-stream", Files.readAllBytes(file)));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(ImportJob.Status.DONE, job.getStatus(), job.getMessage());
+        assertEquals(1, job.getRowsAccepted());
+        assertFalse(swiftCodeRepository.existsBySwiftCode("BBBBPLPWXXX"));
+        assertEquals(0, importCheckpointRepository.count());
+    }
+
+    private List<String> dumpRows() {
+        return jdbcTemplate.query(SELECT_ROWS, (resultSet, rowNum) -> {
+            StringBuilder row = new StringBuilder();
+            for (int i = 1; i <= 9; i++) {
+                row.append(resultSet.getString(i)).append('|');
+            }
+            return row.toString();
+        });
+    }
+}
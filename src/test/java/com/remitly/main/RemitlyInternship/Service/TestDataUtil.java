@@ -3,7 +3,7 @@ package com.remitly.main.RemitlyInternship.Service;
 import com.remitly.main.RemitlyInternship.DTO.SwiftCodeRequestDTO;
 import com.remitly.main.RemitlyInternship.Model.SwiftCode;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 public final class TestDataUtil {
@@ -17,7 +17,7 @@ public final class TestDataUtil {
                 .countryISO2("PL")
                 .countryName("POLAND")
                 .isHeadquarter(true)
-                .branches(new ArrayList<>())
+                .branches(new LinkedHashSet<>())
                 .build();
     }
 